@@ -335,6 +335,34 @@ public class Args {
     @Parameter(names = {"--validate-sign-thread"}, description = "Num of validate thread")
     private int validateSignThreadNum;
 
+    @Getter
+    @Setter
+    private long signatureCacheSize;
+
+    @Getter
+    @Setter
+    private long codeCacheSize;
+
+    @Getter
+    @Setter
+    private int syncPipelineDepth;
+
+    @Getter
+    @Setter
+    private int syncMaxPendingBlocks;
+
+    @Getter
+    @Setter
+    private int maxPendingTransactions;
+
+    @Getter
+    @Setter
+    private boolean parallelExecution;
+
+    @Getter
+    @Setter
+    private int parallelExecutionThreadNum;
+
     @Getter
     @Setter
     private long maintenanceTimeInterval; // (ms)
@@ -436,10 +464,30 @@ public class Args {
     @Setter
     private boolean vmTrace;
 
+    @Getter
+    @Setter
+    private boolean vmDecodedInterpreter;
+
     @Getter
     @Setter
     private boolean needToUpdateAsset;
 
+    @Getter
+    @Setter
+    private boolean needToUpdateTransactionPosition;
+
+    @Getter
+    @Setter
+    private boolean rebuildTransactionAddressIndex;
+
+    @Getter
+    @Setter
+    private boolean snapshotKeyFilter;
+
+    @Getter
+    @Setter
+    private boolean snapshotArena;
+
     @Getter
     @Setter
     private String trxReferenceBlock;
@@ -678,6 +726,9 @@ public class Args {
             INSTANCE.longRunningTime = config.getInt("vm.longRunningTime");
         }
 
+        INSTANCE.codeCacheSize = config.hasPath("vm.codeCacheSize") ? config
+                .getLong("vm.codeCacheSize") : 32L * 1024 * 1024;
+
         INSTANCE.storage = new Storage();
         INSTANCE.storage.setDbVersion(Optional.ofNullable(INSTANCE.storageDbVersion)
                 .filter(StringUtils::isNotEmpty)
@@ -915,6 +966,25 @@ public class Args {
         INSTANCE.validateSignThreadNum = config.hasPath("node.validateSignThreadNum") ? config
                 .getInt("node.validateSignThreadNum") : Runtime.getRuntime().availableProcessors() / 2;
 
+        INSTANCE.signatureCacheSize = config.hasPath("node.signatureCacheSize") ? config
+                .getLong("node.signatureCacheSize") : 100_000L;
+
+        INSTANCE.syncPipelineDepth = config.hasPath("node.syncPipelineDepth") ? config
+                .getInt("node.syncPipelineDepth") : 16;
+
+        INSTANCE.syncMaxPendingBlocks = config.hasPath("node.syncMaxPendingBlocks") ? config
+                .getInt("node.syncMaxPendingBlocks") : 2000;
+
+        INSTANCE.maxPendingTransactions = config.hasPath("node.maxPendingTransactions") ? config
+                .getInt("node.maxPendingTransactions") : 10_000;
+
+        INSTANCE.parallelExecution = config.hasPath("node.parallelExecution")
+                && config.getBoolean("node.parallelExecution");
+
+        INSTANCE.parallelExecutionThreadNum = config.hasPath("node.parallelExecutionThreadNum")
+                ? config.getInt("node.parallelExecutionThreadNum")
+                : Runtime.getRuntime().availableProcessors() / 2;
+
         INSTANCE.walletExtensionApi =
                 config.hasPath("node.walletExtensionApi") && config.getBoolean("node.walletExtensionApi");
 
@@ -935,6 +1005,21 @@ public class Args {
         INSTANCE.needToUpdateAsset =
                 config.hasPath("storage.needToUpdateAsset") && config.getBoolean("storage.needToUpdateAsset");
 
+        INSTANCE.needToUpdateTransactionPosition =
+                config.hasPath("storage.needToUpdateTransactionPosition") && config
+                        .getBoolean("storage.needToUpdateTransactionPosition");
+
+        INSTANCE.rebuildTransactionAddressIndex =
+                config.hasPath("storage.rebuildTransactionAddressIndex") && config
+                        .getBoolean("storage.rebuildTransactionAddressIndex");
+
+        INSTANCE.snapshotKeyFilter =
+                config.hasPath("storage.snapshotKeyFilter") && config
+                        .getBoolean("storage.snapshotKeyFilter");
+
+        INSTANCE.snapshotArena =
+                config.hasPath("storage.snapshotArena") && config.getBoolean("storage.snapshotArena");
+
         INSTANCE.minEffectiveConnection = config.hasPath("node.rpc.minEffectiveConnection") ?
                 config.getInt("node.rpc.minEffectiveConnection") : 1;
 
@@ -947,6 +1032,9 @@ public class Args {
         INSTANCE.saveInternalTx =
                 config.hasPath("vm.saveInternalTx") && config.getBoolean("vm.saveInternalTx");
 
+        INSTANCE.vmDecodedInterpreter = config.hasPath("vm.decodedInterpreter")
+                && config.getBoolean("vm.decodedInterpreter");
+
         INSTANCE.eventPluginConfig =
                 config.hasPath("event.subscribe") ?
                         getEventPluginConfig(config) : null;
@@ -13,11 +13,14 @@
 
 package org.gsc.config.args;
 
+import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigObject;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -48,6 +51,7 @@ public class Storage {
     private static final String INDEX_SWITCH_CONFIG_KEY = "storage.index.switch";
     private static final String TRANSACTIONHISTORY_SWITCH_CONFIG_KEY = "storage.transHistory.switch";
     private static final String PROPERTIES_CONFIG_KEY = "storage.properties";
+    private static final String PROFILES_CONFIG_KEY = "storage.profiles";
     private static final String DEFAULT_TRANSACTIONHISTORY_SWITCH = "on";
 
     private static final String NAME_CONFIG_KEY = "name";
@@ -60,6 +64,8 @@ public class Storage {
     private static final String WRITE_BUFFER_SIZE_CONFIG_KEY = "writeBufferSize";
     private static final String CACHE_SIZE_CONFIG_KEY = "cacheSize";
     private static final String MAX_OPEN_FILES_CONFIG_KEY = "maxOpenFiles";
+    private static final String PROFILE_CONFIG_KEY = "profile";
+    private static final String BLOOM_FILTER_BITS_CONFIG_KEY = "bloomFilterBits";
     private static final String EVENT_SUBSCRIB_CONTRACT_PARSE = "event.subscribe.contractParse";
 
     /**
@@ -84,6 +90,19 @@ public class Storage {
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 10 * 1024 * 1024;
     private static final long DEFAULT_CACHE_SIZE = 10 * 1024 * 1024L;
     private static final int DEFAULT_MAX_OPEN_FILES = 100;
+    private static final int DEFAULT_BLOOM_FILTER_BITS = 10;
+
+    /**
+     * Built-in profiles: "default" holds the values above, "pointLookup" is for the stores read
+     * mostly by key and keeps their hot blocks in a larger cache
+     */
+    public static final String DEFAULT_PROFILE = "default";
+    public static final String POINT_LOOKUP_PROFILE = "pointLookup";
+    private static final long POINT_LOOKUP_CACHE_SIZE = 32 * 1024 * 1024L;
+    private static final int POINT_LOOKUP_WRITE_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final int POINT_LOOKUP_MAX_OPEN_FILES = 500;
+    private static final Set<String> POINT_LOOKUP_DBS = ImmutableSet.of(
+            "account", "storage_row", "contract", "transaction", "transaction_info_store");
 
     /**
      * Database storage directory: /path/to/{dbDirectory}
@@ -133,8 +152,15 @@ public class Storage {
         private String name;
         private String path;
         private Options dbOptions;
+        private String profile;
+        private int bloomFilterBits;
     }
 
+    /**
+     * Key: profile name, Value: Property object holding the options of that profile
+     */
+    private Map<String, Property> profileMap = createDefaultProfiles();
+
     /**
      * Key: dbName, Value: Property object of that database
      */
@@ -187,9 +213,16 @@ public class Storage {
      * @param config Config object from "config.conf" file
      */
     public void setPropertyMapFromConfig(final Config config) {
+        if (config.hasPath(PROFILES_CONFIG_KEY)) {
+            for (ConfigObject conf : config.getObjectList(PROFILES_CONFIG_KEY)) {
+                Property profile = createProperty(conf, profileMap);
+                profileMap.put(profile.getName(), profile);
+            }
+        }
+
         if (config.hasPath(PROPERTIES_CONFIG_KEY)) {
             propertyMap = config.getObjectList(PROPERTIES_CONFIG_KEY).stream()
-                    .map(Storage::createProperty)
+                    .map(conf -> createProperty(conf, profileMap))
                     .collect(Collectors.toMap(Property::getName, p -> p));
         }
     }
@@ -217,7 +250,34 @@ public class Storage {
         if (hasProperty(dbName)) {
             return getProperty(dbName).getDbOptions();
         }
-        return createDefaultDbOptions();
+        return copyOf(profileMap.get(getProfileByDbName(dbName)).getDbOptions());
+    }
+
+    /**
+     * Get name of the profile the options of a database start from
+     *
+     * @param dbName name of database
+     * @return profile name
+     */
+    public String getProfileByDbName(String dbName) {
+        if (hasProperty(dbName)) {
+            return getProperty(dbName).getProfile();
+        }
+        return POINT_LOOKUP_DBS.contains(dbName) ? POINT_LOOKUP_PROFILE : DEFAULT_PROFILE;
+    }
+
+    /**
+     * Get bits per key of the bloom filter by name of database, only used by RocksDB since the
+     * LevelDB options have no filter policy
+     *
+     * @param dbName name of database
+     * @return bits per key
+     */
+    public int getBloomFilterBitsByDbName(String dbName) {
+        if (hasProperty(dbName)) {
+            return getProperty(dbName).getBloomFilterBits();
+        }
+        return profileMap.get(getProfileByDbName(dbName)).getBloomFilterBits();
     }
 
     /**
@@ -247,7 +307,8 @@ public class Storage {
         return propertyMap.get(dbName);
     }
 
-    private static Property createProperty(final ConfigObject conf) {
+    private static Property createProperty(final ConfigObject conf,
+                                           final Map<String, Property> profiles) {
 
         Property property = new Property();
 
@@ -275,8 +336,20 @@ public class Storage {
             property.setPath(path);
         }
 
+        // Start from the options of the profile
+        Property base = profiles.get(DEFAULT_PROFILE);
+        if (conf.containsKey(PROFILE_CONFIG_KEY)) {
+            String profile = conf.get(PROFILE_CONFIG_KEY).unwrapped().toString();
+            base = profiles.get(profile);
+            if (base == null) {
+                throw new IllegalArgumentException("[storage.properties] unknown profile: " + profile);
+            }
+        }
+        property.setProfile(base.getName());
+        property.setBloomFilterBits(base.getBloomFilterBits());
+
         // Check, get and set fields of Options
-        Options dbOptions = createDefaultDbOptions();
+        Options dbOptions = copyOf(base.getDbOptions());
 
         if (conf.containsKey(CREATE_IF_MISSING_CONFIG_KEY)) {
             dbOptions.createIfMissing(
@@ -367,10 +440,63 @@ public class Storage {
             }
         }
 
+        if (conf.containsKey(BLOOM_FILTER_BITS_CONFIG_KEY)) {
+            try {
+                property.setBloomFilterBits(
+                        Integer.parseInt(
+                                conf.get(BLOOM_FILTER_BITS_CONFIG_KEY).unwrapped().toString()
+                        )
+                );
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "[storage.properties] bloomFilterBits must be Integer type.");
+            }
+        }
+
         property.setDbOptions(dbOptions);
         return property;
     }
 
+    private static Map<String, Property> createDefaultProfiles() {
+        Map<String, Property> profiles = new HashMap<>();
+
+        Property defaultProfile = new Property();
+        defaultProfile.setName(DEFAULT_PROFILE);
+        defaultProfile.setProfile(DEFAULT_PROFILE);
+        defaultProfile.setDbOptions(createDefaultDbOptions());
+        defaultProfile.setBloomFilterBits(DEFAULT_BLOOM_FILTER_BITS);
+        profiles.put(DEFAULT_PROFILE, defaultProfile);
+
+        Property pointLookup = new Property();
+        pointLookup.setName(POINT_LOOKUP_PROFILE);
+        pointLookup.setProfile(POINT_LOOKUP_PROFILE);
+        Options dbOptions = createDefaultDbOptions();
+        dbOptions.cacheSize(POINT_LOOKUP_CACHE_SIZE);
+        dbOptions.writeBufferSize(POINT_LOOKUP_WRITE_BUFFER_SIZE);
+        dbOptions.maxOpenFiles(POINT_LOOKUP_MAX_OPEN_FILES);
+        pointLookup.setDbOptions(dbOptions);
+        pointLookup.setBloomFilterBits(DEFAULT_BLOOM_FILTER_BITS);
+        profiles.put(POINT_LOOKUP_PROFILE, pointLookup);
+
+        return profiles;
+    }
+
+    private static Options copyOf(Options options) {
+        Options dbOptions = new Options();
+
+        dbOptions.createIfMissing(options.createIfMissing());
+        dbOptions.paranoidChecks(options.paranoidChecks());
+        dbOptions.verifyChecksums(options.verifyChecksums());
+
+        dbOptions.compressionType(options.compressionType());
+        dbOptions.blockSize(options.blockSize());
+        dbOptions.writeBufferSize(options.writeBufferSize());
+        dbOptions.cacheSize(options.cacheSize());
+        dbOptions.maxOpenFiles(options.maxOpenFiles());
+
+        return dbOptions;
+    }
+
     private static Options createDefaultDbOptions() {
         Options dbOptions = new Options();
 
@@ -428,11 +428,6 @@ public class Wallet {
                 }
             }
 
-            if (dbManager.isTooManyPending()) {
-                logger.warn("Broadcast transaction {} failed, too many pending.", trx.getTransactionId());
-                return builder.setResult(false).setCode(response_code.SERVER_BUSY).build();
-            }
-
             if (dbManager.isGeneratingBlock()) {
                 logger
                         .warn("Broadcast transaction {} failed, is generating block.", trx.getTransactionId());
@@ -448,7 +443,11 @@ public class Wallet {
             if (dbManager.getDynamicPropertiesStore().supportVM()) {
                 trx.resetResult();
             }
-            dbManager.pushTransaction(trx);
+            if (!dbManager.pushTransaction(trx)) {
+                logger.warn("Broadcast transaction {} failed, transaction pool is full.",
+                        trx.getTransactionId());
+                return builder.setResult(false).setCode(response_code.SERVER_BUSY).build();
+            }
             gscNetService.broadcast(message);
             logger.info("Broadcast transaction {} successfully.", trx.getTransactionId());
             return builder.setResult(true).setCode(response_code.SUCCESS).build();
@@ -970,14 +969,12 @@ public class Wallet {
         }
 
         List<AssetIssueWrapper> assetIssueWrapperList =
-                dbManager.getAssetIssueStoreFinal().getAllAssetIssues();
+                dbManager.getAssetIssueStoreFinal().getAssetIssuesByOwner(accountAddress);
 
         AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-        assetIssueWrapperList.stream()
-                .filter(assetIssueWrapper -> assetIssueWrapper.getOwnerAddress().equals(accountAddress))
-                .forEach(issueWrapper -> {
-                    builder.addAssetIssue(issueWrapper.getInstance());
-                });
+        assetIssueWrapperList.forEach(issueWrapper -> {
+            builder.addAssetIssue(issueWrapper.getInstance());
+        });
 
         return builder.build();
     }
@@ -1108,15 +1105,12 @@ public class Wallet {
         } else {
             // get asset issue by name from new DB
             List<AssetIssueWrapper> assetIssueWrapperList =
-                    dbManager.getAssetIssueV2Store().getAllAssetIssues();
+                    dbManager.getAssetIssueV2Store().getAssetIssuesByName(assetName);
             AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-            assetIssueWrapperList
-                    .stream()
-                    .filter(assetIssueWrapper -> assetIssueWrapper.getName().equals(assetName))
-                    .forEach(
-                            issueWrapper -> {
-                                builder.addAssetIssue(issueWrapper.getInstance());
-                            });
+            assetIssueWrapperList.forEach(
+                    issueWrapper -> {
+                        builder.addAssetIssue(issueWrapper.getInstance());
+                    });
 
             // check count
             if (builder.getAssetIssueCount() > 1) {
@@ -1156,14 +1150,12 @@ public class Wallet {
         }
 
         List<AssetIssueWrapper> assetIssueWrapperList =
-                dbManager.getAssetIssueStoreFinal().getAllAssetIssues();
+                dbManager.getAssetIssueStoreFinal().getAssetIssuesByName(assetName);
 
         AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-        assetIssueWrapperList.stream()
-                .filter(assetIssueWrapper -> assetIssueWrapper.getName().equals(assetName))
-                .forEach(issueWrapper -> {
-                    builder.addAssetIssue(issueWrapper.getInstance());
-                });
+        assetIssueWrapperList.forEach(issueWrapper -> {
+            builder.addAssetIssue(issueWrapper.getInstance());
+        });
 
         return builder.build();
     }
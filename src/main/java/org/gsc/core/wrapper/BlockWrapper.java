@@ -18,6 +18,7 @@ package org.gsc.core.wrapper;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import java.security.SignatureException;
@@ -131,6 +132,14 @@ public class BlockWrapper implements ProtoWrapper<Block> {
     public boolean generatedByMyself = false;
     private List<TransactionWrapper> transactions = new ArrayList<>();
 
+    /**
+     * builder used while assembling a block, transactions are appended to it without
+     * rebuilding the block, see {@link #startAssembling()}.
+     */
+    private Block.Builder assemblingBuilder;
+    private boolean assemblingDirty = false;
+    private long assemblingSize;
+
     public BlockWrapper(long number, Sha256Hash hash, long when, ByteString extraData, ByteString witnessAddress) {
         // blockheader raw
         BlockHeader.raw.Builder blockHeaderRawBuild = BlockHeader.raw.newBuilder();
@@ -202,10 +211,47 @@ public class BlockWrapper implements ProtoWrapper<Block> {
     }
 
     public void addTransaction(TransactionWrapper pendingTrx) {
-        this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
+        if (assemblingBuilder != null) {
+            assemblingBuilder.addTransactions(pendingTrx.getInstance());
+            assemblingSize += CodedOutputStream
+                    .computeMessageSize(Block.TRANSACTIONS_FIELD_NUMBER, pendingTrx.getInstance());
+            assemblingDirty = true;
+        } else {
+            this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
+        }
         getTransactions().add(pendingTrx);
     }
 
+    /**
+     * keep a mutable builder for the following addTransaction calls, the block is built once
+     * when the header is modified (setMerkleRoot, sign...) or the instance is requested.
+     */
+    public void startAssembling() {
+        if (assemblingBuilder == null) {
+            assemblingBuilder = this.block.toBuilder();
+            assemblingSize = this.block.getSerializedSize();
+            assemblingDirty = false;
+        }
+    }
+
+    private void finishAssembling() {
+        if (assemblingBuilder != null) {
+            if (assemblingDirty) {
+                this.block = assemblingBuilder.build();
+            }
+            assemblingBuilder = null;
+            assemblingDirty = false;
+        }
+    }
+
+    public long getSerializedSize() {
+        return assemblingBuilder != null ? assemblingSize : this.block.getSerializedSize();
+    }
+
+    public BlockHeader getBlockHeader() {
+        return this.block.getBlockHeader();
+    }
+
     public List<TransactionWrapper> getTransactions() {
         return transactions;
     }
@@ -218,6 +264,7 @@ public class BlockWrapper implements ProtoWrapper<Block> {
 
     public void sign(byte[] privateKey) {
         // TODO private_key == null
+        finishAssembling();
         ECKey ecKey = ECKey.fromPrivate(privateKey);
         ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
         ByteString sig = ByteString.copyFrom(signature.toByteArray());
@@ -261,6 +308,7 @@ public class BlockWrapper implements ProtoWrapper<Block> {
     }
 
     public Sha256Hash calcMerkleRoot() {
+        finishAssembling();
         List<Transaction> transactionsList = this.block.getTransactionsList();
 
         if (CollectionUtils.isEmpty(transactionsList)) {
@@ -276,6 +324,7 @@ public class BlockWrapper implements ProtoWrapper<Block> {
     }
 
     public void setMerkleRoot() {
+        finishAssembling();
         BlockHeader.raw blockHeaderRaw =
                 this.block.getBlockHeader().getRawData().toBuilder()
                         .setTxTrieRoot(calcMerkleRoot().getByteString()).build();
@@ -285,6 +334,7 @@ public class BlockWrapper implements ProtoWrapper<Block> {
     }
 
     public void setAccountStateRoot(byte[] root) {
+        finishAssembling();
         BlockHeader.raw blockHeaderRaw =
                 this.block.getBlockHeader().getRawData().toBuilder()
                         .setAccountStateRoot(ByteString.copyFrom(root)).build();
@@ -295,6 +345,7 @@ public class BlockWrapper implements ProtoWrapper<Block> {
 
     /* only for genisis */
     public void setWitness(String witness) {
+        finishAssembling();
         BlockHeader.raw blockHeaderRaw =
                 this.block.getBlockHeader().getRawData().toBuilder().setWitnessAddress(
                         ByteString.copyFrom(witness.getBytes())).build();
@@ -321,11 +372,15 @@ public class BlockWrapper implements ProtoWrapper<Block> {
 
     @Override
     public byte[] getData() {
-        return this.block.toByteArray();
+        return getInstance().toByteArray();
     }
 
     @Override
     public Block getInstance() {
+        if (assemblingDirty) {
+            this.block = assemblingBuilder.build();
+            assemblingDirty = false;
+        }
         return this.block;
     }
 
@@ -198,8 +198,8 @@ public class TransactionInfoWrapper implements ProtoWrapper<TransactionInfo> {
         builder.addAllLog(logList);
 
         if (Objects.nonNull(block)) {
-            builder.setBlockNumber(block.getInstance().getBlockHeader().getRawData().getNumber());
-            builder.setBlockTimeStamp(block.getInstance().getBlockHeader().getRawData().getTimestamp());
+            builder.setBlockNumber(block.getBlockHeader().getRawData().getNumber());
+            builder.setBlockTimeStamp(block.getBlockHeader().getRawData().getTimestamp());
         }
 
         builder.setReceipt(traceReceipt.getReceipt());
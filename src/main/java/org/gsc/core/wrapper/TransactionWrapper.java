@@ -43,6 +43,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.gsc.core.wrapper.utils.SignatureCache;
 import org.gsc.crypto.ECKey;
 import org.gsc.crypto.ECKey.ECDSASignature;
 import org.gsc.net.peer.p2p.Message;
@@ -106,13 +107,26 @@ import org.gsc.protos.Protocol.Transaction.raw;
 public class TransactionWrapper implements ProtoWrapper<Transaction> {
 
     private Transaction transaction;
+    @Getter
     @Setter
     private boolean isVerified = false;
 
+    /**
+     * cached hash of raw data, reset whenever raw data changes.
+     */
+    private Sha256Hash rawHash;
+
     @Setter
     @Getter
     private long blockNum = -1;
 
+    /**
+     * position of this transaction inside its block, -1 if unknown.
+     */
+    @Setter
+    @Getter
+    private int blockIndex = -1;
+
     @Getter
     @Setter
     private TransactionTrace trxTrace;
@@ -226,6 +240,7 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
                 .setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
                 .build();
         this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+        this.rawHash = null;
     }
 
     /**
@@ -235,6 +250,7 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
         Transaction.raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration)
                 .build();
         this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+        this.rawHash = null;
     }
 
     public long getExpiration() {
@@ -246,6 +262,7 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
                 .setTimestamp(System.currentTimeMillis())
                 .build();
         this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+        this.rawHash = null;
     }
 
     public long getTimestamp() {
@@ -270,6 +287,7 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
                 Transaction.Contract.newBuilder().setType(contractType).setParameter(
                         Any.pack(message)).build());
         transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+        this.rawHash = null;
     }
 
     public Sha256Hash getMerkleHash() {
@@ -278,7 +296,12 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
     }
 
     private Sha256Hash getRawHash() {
-        return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+        Sha256Hash hash = this.rawHash;
+        if (hash == null) {
+            hash = Sha256Hash.of(this.transaction.getRawData().toByteArray());
+            this.rawHash = hash;
+        }
+        return hash;
     }
 
     public void sign(byte[] privateKey) {
@@ -317,7 +340,8 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
                         "Signature size is " + sig.size());
             }
             String base64 = TransactionWrapper.getBase64FromByteString(sig);
-            byte[] address = ECKey.signatureToAddress(hash, base64);
+            byte[] address = SignatureCache.getInstance()
+                    .getAddress(hash, sig, () -> ECKey.signatureToAddress(hash, base64));
             long weight = getWeight(permission, address);
             if (weight == 0) {
                 throw new PermissionException(
@@ -708,14 +732,17 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
     }
 
     public static String getBase64FromByteString(ByteString sign) {
+        return getSignatureFromByteString(sign).toBase64();
+    }
+
+    public static ECDSASignature getSignatureFromByteString(ByteString sign) {
         byte[] r = sign.substring(0, 32).toByteArray();
         byte[] s = sign.substring(32, 64).toByteArray();
         byte v = sign.byteAt(64);
         if (v < 27) {
             v += 27; //revId -> v
         }
-        ECDSASignature signature = ECDSASignature.fromComponents(r, s, v);
-        return signature.toBase64();
+        return ECDSASignature.fromComponents(r, s, v);
     }
 
     public static boolean validateSignature(Transaction transaction,
@@ -750,7 +777,10 @@ public class TransactionWrapper implements ProtoWrapper<Transaction> {
                 throw new PermissionException("Permission denied");
             }
         }
-        long weight = checkWeight(permission, transaction.getSignatureList(), hash, null);
+        final Permission checkedPermission = permission;
+        long weight = SignatureCache.getInstance().getWeight(hash,
+                transaction.getSignatureList(), permission,
+                () -> checkWeight(checkedPermission, transaction.getSignatureList(), hash, null));
         if (weight >= permission.getThreshold()) {
             return true;
         }
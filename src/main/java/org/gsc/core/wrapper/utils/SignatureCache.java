@@ -0,0 +1,175 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.core.wrapper.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.protobuf.ByteString;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gsc.config.args.Args;
+import org.gsc.core.exception.PermissionException;
+import org.gsc.core.exception.SignatureFormatException;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.crypto.ECKey;
+import org.gsc.crypto.ECKey.ECDSASignature;
+import org.gsc.crypto.Secp256k1Recovery;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.protos.Protocol.Permission;
+import org.gsc.utils.ByteUtil;
+import org.gsc.utils.Sha256Hash;
+
+/**
+ * Results of signature checks shared by mempool admission and block validation, so a
+ * transaction seen in the mempool is not recovered again when it arrives in a block.
+ * address: raw hash and signature to the recovered address.
+ * weight: raw hash, signatures and the permission they were checked against to the approved
+ * weight. The permission content is part of the key, so an account permission update misses
+ * the cache instead of reading a stale weight.
+ * Only successful checks are cached, failures are checked again every time.
+ */
+@Slf4j(topic = "wrapper")
+public class SignatureCache {
+
+    private static final SignatureCache INSTANCE =
+            new SignatureCache(Args.getInstance().getSignatureCacheSize());
+
+    private final boolean enabled;
+
+    private final Cache<WrappedByteArray, byte[]> addressCache;
+
+    private final Cache<WrappedByteArray, Long> weightCache;
+
+    public SignatureCache(long maximumSize) {
+        enabled = maximumSize > 0;
+        addressCache = CacheBuilder.newBuilder().maximumSize(Math.max(maximumSize, 0))
+                .recordStats().build();
+        weightCache = CacheBuilder.newBuilder().maximumSize(Math.max(maximumSize, 0))
+                .recordStats().build();
+    }
+
+    public static SignatureCache getInstance() {
+        return INSTANCE;
+    }
+
+    public interface AddressRecover {
+
+        byte[] recover() throws SignatureException;
+    }
+
+    public interface WeightChecker {
+
+        long check() throws SignatureException, PermissionException, SignatureFormatException;
+    }
+
+    public byte[] getAddress(byte[] hash, ByteString sig, AddressRecover recover)
+            throws SignatureException {
+        if (!enabled) {
+            return recover.recover();
+        }
+        WrappedByteArray key = createAddressKey(hash, sig);
+        byte[] address = addressCache.getIfPresent(key);
+        if (address == null) {
+            address = recover.recover();
+            addressCache.put(key, address);
+        }
+        return address;
+    }
+
+    /**
+     * recovers the signers of the transactions in one batch and caches them, signatures
+     * already cached or rejected by the batch are left to {@link #getAddress}.
+     */
+    public void recoverAddresses(List<TransactionWrapper> transactions) {
+        if (!enabled) {
+            return;
+        }
+        List<WrappedByteArray> keys = new ArrayList<>();
+        List<ECDSASignature> sigs = new ArrayList<>();
+        List<byte[]> hashes = new ArrayList<>();
+        for (TransactionWrapper transaction : transactions) {
+            if (transaction.isVerified()) {
+                continue;
+            }
+            byte[] hash = transaction.getRawHash().getBytes();
+            for (ByteString sig : transaction.getInstance().getSignatureList()) {
+                if (sig.size() < 65) {
+                    continue;
+                }
+                WrappedByteArray key = createAddressKey(hash, sig);
+                if (addressCache.asMap().containsKey(key)) {
+                    continue;
+                }
+                keys.add(key);
+                sigs.add(TransactionWrapper.getSignatureFromByteString(sig));
+                hashes.add(hash);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[][] pubKeys = Secp256k1Recovery.recoverPubBytes(sigs, hashes);
+        for (int i = 0; i < pubKeys.length; i++) {
+            if (pubKeys[i] != null) {
+                addressCache.put(keys.get(i), ECKey.computeAddress(pubKeys[i]));
+            }
+        }
+    }
+
+    public long getWeight(byte[] hash, List<ByteString> sigs, Permission permission,
+            WeightChecker checker)
+            throws SignatureException, PermissionException, SignatureFormatException {
+        if (!enabled) {
+            return checker.check();
+        }
+        byte[][] contents = new byte[sigs.size() + 2][];
+        contents[0] = hash;
+        contents[1] = permission.toByteArray();
+        for (int i = 0; i < sigs.size(); i++) {
+            contents[i + 2] = sigs.get(i).toByteArray();
+        }
+        WrappedByteArray key = WrappedByteArray.of(Sha256Hash.of(ByteUtil.merge(contents))
+                .getBytes());
+        Long weight = weightCache.getIfPresent(key);
+        if (weight == null) {
+            weight = checker.check();
+            weightCache.put(key, weight);
+        }
+        return weight;
+    }
+
+    private static WrappedByteArray createAddressKey(byte[] hash, ByteString sig) {
+        return WrappedByteArray.of(ByteUtil.merge(hash, sig.toByteArray()));
+    }
+
+    public CacheStats getAddressStats() {
+        return addressCache.stats();
+    }
+
+    public CacheStats getWeightStats() {
+        return weightCache.stats();
+    }
+
+    public String getStatistics() {
+        CacheStats address = getAddressStats();
+        CacheStats weight = getWeightStats();
+        return String.format("address hit rate: %.4f (%d/%d), weight hit rate: %.4f (%d/%d)",
+                address.hitRate(), address.hitCount(), address.requestCount(),
+                weight.hitRate(), weight.hitCount(), weight.requestCount());
+    }
+}
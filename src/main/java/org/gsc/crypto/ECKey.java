@@ -450,8 +450,7 @@ public class ECKey implements Serializable {
             header -= 4;
         }
         int recId = header - 27;
-        byte[] key = ECKey.recoverPubBytesFromSignature(recId, sig,
-                messageHash);
+        byte[] key = Secp256k1Recovery.recoverPubBytes(recId, sig, messageHash);
         if (key == null) {
             throw new SignatureException("Could not recover public key from " +
                     "signature");
@@ -913,7 +912,7 @@ public class ECKey implements Serializable {
         int recId = -1;
         byte[] thisKey = this.pub.getEncoded(/* compressed */ false);
         for (int i = 0; i < 4; i++) {
-            byte[] k = ECKey.recoverPubBytesFromSignature(i, sig, messageHash);
+            byte[] k = Secp256k1Recovery.recoverPubBytes(i, sig, messageHash);
             if (k != null && Arrays.equals(k, thisKey)) {
                 recId = i;
                 break;
@@ -0,0 +1,670 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.crypto;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import org.gsc.crypto.ECKey.ECDSASignature;
+import org.gsc.utils.ByteUtil;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.custom.sec.SecP256K1Field;
+import org.spongycastle.math.raw.Nat256;
+
+/**
+ * Public key recovery for secp256k1 signatures, with the same results as
+ * {@link ECKey#recoverPubBytesFromSignature(int, ECDSASignature, byte[])}.
+ *
+ * <p>Q = u1 * G + u2 * R is computed in one pass of 256 doublings over the interleaved wNAF
+ * digits of both scalars. The odd multiples of G are precomputed once, the odd multiples of R
+ * are built per signature. Field elements are 8 x 32 bit limbs reduced by the specialised
+ * secp256k1 field of spongycastle, every intermediate lives in scratch buffers of the engine,
+ * so a recovery allocates nothing but its scalars and the encoded result.</p>
+ *
+ * <p>A batch recovers all signatures phase by phase and converts the R tables and the results
+ * to affine coordinates with one field inversion per phase for the whole batch.</p>
+ *
+ * <p>An engine is not thread safe, the static methods use one engine per thread.</p>
+ */
+public class Secp256k1Recovery {
+
+    private static final BigInteger N = ECKey.CURVE.getN();
+    private static final BigInteger P = ((ECCurve.Fp) ECKey.CURVE.getCurve()).getQ();
+
+    private static final int G_WINDOW = 8;
+    private static final int R_WINDOW = 5;
+    private static final int G_TABLE_SIZE = 1 << (G_WINDOW - 2);
+    private static final int R_TABLE_SIZE = 1 << (R_WINDOW - 2);
+    private static final int WNAF_LENGTH = 256 + G_WINDOW;
+
+    /**
+     * affine odd multiples G, 3G, 5G, ... of the generator.
+     */
+    private static final int[][] G_X = new int[G_TABLE_SIZE][];
+    private static final int[][] G_Y = new int[G_TABLE_SIZE][];
+
+    private static final int[] CURVE_B = new int[]{7, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int OK = 0;
+    private static final int NO_KEY = 1;
+    private static final int INVALID_POINT = 2;
+    private static final int NOT_INVERTIBLE = 3;
+
+    private static final ThreadLocal<Secp256k1Recovery> ENGINE =
+            ThreadLocal.withInitial(Secp256k1Recovery::new);
+
+    static {
+        ECPoint g = ECKey.CURVE.getG().normalize();
+        ECPoint twice = g.twice();
+        ECPoint point = g;
+        for (int i = 0; i < G_TABLE_SIZE; i++) {
+            ECPoint normalized = point.normalize();
+            G_X[i] = toField(normalized.getAffineXCoord().toBigInteger());
+            G_Y[i] = toField(normalized.getAffineYCoord().toBigInteger());
+            point = point.add(twice);
+        }
+    }
+
+    /* scratch of the field and point arithmetic */
+    private final int[] tt = Nat256.createExt();
+    private final int[][] t = new int[12][8];
+
+    /* per signature state of a batch, grown on demand */
+    private int capacity;
+    private int[] status;
+    private byte[][] u1Wnaf;
+    private byte[][] u2Wnaf;
+    private int[][] tableX;
+    private int[][] tableY;
+    private int[][] tableZ;
+    private int[][] accX;
+    private int[][] accY;
+    private int[][] accZ;
+    private int[][] inverses;
+    private int[][] products;
+
+    public Secp256k1Recovery() {
+        ensureCapacity(1);
+    }
+
+    /**
+     * same contract as {@link ECKey#recoverPubBytesFromSignature(int, ECDSASignature, byte[])}:
+     * null if the recId yields no candidate key, IllegalArgumentException if x is not on the
+     * curve.
+     */
+    public static byte[] recoverPubBytes(int recId, ECDSASignature sig, byte[] messageHash) {
+        return ENGINE.get().recover(recId, sig, messageHash);
+    }
+
+    /**
+     * recovers the keys of the signatures, recId taken from the header byte v of each signature
+     * as in {@link ECKey#signatureToKeyBytes(byte[], ECDSASignature)}. An entry is null where
+     * the single recovery would return null or fail.
+     */
+    public static byte[][] recoverPubBytes(List<ECDSASignature> sigs, List<byte[]> messageHashes) {
+        return ENGINE.get().recoverAll(sigs, messageHashes);
+    }
+
+    public byte[] recover(int recId, ECDSASignature sig, byte[] messageHash) {
+        check(recId >= 0, "recId must be positive");
+        check(sig.r.signum() >= 0, "r must be positive");
+        check(sig.s.signum() >= 0, "s must be positive");
+        check(messageHash != null, "messageHash must not be null");
+        prepare(0, recId, sig, messageHash);
+        switch (status[0]) {
+            case NO_KEY:
+                return null;
+            case INVALID_POINT:
+                throw new IllegalArgumentException("Invalid point compression");
+            case NOT_INVERTIBLE:
+                throw new ArithmeticException("BigInteger not invertible.");
+            default:
+                break;
+        }
+        normalizeTables(1);
+        multiply(0);
+        return normalizeResults(1)[0];
+    }
+
+    public byte[][] recoverAll(List<ECDSASignature> sigs, List<byte[]> messageHashes) {
+        check(sigs.size() == messageHashes.size(), "one message hash per signature");
+        int size = sigs.size();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            ECDSASignature sig = sigs.get(i);
+            byte[] messageHash = messageHashes.get(i);
+            int header = sig.v;
+            if (header < 27 || header > 34 || messageHash == null || messageHash.length != 32
+                    || sig.r.signum() < 0 || sig.s.signum() < 0) {
+                status[i] = NO_KEY;
+                continue;
+            }
+            if (header >= 31) {
+                header -= 4;
+            }
+            prepare(i, header - 27, sig, messageHash);
+        }
+        normalizeTables(size);
+        for (int i = 0; i < size; i++) {
+            if (status[i] == OK) {
+                multiply(i);
+            }
+        }
+        return normalizeResults(size);
+    }
+
+    /**
+     * decompresses R, builds its odd multiples in jacobian coordinates and recodes both scalars.
+     */
+    private void prepare(int i, int recId, ECDSASignature sig, byte[] messageHash) {
+        status[i] = NO_KEY;
+        BigInteger x = sig.r.add(BigInteger.valueOf((long) recId / 2).multiply(N));
+        if (x.compareTo(P) >= 0) {
+            return;
+        }
+        int[] rx = tableX[i * R_TABLE_SIZE];
+        int[] ry = tableY[i * R_TABLE_SIZE];
+        fromBytes(ByteUtil.bigIntegerToBytes(x, 32), rx);
+        if (!decompress(rx, (recId & 1) == 1, ry)) {
+            status[i] = INVALID_POINT;
+            return;
+        }
+        if (sig.r.mod(N).signum() == 0) {
+            status[i] = NOT_INVERTIBLE;
+            return;
+        }
+        BigInteger e = new BigInteger(1, messageHash);
+        BigInteger rInv = sig.r.modInverse(N);
+        BigInteger u1 = rInv.multiply(BigInteger.ZERO.subtract(e).mod(N)).mod(N);
+        BigInteger u2 = rInv.multiply(sig.s).mod(N);
+        wnaf(u1, G_WINDOW, u1Wnaf[i]);
+        wnaf(u2, R_WINDOW, u2Wnaf[i]);
+
+        int base = i * R_TABLE_SIZE;
+        copy(rx, accX[i]);
+        copy(ry, accY[i]);
+        setOne(accZ[i]);
+        setOne(tableZ[base]);
+        // accumulator holds 2R while the table is built
+        pointDouble(accX[i], accY[i], accZ[i]);
+        for (int j = 1; j < R_TABLE_SIZE; j++) {
+            copy(tableX[base + j - 1], tableX[base + j]);
+            copy(tableY[base + j - 1], tableY[base + j]);
+            copy(tableZ[base + j - 1], tableZ[base + j]);
+            pointAdd(tableX[base + j], tableY[base + j], tableZ[base + j],
+                    accX[i], accY[i], accZ[i]);
+        }
+        status[i] = OK;
+    }
+
+    private void normalizeTables(int size) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (status[i] == OK) {
+                for (int j = 1; j < R_TABLE_SIZE; j++) {
+                    products[count++] = tableZ[i * R_TABLE_SIZE + j];
+                }
+            }
+        }
+        invertAll(products, count);
+        count = 0;
+        for (int i = 0; i < size; i++) {
+            if (status[i] == OK) {
+                for (int j = 1; j < R_TABLE_SIZE; j++) {
+                    int k = i * R_TABLE_SIZE + j;
+                    toAffine(tableX[k], tableY[k], inverses[count++]);
+                    setOne(tableZ[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Q = u1 * G + u2 * R into the accumulator of the signature, Z = 0 stands for infinity.
+     */
+    private void multiply(int i) {
+        int[] x = accX[i];
+        int[] y = accY[i];
+        int[] z = accZ[i];
+        Nat256.zero(z);
+        byte[] d1 = u1Wnaf[i];
+        byte[] d2 = u2Wnaf[i];
+        int base = i * R_TABLE_SIZE;
+        for (int bit = WNAF_LENGTH - 1; bit >= 0; bit--) {
+            if (!Nat256.isZero(z)) {
+                pointDouble(x, y, z);
+            }
+            int d = d1[bit];
+            if (d != 0) {
+                int k = (Math.abs(d) - 1) >>> 1;
+                pointAddAffine(x, y, z, G_X[k], G_Y[k], d < 0);
+            }
+            d = d2[bit];
+            if (d != 0) {
+                int k = base + ((Math.abs(d) - 1) >>> 1);
+                pointAddAffine(x, y, z, tableX[k], tableY[k], d < 0);
+            }
+        }
+    }
+
+    private byte[][] normalizeResults(int size) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (status[i] == OK && !Nat256.isZero(accZ[i])) {
+                products[count++] = accZ[i];
+            }
+        }
+        invertAll(products, count);
+        byte[][] results = new byte[size][];
+        count = 0;
+        for (int i = 0; i < size; i++) {
+            if (status[i] != OK) {
+                continue;
+            }
+            if (Nat256.isZero(accZ[i])) {
+                // encoding of the point at infinity
+                results[i] = new byte[1];
+                continue;
+            }
+            toAffine(accX[i], accY[i], inverses[count++]);
+            byte[] encoded = new byte[65];
+            encoded[0] = 0x04;
+            toBytes(accX[i], encoded, 1);
+            toBytes(accY[i], encoded, 33);
+            results[i] = encoded;
+        }
+        return results;
+    }
+
+    /**
+     * y of the point with the given x and parity of y, false if x is not on the curve.
+     */
+    private boolean decompress(int[] x, boolean odd, int[] y) {
+        int[] rhs = t[10];
+        square(x, rhs);
+        multiply(rhs, x, rhs);
+        SecP256K1Field.add(rhs, CURVE_B, rhs);
+        sqrt(rhs, y);
+        square(y, t[11]);
+        if (!Nat256.eq(t[11], rhs)) {
+            return false;
+        }
+        if (((y[0] & 1) == 1) != odd) {
+            SecP256K1Field.negate(y, y);
+        }
+        return true;
+    }
+
+    /**
+     * dbl-2009-l, a = 0.
+     */
+    private void pointDouble(int[] x, int[] y, int[] z) {
+        int[] a = t[0];
+        int[] b = t[1];
+        int[] c = t[2];
+        int[] d = t[3];
+        int[] e = t[4];
+        square(x, a);
+        square(y, b);
+        square(b, c);
+        SecP256K1Field.add(x, b, d);
+        square(d, d);
+        SecP256K1Field.subtract(d, a, d);
+        SecP256K1Field.subtract(d, c, d);
+        SecP256K1Field.twice(d, d);
+        SecP256K1Field.twice(a, e);
+        SecP256K1Field.add(e, a, e);
+        multiply(y, z, z);
+        SecP256K1Field.twice(z, z);
+        square(e, x);
+        SecP256K1Field.subtract(x, d, x);
+        SecP256K1Field.subtract(x, d, x);
+        SecP256K1Field.subtract(d, x, d);
+        multiply(e, d, y);
+        SecP256K1Field.twice(c, c);
+        SecP256K1Field.twice(c, c);
+        SecP256K1Field.twice(c, c);
+        SecP256K1Field.subtract(y, c, y);
+    }
+
+    /**
+     * madd-2007-bl, adds the affine point (x2, y2) or its negation to the jacobian point.
+     */
+    private void pointAddAffine(int[] x1, int[] y1, int[] z1, int[] x2, int[] y2,
+            boolean negate) {
+        int[] y2n = t[9];
+        if (negate) {
+            SecP256K1Field.negate(y2, y2n);
+        } else {
+            copy(y2, y2n);
+        }
+        if (Nat256.isZero(z1)) {
+            copy(x2, x1);
+            copy(y2n, y1);
+            setOne(z1);
+            return;
+        }
+        int[] z1z1 = t[0];
+        int[] u2 = t[1];
+        int[] s2 = t[2];
+        int[] h = t[3];
+        int[] hh = t[4];
+        int[] j = t[5];
+        int[] r = t[6];
+        int[] v = t[7];
+        square(z1, z1z1);
+        multiply(x2, z1z1, u2);
+        multiply(y2n, z1, s2);
+        multiply(s2, z1z1, s2);
+        SecP256K1Field.subtract(u2, x1, h);
+        SecP256K1Field.subtract(s2, y1, r);
+        if (Nat256.isZero(h)) {
+            if (Nat256.isZero(r)) {
+                pointDouble(x1, y1, z1);
+            } else {
+                Nat256.zero(z1);
+            }
+            return;
+        }
+        SecP256K1Field.twice(r, r);
+        square(h, hh);
+        // z3 = (z1 + h)^2 - z1z1 - hh
+        SecP256K1Field.add(z1, h, z1);
+        square(z1, z1);
+        SecP256K1Field.subtract(z1, z1z1, z1);
+        SecP256K1Field.subtract(z1, hh, z1);
+        // i = 4 * hh, j = h * i, v = x1 * i
+        SecP256K1Field.twice(hh, hh);
+        SecP256K1Field.twice(hh, hh);
+        multiply(h, hh, j);
+        multiply(x1, hh, v);
+        // x3 = r^2 - j - 2 * v
+        square(r, x1);
+        SecP256K1Field.subtract(x1, j, x1);
+        SecP256K1Field.subtract(x1, v, x1);
+        SecP256K1Field.subtract(x1, v, x1);
+        // y3 = r * (v - x3) - 2 * y1 * j
+        multiply(y1, j, j);
+        SecP256K1Field.twice(j, j);
+        SecP256K1Field.subtract(v, x1, v);
+        multiply(r, v, y1);
+        SecP256K1Field.subtract(y1, j, y1);
+    }
+
+    /**
+     * add-2007-bl without the special cases, only used on distinct multiples of one point.
+     */
+    private void pointAdd(int[] x1, int[] y1, int[] z1, int[] x2, int[] y2, int[] z2) {
+        int[] z1z1 = t[0];
+        int[] z2z2 = t[1];
+        int[] u1 = t[2];
+        int[] u2 = t[3];
+        int[] s1 = t[4];
+        int[] s2 = t[5];
+        int[] h = t[6];
+        int[] i = t[7];
+        int[] j = t[8];
+        int[] r = t[9];
+        square(z1, z1z1);
+        square(z2, z2z2);
+        multiply(x1, z2z2, u1);
+        multiply(x2, z1z1, u2);
+        multiply(y1, z2, s1);
+        multiply(s1, z2z2, s1);
+        multiply(y2, z1, s2);
+        multiply(s2, z1z1, s2);
+        SecP256K1Field.subtract(u2, u1, h);
+        SecP256K1Field.twice(h, i);
+        square(i, i);
+        multiply(h, i, j);
+        SecP256K1Field.subtract(s2, s1, r);
+        SecP256K1Field.twice(r, r);
+        // v = u1 * i, kept in u1
+        multiply(u1, i, u1);
+        // z3 = ((z1 + z2)^2 - z1z1 - z2z2) * h
+        SecP256K1Field.add(z1, z2, z1);
+        square(z1, z1);
+        SecP256K1Field.subtract(z1, z1z1, z1);
+        SecP256K1Field.subtract(z1, z2z2, z1);
+        multiply(z1, h, z1);
+        // x3 = r^2 - j - 2 * v
+        square(r, x1);
+        SecP256K1Field.subtract(x1, j, x1);
+        SecP256K1Field.subtract(x1, u1, x1);
+        SecP256K1Field.subtract(x1, u1, x1);
+        // y3 = r * (v - x3) - 2 * s1 * j
+        SecP256K1Field.subtract(u1, x1, u1);
+        multiply(r, u1, y1);
+        multiply(s1, j, s1);
+        SecP256K1Field.twice(s1, s1);
+        SecP256K1Field.subtract(y1, s1, y1);
+    }
+
+    private void toAffine(int[] x, int[] y, int[] zInv) {
+        int[] zInv2 = t[0];
+        square(zInv, zInv2);
+        multiply(x, zInv2, x);
+        multiply(zInv2, zInv, zInv2);
+        multiply(y, zInv2, y);
+    }
+
+    /**
+     * Montgomery's trick, inverses[i] = 1 / elements[i] with a single field inversion.
+     */
+    private void invertAll(int[][] elements, int count) {
+        if (count == 0) {
+            return;
+        }
+        int[] acc = t[11];
+        copy(elements[0], inverses[0]);
+        for (int i = 1; i < count; i++) {
+            multiply(inverses[i - 1], elements[i], inverses[i]);
+        }
+        invert(inverses[count - 1], acc);
+        for (int i = count - 1; i > 0; i--) {
+            multiply(acc, inverses[i - 1], inverses[i]);
+            multiply(acc, elements[i], acc);
+        }
+        copy(acc, inverses[0]);
+    }
+
+    /**
+     * x^(p - 2), the addition chain of libsecp256k1.
+     */
+    private void invert(int[] x, int[] z) {
+        int[] x2 = t[0];
+        int[] x3 = t[1];
+        int[] x22 = t[2];
+        int[] x223 = t[3];
+        powerChain(x, x2, x3, x22, x223);
+        squareN(x223, 23, z);
+        multiply(z, x22, z);
+        squareN(z, 5, z);
+        multiply(z, x, z);
+        squareN(z, 3, z);
+        multiply(z, x2, z);
+        squareN(z, 2, z);
+        multiply(z, x, z);
+    }
+
+    /**
+     * x^((p + 1) / 4), a square root of x if there is one.
+     */
+    private void sqrt(int[] x, int[] z) {
+        int[] x2 = t[0];
+        int[] x3 = t[1];
+        int[] x22 = t[2];
+        int[] x223 = t[3];
+        powerChain(x, x2, x3, x22, x223);
+        squareN(x223, 23, z);
+        multiply(z, x22, z);
+        squareN(z, 6, z);
+        multiply(z, x2, z);
+        squareN(z, 2, z);
+    }
+
+    /**
+     * x^(2^k - 1) for k = 2, 3, 22 and 223, shared by inversion and square root.
+     */
+    private void powerChain(int[] x, int[] x2, int[] x3, int[] x22, int[] x223) {
+        int[] a = t[4];
+        int[] b = t[5];
+        square(x, x2);
+        multiply(x2, x, x2);
+        square(x2, x3);
+        multiply(x3, x, x3);
+        // a = x^(2^6 - 1), then x^(2^9 - 1), then b = x^(2^11 - 1)
+        squareN(x3, 3, a);
+        multiply(a, x3, a);
+        squareN(a, 3, a);
+        multiply(a, x3, a);
+        squareN(a, 2, b);
+        multiply(b, x2, b);
+        squareN(b, 11, x22);
+        multiply(x22, b, x22);
+        // a = x^(2^44 - 1), b = x^(2^88 - 1), x223 = x^(2^176 - 1)
+        squareN(x22, 22, a);
+        multiply(a, x22, a);
+        squareN(a, 44, b);
+        multiply(b, a, b);
+        squareN(b, 88, x223);
+        multiply(x223, b, x223);
+        // x^(2^220 - 1), then x^(2^223 - 1)
+        squareN(x223, 44, x223);
+        multiply(x223, a, x223);
+        squareN(x223, 3, x223);
+        multiply(x223, x3, x223);
+    }
+
+    private void multiply(int[] x, int[] y, int[] z) {
+        Nat256.mul(x, y, tt);
+        SecP256K1Field.reduce(tt, z);
+    }
+
+    private void square(int[] x, int[] z) {
+        Nat256.square(x, tt);
+        SecP256K1Field.reduce(tt, z);
+    }
+
+    private void squareN(int[] x, int n, int[] z) {
+        square(x, z);
+        for (int i = 1; i < n; i++) {
+            square(z, z);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= capacity) {
+            return;
+        }
+        capacity = Math.max(size, capacity * 2);
+        status = new int[capacity];
+        u1Wnaf = new byte[capacity][WNAF_LENGTH];
+        u2Wnaf = new byte[capacity][WNAF_LENGTH];
+        tableX = newElements(capacity * R_TABLE_SIZE);
+        tableY = newElements(capacity * R_TABLE_SIZE);
+        tableZ = newElements(capacity * R_TABLE_SIZE);
+        accX = newElements(capacity);
+        accY = newElements(capacity);
+        accZ = newElements(capacity);
+        inverses = newElements(capacity * R_TABLE_SIZE);
+        products = new int[capacity * R_TABLE_SIZE][];
+    }
+
+    private static int[][] newElements(int count) {
+        int[][] elements = new int[count][];
+        for (int i = 0; i < count; i++) {
+            elements[i] = Nat256.create();
+        }
+        return elements;
+    }
+
+    /**
+     * width w non adjacent form, digit i is the coefficient of 2^i, all digits odd or zero.
+     */
+    private static void wnaf(BigInteger scalar, int w, byte[] digits) {
+        int[] k = new int[8];
+        fromBytes(ByteUtil.bigIntegerToBytes(scalar, 32), k);
+        Arrays.fill(digits, (byte) 0);
+        int carry = 0;
+        int bit = 0;
+        while (bit < digits.length) {
+            if (bits(k, bit, 1) == carry) {
+                bit++;
+                continue;
+            }
+            int now = Math.min(w, digits.length - bit);
+            int word = bits(k, bit, now) + carry;
+            carry = (word >> (w - 1)) & 1;
+            word -= carry << w;
+            digits[bit] = (byte) word;
+            bit += now;
+        }
+    }
+
+    private static int bits(int[] k, int offset, int count) {
+        int limb = offset >>> 5;
+        if (limb >= k.length) {
+            return 0;
+        }
+        int shift = offset & 31;
+        long value = (k[limb] & 0xFFFFFFFFL) >>> shift;
+        if (shift + count > 32 && limb + 1 < k.length) {
+            value |= (k[limb + 1] & 0xFFFFFFFFL) << (32 - shift);
+        }
+        return (int) value & ((1 << count) - 1);
+    }
+
+    private static void copy(int[] x, int[] z) {
+        System.arraycopy(x, 0, z, 0, 8);
+    }
+
+    private static void setOne(int[] z) {
+        Nat256.zero(z);
+        z[0] = 1;
+    }
+
+    private static int[] toField(BigInteger value) {
+        int[] z = Nat256.create();
+        fromBytes(ByteUtil.bigIntegerToBytes(value, 32), z);
+        return z;
+    }
+
+    private static void fromBytes(byte[] bytes, int[] z) {
+        for (int i = 0; i < 8; i++) {
+            int offset = 28 - (i << 2);
+            z[i] = (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                    | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+        }
+    }
+
+    private static void toBytes(int[] x, byte[] bytes, int offset) {
+        for (int i = 0; i < 8; i++) {
+            int limb = x[7 - i];
+            int o = offset + (i << 2);
+            bytes[o] = (byte) (limb >>> 24);
+            bytes[o + 1] = (byte) (limb >>> 16);
+            bytes[o + 2] = (byte) (limb >>> 8);
+            bytes[o + 3] = (byte) limb;
+        }
+    }
+
+    private static void check(boolean test, String message) {
+        if (!test) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.gsc.core.wrapper.AssetIssueWrapper;
+import org.gsc.core.wrapper.BytesWrapper;
+import org.gsc.utils.ByteUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secondary indexes of the asset issue stores, the value of every entry is the key of the asset
+ * issue in its store. Keys start with the tag of the store they index:
+ * tag, 'n', name, 0, asset key: ordered by name and then by asset key, for name lookups and
+ * for pagination in the same order as the full store scan used to sort by.
+ * tag, 'o', owner address, asset key: for the assets of an account.
+ * Entries are written by the asset issue stores in the same revoking session as the asset.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class AssetIssueIndexStore extends GSCStoreWithRevoking<BytesWrapper> {
+
+    private static final byte NAME = 'n';
+    private static final byte OWNER = 'o';
+    private static final byte BUILT = 'b';
+    private static final byte NAME_END = 0;
+
+    @Autowired
+    private AssetIssueIndexStore(@Value("asset_issue_index") String dbName) {
+        super(dbName);
+    }
+
+    public void put(byte tag, byte[] key, AssetIssueWrapper assetIssue) {
+        revokingDB.put(createNameKey(tag, assetIssue.getName().toByteArray(), key), key);
+        revokingDB.put(
+                createOwnerKey(tag, assetIssue.getOwnerAddress().toByteArray(), key), key);
+    }
+
+    public void delete(byte tag, byte[] key, AssetIssueWrapper assetIssue) {
+        revokingDB.delete(createNameKey(tag, assetIssue.getName().toByteArray(), key));
+        revokingDB.delete(createOwnerKey(tag, assetIssue.getOwnerAddress().toByteArray(), key));
+    }
+
+    /**
+     * the name prefix also matches a longer name whose next byte is 0, callers check the name.
+     */
+    public List<byte[]> getKeysByName(byte tag, byte[] name) {
+        return getKeys(ByteUtil.merge(new byte[]{tag, NAME}, name, new byte[]{NAME_END}),
+                0, Long.MAX_VALUE);
+    }
+
+    public List<byte[]> getKeysByOwner(byte tag, byte[] owner) {
+        return getKeys(ByteUtil.merge(new byte[]{tag, OWNER}, owner), 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * keys of all asset issues ordered by name, only offset + limit entries are read.
+     */
+    public List<byte[]> getKeysOrderByName(byte tag, long offset, long limit) {
+        return getKeys(new byte[]{tag, NAME}, offset, limit);
+    }
+
+    public boolean isBuilt(byte tag) {
+        return ArrayUtils.isNotEmpty(revokingDB.getUnchecked(new byte[]{tag, BUILT}));
+    }
+
+    public void setBuilt(byte tag) {
+        revokingDB.put(new byte[]{tag, BUILT}, new byte[]{1});
+    }
+
+    private List<byte[]> getKeys(byte[] prefix, long offset, long limit) {
+        long count = offset > Long.MAX_VALUE - limit ? Long.MAX_VALUE : offset + limit;
+        return revokingDB.prefixQuery(prefix, count, false).stream()
+                .skip(offset)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] createNameKey(byte tag, byte[] name, byte[] key) {
+        return ByteUtil.merge(new byte[]{tag, NAME}, name, new byte[]{NAME_END}, key);
+    }
+
+    private static byte[] createOwnerKey(byte tag, byte[] owner, byte[] key) {
+        return ByteUtil.merge(new byte[]{tag, OWNER}, owner, key);
+    }
+}
@@ -16,9 +16,11 @@ package org.gsc.db;
 import static org.gsc.config.Parameter.DatabaseConstants.ASSET_ISSUE_COUNT_LIMIT_MAX;
 
 import com.google.common.collect.Streams;
+import com.google.protobuf.ByteString;
 
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -31,17 +33,66 @@ import org.springframework.stereotype.Component;
 @Component
 public class AssetIssueStore extends GSCStoreWithRevoking<AssetIssueWrapper> {
 
+    @Autowired
+    private AssetIssueIndexStore indexStore;
+
     @Autowired
     protected AssetIssueStore(@Value("asset_issue") String dbName) {
         super(dbName);
     }
 
+    /**
+     * tag of the entries of this store in the index store.
+     */
+    protected byte getIndexTag() {
+        return 0;
+    }
 
     @Override
     public AssetIssueWrapper get(byte[] key) {
         return super.getUnchecked(key);
     }
 
+    @Override
+    public void put(byte[] key, AssetIssueWrapper item) {
+        if (Objects.isNull(key) || Objects.isNull(item)) {
+            return;
+        }
+
+        AssetIssueWrapper old = getUnchecked(key);
+        if (Objects.nonNull(old)) {
+            indexStore.delete(getIndexTag(), key, old);
+        }
+        super.put(key, item);
+        indexStore.put(getIndexTag(), key, item);
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        AssetIssueWrapper old = getUnchecked(key);
+        if (Objects.nonNull(old)) {
+            indexStore.delete(getIndexTag(), key, old);
+        }
+        super.delete(key);
+    }
+
+    /**
+     * index the asset issues written before the index existed, once.
+     */
+    public void buildIndex() {
+        if (indexStore.isBuilt(getIndexTag())) {
+            return;
+        }
+
+        long count = 0;
+        for (Entry<byte[], AssetIssueWrapper> entry : this) {
+            indexStore.put(getIndexTag(), entry.getKey(), entry.getValue());
+            count++;
+        }
+        indexStore.setBuilt(getIndexTag());
+        logger.info("Build index of {}, asset issues: {}", getDbName(), count);
+    }
+
     /**
      * get all asset issues.
      */
@@ -51,35 +102,36 @@ public class AssetIssueStore extends GSCStoreWithRevoking<AssetIssueWrapper> {
                 .collect(Collectors.toList());
     }
 
-    private List<AssetIssueWrapper> getAssetIssuesPaginated(List<AssetIssueWrapper> assetIssueList,
-                                                            long offset, long limit) {
-        if (limit < 0 || offset < 0) {
-            return null;
-        }
+    public List<AssetIssueWrapper> getAssetIssuesByOwner(ByteString owner) {
+        return indexStore.getKeysByOwner(getIndexTag(), owner.toByteArray()).stream()
+                .map(this::getUnchecked)
+                .filter(Objects::nonNull)
+                .filter(assetIssue -> assetIssue.getOwnerAddress().equals(owner))
+                .collect(Collectors.toList());
+    }
 
-//    return Streams.stream(iterator())
-//        .map(Entry::getValue)
-//        .sorted(Comparator.comparing(a -> a.getName().toStringUtf8(), String::compareTo))
-//        .skip(offset)
-//        .limit(Math.min(limit, ASSET_ISSUE_COUNT_LIMIT_MAX))
-//        .collect(Collectors.toList());
+    public List<AssetIssueWrapper> getAssetIssuesByName(ByteString name) {
+        return indexStore.getKeysByName(getIndexTag(), name.toByteArray()).stream()
+                .map(this::getUnchecked)
+                .filter(Objects::nonNull)
+                .filter(assetIssue -> assetIssue.getName().equals(name))
+                .collect(Collectors.toList());
+    }
 
-        if (assetIssueList.size() <= offset) {
+    /**
+     * asset issues ordered by name and then by key, null if there is none at offset.
+     */
+    public List<AssetIssueWrapper> getAssetIssuesPaginated(long offset, long limit) {
+        if (limit < 0 || offset < 0) {
             return null;
         }
-        assetIssueList.sort((o1, o2) -> {
-            if (o1.getName() != o2.getName()) {
-                return o1.getName().toStringUtf8().compareTo(o2.getName().toStringUtf8());
-            }
-            return Long.compare(o1.getOrder(), o2.getOrder());
-        });
-        limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
-        long end = offset + limit;
-        end = end > assetIssueList.size() ? assetIssueList.size() : end;
-        return assetIssueList.subList((int) offset, (int) end);
-    }
 
-    public List<AssetIssueWrapper> getAssetIssuesPaginated(long offset, long limit) {
-        return getAssetIssuesPaginated(getAllAssetIssues(), offset, limit);
+        limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
+        List<AssetIssueWrapper> assetIssueList =
+                indexStore.getKeysOrderByName(getIndexTag(), offset, limit).stream()
+                        .map(this::getUnchecked)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+        return assetIssueList.isEmpty() ? null : assetIssueList;
     }
 }
@@ -27,4 +27,9 @@ public class AssetIssueV2Store extends AssetIssueStore {
         super(dbName);
     }
 
+    @Override
+    protected byte getIndexTag() {
+        return 1;
+    }
+
 }
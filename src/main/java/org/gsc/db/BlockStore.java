@@ -16,6 +16,7 @@ package org.gsc.db;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -51,6 +52,15 @@ public class BlockStore extends GSCStoreWithRevoking<BlockWrapper> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * raw bytes of the first block whose number is not less than the given number.
+     */
+    public byte[] getDataByNumber(long number) {
+        BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, number);
+        Set<byte[]> values = revokingDB.getValuesNext(startBlockId.getBytes(), 1);
+        return values.isEmpty() ? null : values.iterator().next();
+    }
+
     public List<BlockWrapper> getBlockByLatestNum(long getNum) {
 
         return revokingDB.getlatestValues(getNum).stream()
@@ -16,7 +16,9 @@ package org.gsc.db;
 import com.google.protobuf.ByteString;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +32,9 @@ import org.gsc.utils.Sha256Hash;
 import org.gsc.config.Parameter;
 import org.gsc.config.Parameter.ChainConstant;
 import org.gsc.config.args.Args;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.db.db2.core.RevokingDBWithCachingNewValue;
+import org.gsc.db.db2.core.SpeculativeState;
 
 @Slf4j(topic = "DB")
 @Component
@@ -175,6 +180,10 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     //Used only for token updates, once，value is {0,1}
     private static final byte[] TOKEN_UPDATE_DONE = "TOKEN_UPDATE_DONE".getBytes();
 
+    //Used only for transaction position updates, once，value is {0,1}
+    private static final byte[] TRANSACTION_POSITION_UPDATE_DONE =
+            "TRANSACTION_POSITION_UPDATE_DONE".getBytes();
+
     //This value is only allowed to be 0, 1, -1
     private static final byte[] ALLOW_GVM_TRANSFER_GRC10 = "ALLOW_GVM_TRANSFER_GRC10".getBytes();
     private static final byte[] ALLOW_GVM_CONSTANTINOPLE = "ALLOW_GVM_CONSTANTINOPLE".getBytes();
@@ -188,6 +197,22 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     //Used only for account state root, once，value is {0,1} allow is 1
     private static final byte[] ALLOW_ACCOUNT_STATE_ROOT = "ALLOW_ACCOUNT_STATE_ROOT".getBytes();
 
+    /**
+     * decoded values of the properties read through getLongProperty/getIntProperty, only valid
+     * for the revision of the revoking db they were read at.
+     */
+    private static class PropertyCache {
+
+        private final long revision;
+        private final Map<WrappedByteArray, Long> values = new ConcurrentHashMap<>();
+
+        private PropertyCache(long revision) {
+            this.revision = revision;
+        }
+    }
+
+    private volatile PropertyCache propertyCache;
+
     @Autowired
     private DynamicPropertiesStore(@Value("dynamic_parameter") String dbName) {
         super(dbName);
@@ -264,6 +289,12 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
             this.saveTokenUpdateDone(0);
         }
 
+        try {
+            this.getTransactionPositionUpdateDone();
+        } catch (IllegalArgumentException e) {
+            this.saveTransactionPositionUpdateDone(0);
+        }
+
         try {
             this.getMaxFrozenTime();
         } catch (IllegalArgumentException e) {
@@ -625,17 +656,76 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
 
+    /**
+     * cache for the current thread, null if reads can't be cached: the db has no revision
+     * (db version 1), the thread reads the confirmed snapshot or executes speculatively.
+     */
+    private PropertyCache getPropertyCache() {
+        if (!(revokingDB instanceof RevokingDBWithCachingNewValue)
+                || SpeculativeState.isActive()) {
+            return null;
+        }
+        RevokingDBWithCachingNewValue db = (RevokingDBWithCachingNewValue) revokingDB;
+        if (!db.isFullNodeMode()) {
+            return null;
+        }
+        PropertyCache cache = propertyCache;
+        long revision = db.getRevision();
+        if (cache == null || cache.revision != revision) {
+            cache = new PropertyCache(revision);
+            propertyCache = cache;
+        }
+        return cache;
+    }
+
+    private long getLongProperty(byte[] key, String errorMessage) {
+        PropertyCache cache = getPropertyCache();
+        WrappedByteArray cacheKey = WrappedByteArray.of(key);
+        if (cache != null) {
+            Long value = cache.values.get(cacheKey);
+            if (value != null) {
+                return value;
+            }
+        }
+        long value = Optional.ofNullable(getUnchecked(key))
+                .map(BytesWrapper::getData)
+                .map(ByteArray::toLong)
+                .orElseThrow(() -> new IllegalArgumentException(errorMessage));
+        if (cache != null) {
+            cache.values.putIfAbsent(cacheKey, value);
+        }
+        return value;
+    }
+
+    private int getIntProperty(byte[] key, String errorMessage) {
+        return (int) getLongProperty(key, errorMessage);
+    }
+
+    @Override
+    public void put(byte[] key, BytesWrapper item) {
+        super.put(key, item);
+        PropertyCache cache = getPropertyCache();
+        if (cache != null && key != null && item != null) {
+            cache.values.put(WrappedByteArray.of(key), ByteArray.toLong(item.getData()));
+        }
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        super.delete(key);
+        PropertyCache cache = getPropertyCache();
+        if (cache != null) {
+            cache.values.remove(WrappedByteArray.of(key));
+        }
+    }
+
     public void saveTokenIdNum(long num) {
         this.put(TOKEN_ID_NUM,
                 new BytesWrapper(ByteArray.fromLong(num)));
     }
 
     public long getTokenIdNum() {
-        return Optional.ofNullable(getUnchecked(TOKEN_ID_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOKEN_ID_NUM"));
+        return getLongProperty(TOKEN_ID_NUM, "not found TOKEN_ID_NUM");
     }
 
     public void saveTokenUpdateDone(long num) {
@@ -644,11 +734,17 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTokenUpdateDone() {
-        return Optional.ofNullable(getUnchecked(TOKEN_UPDATE_DONE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOKEN_UPDATE_DONE"));
+        return getLongProperty(TOKEN_UPDATE_DONE, "not found TOKEN_UPDATE_DONE");
+    }
+
+    public void saveTransactionPositionUpdateDone(long num) {
+        this.put(TRANSACTION_POSITION_UPDATE_DONE,
+                new BytesWrapper(ByteArray.fromLong(num)));
+    }
+
+    public long getTransactionPositionUpdateDone() {
+        return getLongProperty(TRANSACTION_POSITION_UPDATE_DONE,
+                "not found TRANSACTION_POSITION_UPDATE_DONE");
     }
 
 
@@ -659,11 +755,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getBlockFilledSlotsIndex() {
-        return Optional.ofNullable(getUnchecked(BLOCK_FILLED_SLOTS_INDEX))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found BLOCK_FILLED_SLOTS_INDEX"));
+        return getIntProperty(BLOCK_FILLED_SLOTS_INDEX, "not found BLOCK_FILLED_SLOTS_INDEX");
     }
 
     public void saveMaxFrozenTime(int maxFrozenTime) {
@@ -673,11 +765,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getMaxFrozenTime() {
-        return Optional.ofNullable(getUnchecked(MAX_FROZEN_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MAX_FROZEN_TIME"));
+        return getIntProperty(MAX_FROZEN_TIME, "not found MAX_FROZEN_TIME");
     }
 
     public void saveMinFrozenTime(int minFrozenTime) {
@@ -687,11 +775,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getMinFrozenTime() {
-        return Optional.ofNullable(getUnchecked(MIN_FROZEN_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MIN_FROZEN_TIME"));
+        return getIntProperty(MIN_FROZEN_TIME, "not found MIN_FROZEN_TIME");
     }
 
     public void saveMaxFrozenSupplyNumber(int maxFrozenSupplyNumber) {
@@ -701,11 +785,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getMaxFrozenSupplyNumber() {
-        return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_NUMBER))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_NUMBER"));
+        return getIntProperty(MAX_FROZEN_SUPPLY_NUMBER, "not found MAX_FROZEN_SUPPLY_NUMBER");
     }
 
     public void saveMaxFrozenSupplyTime(int maxFrozenSupplyTime) {
@@ -715,11 +795,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getMaxFrozenSupplyTime() {
-        return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_TIME"));
+        return getIntProperty(MAX_FROZEN_SUPPLY_TIME, "not found MAX_FROZEN_SUPPLY_TIME");
     }
 
     public void saveMinFrozenSupplyTime(int minFrozenSupplyTime) {
@@ -729,11 +805,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getMinFrozenSupplyTime() {
-        return Optional.ofNullable(getUnchecked(MIN_FROZEN_SUPPLY_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MIN_FROZEN_SUPPLY_TIME"));
+        return getIntProperty(MIN_FROZEN_SUPPLY_TIME, "not found MIN_FROZEN_SUPPLY_TIME");
     }
 
     public void saveWitnessAllowanceFrozenTime(int witnessAllowanceFrozenTime) {
@@ -743,11 +815,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getWitnessAllowanceFrozenTime() {
-        return Optional.ofNullable(getUnchecked(WITNESS_ALLOWANCE_FROZEN_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found WITNESS_ALLOWANCE_FROZEN_TIME"));
+        return getIntProperty(WITNESS_ALLOWANCE_FROZEN_TIME,
+                "not found WITNESS_ALLOWANCE_FROZEN_TIME");
     }
 
     public void saveMaintenanceTimeInterval(long timeInterval) {
@@ -757,11 +826,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getMaintenanceTimeInterval() {
-        return Optional.ofNullable(getUnchecked(MAINTENANCE_TIME_INTERVAL))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MAINTENANCE_TIME_INTERVAL"));
+        return getLongProperty(MAINTENANCE_TIME_INTERVAL, "not found MAINTENANCE_TIME_INTERVAL");
     }
 
     public void saveAccountUpgradeCost(long accountUpgradeCost) {
@@ -771,11 +836,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAccountUpgradeCost() {
-        return Optional.ofNullable(getUnchecked(ACCOUNT_UPGRADE_COST))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ACCOUNT_UPGRADE_COST"));
+        return getLongProperty(ACCOUNT_UPGRADE_COST, "not found ACCOUNT_UPGRADE_COST");
     }
 
     public void saveWitnessPayPerBlock(long pay) {
@@ -785,11 +846,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getWitnessPayPerBlock() {
-        return Optional.ofNullable(getUnchecked(WITNESS_PAY_PER_BLOCK))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found WITNESS_PAY_PER_BLOCK"));
+        return getLongProperty(WITNESS_PAY_PER_BLOCK, "not found WITNESS_PAY_PER_BLOCK");
     }
 
     public void saveWitnessStandbyAllowance(long allowance) {
@@ -799,11 +856,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getWitnessStandbyAllowance() {
-        return Optional.ofNullable(getUnchecked(WITNESS_STANDBY_ALLOWANCE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found WITNESS_STANDBY_ALLOWANCE"));
+        return getLongProperty(WITNESS_STANDBY_ALLOWANCE, "not found WITNESS_STANDBY_ALLOWANCE");
     }
 
     public void saveOneDayNetLimit(long oneDayNetLimit) {
@@ -812,11 +865,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getOneDayNetLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.ONE_DAY_NET_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ONE_DAY_NET_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.ONE_DAY_NET_LIMIT,
+                "not found ONE_DAY_NET_LIMIT");
     }
 
     public void savePublicNetUsage(long publicNetUsage) {
@@ -825,11 +875,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getPublicNetUsage() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_USAGE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found PUBLIC_NET_USAGE"));
+        return getLongProperty(DynamicResourceProperties.PUBLIC_NET_USAGE,
+                "not found PUBLIC_NET_USAGE");
     }
 
     public void savePublicNetLimit(long publicNetLimit) {
@@ -838,11 +885,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getPublicNetLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found PUBLIC_NET_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.PUBLIC_NET_LIMIT,
+                "not found PUBLIC_NET_LIMIT");
     }
 
     public void savePublicNetTime(long publicNetTime) {
@@ -851,11 +895,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getPublicNetTime() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found PUBLIC_NET_TIME"));
+        return getLongProperty(DynamicResourceProperties.PUBLIC_NET_TIME,
+                "not found PUBLIC_NET_TIME");
     }
 
     public void saveFreeNetLimit(long freeNetLimit) {
@@ -864,11 +905,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getFreeNetLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.FREE_NET_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found FREE_NET_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.FREE_NET_LIMIT,
+                "not found FREE_NET_LIMIT");
     }
 
     public void saveTotalNetWeight(long totalNetWeight) {
@@ -877,11 +915,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalNetWeight() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_WEIGHT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_NET_WEIGHT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_NET_WEIGHT,
+                "not found TOTAL_NET_WEIGHT");
     }
 
     public void saveTotalCpuWeight(long totalCpuWeight) {
@@ -890,11 +925,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuWeight() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_WEIGHT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CPU_WEIGHT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_WEIGHT,
+                "not found TOTAL_CPU_WEIGHT");
     }
 
 
@@ -904,11 +936,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalNetLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_NET_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_NET_LIMIT,
+                "not found TOTAL_NET_LIMIT");
     }
 
     public void saveTotalCpuLimit(long totalCpuLimit) {
@@ -929,11 +958,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CPU_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_LIMIT,
+                "not found TOTAL_CPU_LIMIT");
     }
 
     public void saveTotalCpuCurrentLimit(long totalCpuCurrentLimit) {
@@ -942,11 +968,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuCurrentLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_CURRENT_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CPU_CURRENT_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_CURRENT_LIMIT,
+                "not found TOTAL_CPU_CURRENT_LIMIT");
     }
 
     public void saveTotalCpuTargetLimit(long targetTotalCpuLimit) {
@@ -955,11 +978,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuTargetLimit() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_TARGET_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CPU_TARGET_LIMIT"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_TARGET_LIMIT,
+                "not found TOTAL_CPU_TARGET_LIMIT");
     }
 
     public void saveTotalCpuAverageUsage(long totalCpuAverageUsage) {
@@ -968,11 +988,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuAverageUsage() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_AVERAGE_USAGE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CPU_AVERAGE_USAGE"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_AVERAGE_USAGE,
+                "not found TOTAL_CPU_AVERAGE_USAGE");
     }
 
     public void saveTotalCpuAverageTime(long totalCpuAverageTime) {
@@ -981,11 +998,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCpuAverageTime() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_CPU_AVERAGE_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_NET_AVERAGE_TIME"));
+        return getLongProperty(DynamicResourceProperties.TOTAL_CPU_AVERAGE_TIME,
+                "not found TOTAL_NET_AVERAGE_TIME");
     }
 
     public void saveBlockCpuUsage(long blockCpuUsage) {
@@ -994,11 +1008,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getBlockCpuUsage() {
-        return Optional.ofNullable(getUnchecked(DynamicResourceProperties.BLOCK_CPU_USAGE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found BLOCK_CPU_USAGE"));
+        return getLongProperty(DynamicResourceProperties.BLOCK_CPU_USAGE,
+                "not found BLOCK_CPU_USAGE");
     }
 
     public void saveCpuFee(long totalCpuFee) {
@@ -1007,11 +1018,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getCpuFee() {
-        return Optional.ofNullable(getUnchecked(CPU_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found CPU_FEE"));
+        return getLongProperty(CPU_FEE, "not found CPU_FEE");
     }
 
     public void saveMaxCpuTimeOfOneTx(long time) {
@@ -1020,11 +1027,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getMaxCpuTimeOfOneTx() {
-        return Optional.ofNullable(getUnchecked(MAX_CPU_TIME_OF_ONE_TX))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MAX_CPU_TIME_OF_ONE_TX"));
+        return getLongProperty(MAX_CPU_TIME_OF_ONE_TX, "not found MAX_CPU_TIME_OF_ONE_TX");
     }
 
     public void saveCreateAccountFee(long fee) {
@@ -1033,11 +1036,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getCreateAccountFee() {
-        return Optional.ofNullable(getUnchecked(CREATE_ACCOUNT_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found CREATE_ACCOUNT_FEE"));
+        return getLongProperty(CREATE_ACCOUNT_FEE, "not found CREATE_ACCOUNT_FEE");
     }
 
     public void saveCreateNewAccountFeeInSystemContract(long fee) {
@@ -1046,12 +1045,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getCreateNewAccountFeeInSystemContract() {
-        return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException(
-                                "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT"));
+        return getLongProperty(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT,
+                "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT");
     }
 
     public void saveCreateNewAccountNetRate(long rate) {
@@ -1060,12 +1055,8 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getCreateNewAccountNetRate() {
-        return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_NET_RATE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException(
-                                "not found CREATE_NsEW_ACCOUNT_NET_RATE2"));
+        return getLongProperty(CREATE_NEW_ACCOUNT_NET_RATE,
+                "not found CREATE_NsEW_ACCOUNT_NET_RATE2");
     }
 
     public void saveTransactionFee(long fee) {
@@ -1074,11 +1065,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTransactionFee() {
-        return Optional.ofNullable(getUnchecked(TRANSACTION_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TRANSACTION_FEE"));
+        return getLongProperty(TRANSACTION_FEE, "not found TRANSACTION_FEE");
     }
 
     public void saveAssetIssueFee(long fee) {
@@ -1098,27 +1085,16 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
 
 
     public long getAssetIssueFee() {
-        return Optional.ofNullable(getUnchecked(ASSET_ISSUE_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ASSET_ISSUE_FEE"));
+        return getLongProperty(ASSET_ISSUE_FEE, "not found ASSET_ISSUE_FEE");
     }
 
     public long getUpdateAccountPermissionFee() {
-        return Optional.ofNullable(getUnchecked(UPDATE_ACCOUNT_PERMISSION_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found UPDATE_ACCOUNT_PERMISSION_FEE"));
+        return getLongProperty(UPDATE_ACCOUNT_PERMISSION_FEE,
+                "not found UPDATE_ACCOUNT_PERMISSION_FEE");
     }
 
     public long getMultiSignFee() {
-        return Optional.ofNullable(getUnchecked(MULTI_SIGN_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found MULTI_SIGN_FEE"));
+        return getLongProperty(MULTI_SIGN_FEE, "not found MULTI_SIGN_FEE");
     }
 
 
@@ -1128,11 +1104,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getExchangeCreateFee() {
-        return Optional.ofNullable(getUnchecked(EXCHANGE_CREATE_FEE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found EXCHANGE_CREATE_FEE"));
+        return getLongProperty(EXCHANGE_CREATE_FEE, "not found EXCHANGE_CREATE_FEE");
     }
 
     public void saveExchangeBalanceLimit(long limit) {
@@ -1141,11 +1113,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getExchangeBalanceLimit() {
-        return Optional.ofNullable(getUnchecked(EXCHANGE_BALANCE_LIMIT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found EXCHANGE_BALANCE_LIMIT"));
+        return getLongProperty(EXCHANGE_BALANCE_LIMIT, "not found EXCHANGE_BALANCE_LIMIT");
     }
 
     public void saveTotalTransactionCost(long value) {
@@ -1154,11 +1122,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalTransactionCost() {
-        return Optional.ofNullable(getUnchecked(TOTAL_TRANSACTION_COST))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_TRANSACTION_COST"));
+        return getLongProperty(TOTAL_TRANSACTION_COST, "not found TOTAL_TRANSACTION_COST");
     }
 
     public void saveTotalCreateAccountFee(long value) {
@@ -1167,11 +1131,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCreateAccountCost() {
-        return Optional.ofNullable(getUnchecked(TOTAL_CREATE_ACCOUNT_COST))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CREATE_ACCOUNT_COST"));
+        return getLongProperty(TOTAL_CREATE_ACCOUNT_COST, "not found TOTAL_CREATE_ACCOUNT_COST");
     }
 
     public void saveTotalCreateWitnessFee(long value) {
@@ -1180,11 +1140,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalCreateWitnessCost() {
-        return Optional.ofNullable(getUnchecked(TOTAL_CREATE_WITNESS_COST))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_CREATE_WITNESS_COST"));
+        return getLongProperty(TOTAL_CREATE_WITNESS_COST, "not found TOTAL_CREATE_WITNESS_COST");
     }
 
     public void saveTotalStoragePool(long gsc) {
@@ -1193,11 +1149,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalStoragePool() {
-        return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_POOL))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_STORAGE_POOL"));
+        return getLongProperty(TOTAL_STORAGE_POOL, "not found TOTAL_STORAGE_POOL");
     }
 
     public void saveTotalStorageTax(long gsc) {
@@ -1206,11 +1158,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalStorageTax() {
-        return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_TAX))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_STORAGE_TAX"));
+        return getLongProperty(TOTAL_STORAGE_TAX, "not found TOTAL_STORAGE_TAX");
     }
 
     public void saveTotalStorageReserved(long bytes) {
@@ -1219,11 +1167,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getTotalStorageReserved() {
-        return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_RESERVED))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_STORAGE_RESERVED"));
+        return getLongProperty(TOTAL_STORAGE_RESERVED, "not found TOTAL_STORAGE_RESERVED");
     }
 
     public void saveStorageExchangeTaxRate(long rate) {
@@ -1232,11 +1176,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getStorageExchangeTaxRate() {
-        return Optional.ofNullable(getUnchecked(STORAGE_EXCHANGE_TAX_RATE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found STORAGE_EXCHANGE_TAX_RATE"));
+        return getLongProperty(STORAGE_EXCHANGE_TAX_RATE, "not found STORAGE_EXCHANGE_TAX_RATE");
     }
 
     public void saveRemoveThePowerOfTheGr(long rate) {
@@ -1245,11 +1185,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getRemoveThePowerOfTheGr() {
-        return Optional.ofNullable(getUnchecked(REMOVE_THE_POWER_OF_THE_GR))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found REMOVE_THE_POWER_OF_THE_GR"));
+        return getLongProperty(REMOVE_THE_POWER_OF_THE_GR, "not found REMOVE_THE_POWER_OF_THE_GR");
     }
 
     public void saveAllowDelegateResource(long value) {
@@ -1258,11 +1194,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowDelegateResource() {
-        return Optional.ofNullable(getUnchecked(ALLOW_DELEGATE_RESOURCE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_DELEGATE_RESOURCE"));
+        return getLongProperty(ALLOW_DELEGATE_RESOURCE, "not found ALLOW_DELEGATE_RESOURCE");
     }
 
     public void saveAllowAdaptiveCpu(long value) {
@@ -1271,11 +1203,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowAdaptiveCpu() {
-        return Optional.ofNullable(getUnchecked(ALLOW_ADAPTIVE_CPU))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_ADAPTIVE_CPU"));
+        return getLongProperty(ALLOW_ADAPTIVE_CPU, "not found ALLOW_ADAPTIVE_CPU");
     }
 
     public void saveAllowGvmTransferGrc10(long value) {
@@ -1284,11 +1212,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowGvmTransferGrc10() {
-        return Optional.ofNullable(getUnchecked(ALLOW_GVM_TRANSFER_GRC10))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_GVM_TRANSFER_GRC10"));
+        return getLongProperty(ALLOW_GVM_TRANSFER_GRC10, "not found ALLOW_GVM_TRANSFER_GRC10");
     }
 
     public void saveAllowGvmConstantinople(long value) {
@@ -1297,11 +1221,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowGvmConstantinople() {
-        return Optional.ofNullable(getUnchecked(ALLOW_GVM_CONSTANTINOPLE))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_GVM_CONSTANTINOPLE"));
+        return getLongProperty(ALLOW_GVM_CONSTANTINOPLE, "not found ALLOW_GVM_CONSTANTINOPLE");
     }
 
     public void saveAvailableContractType(byte[] value) {
@@ -1358,11 +1278,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowUpdateAccountName() {
-        return Optional.ofNullable(getUnchecked(ALLOW_UPDATE_ACCOUNT_NAME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_UPDATE_ACCOUNT_NAME"));
+        return getLongProperty(ALLOW_UPDATE_ACCOUNT_NAME, "not found ALLOW_UPDATE_ACCOUNT_NAME");
     }
 
     public void saveAllowSameTokenName(long rate) {
@@ -1371,11 +1287,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowSameTokenName() {
-        return Optional.ofNullable(getUnchecked(ALLOW_SAME_TOKEN_NAME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_SAME_TOKEN_NAME"));
+        return getLongProperty(ALLOW_SAME_TOKEN_NAME, "not found ALLOW_SAME_TOKEN_NAME");
     }
 
     public void saveAllowCreationOfContracts(long allowCreationOfContracts) {
@@ -1389,11 +1301,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public int getTotalSignNum() {
-        return Optional.ofNullable(getUnchecked(TOTAL_SIGN_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found TOTAL_SIGN_NUM"));
+        return getIntProperty(TOTAL_SIGN_NUM, "not found TOTAL_SIGN_NUM");
     }
 
     public void saveAllowMultiSign(long allowMultiSing) {
@@ -1402,19 +1310,12 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowMultiSign() {
-        return Optional.ofNullable(getUnchecked(ALLOW_MULTI_SIGN))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_MULTI_SIGN"));
+        return getLongProperty(ALLOW_MULTI_SIGN, "not found ALLOW_MULTI_SIGN");
     }
 
     public long getAllowCreationOfContracts() {
-        return Optional.ofNullable(getUnchecked(ALLOW_CREATION_OF_CONTRACTS))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_CREATION_OF_CONTRACTS"));
+        return getLongProperty(ALLOW_CREATION_OF_CONTRACTS,
+                "not found ALLOW_CREATION_OF_CONTRACTS");
     }
 
     public boolean supportVM() {
@@ -1460,11 +1361,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
 
 
     public long getLatestConfirmedBlockNum() {
-        return Optional.ofNullable(getUnchecked(LATEST_CONFIRMED_BLOCK_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found latest CONFIRMED_BLOCK_NUM"));
+        return getLongProperty(LATEST_CONFIRMED_BLOCK_NUM, "not found latest CONFIRMED_BLOCK_NUM");
     }
 
     public void saveLatestProposalNum(long number) {
@@ -1472,11 +1369,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getLatestProposalNum() {
-        return Optional.ofNullable(getUnchecked(LATEST_PROPOSAL_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found latest PROPOSAL_NUM"));
+        return getLongProperty(LATEST_PROPOSAL_NUM, "not found latest PROPOSAL_NUM");
     }
 
     public void saveLatestExchangeNum(long number) {
@@ -1484,40 +1377,26 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getLatestExchangeNum() {
-        return Optional.ofNullable(getUnchecked(LATEST_EXCHANGE_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found latest EXCHANGE_NUM"));
+        return getLongProperty(LATEST_EXCHANGE_NUM, "not found latest EXCHANGE_NUM");
     }
 
     /**
      * get timestamp of creating global latest block.
      */
     public long getLatestBlockHeaderTimestamp() {
-        return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_TIMESTAMP))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found latest block header timestamp"));
+        return getLongProperty(LATEST_BLOCK_HEADER_TIMESTAMP,
+                "not found latest block header timestamp");
     }
 
     /**
      * get number of global latest block.
      */
     public long getLatestBlockHeaderNumber() {
-        return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_NUMBER))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found latest block header number"));
+        return getLongProperty(LATEST_BLOCK_HEADER_NUMBER, "not found latest block header number");
     }
 
     public int getStateFlag() {
-        return Optional.ofNullable(getUnchecked(STATE_FLAG))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toInt)
-                .orElseThrow(() -> new IllegalArgumentException("not found maintenance flag"));
+        return getIntProperty(STATE_FLAG, "not found maintenance flag");
     }
 
     /**
@@ -1562,11 +1441,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
 
 
     public long getNextMaintenanceTime() {
-        return Optional.ofNullable(getUnchecked(NEXT_MAINTENANCE_TIME))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found NEXT_MAINTENANCE_TIME"));
+        return getLongProperty(NEXT_MAINTENANCE_TIME, "not found NEXT_MAINTENANCE_TIME");
     }
 
     public long getMaintenanceSkipSlots() {
@@ -1646,10 +1521,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
      * get allow protobuf number.
      */
     public long getAllowProtoFilterNum() {
-        return Optional.ofNullable(getUnchecked(ALLOW_PROTO_FILTER_NUM))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(() -> new IllegalArgumentException("not found allow protobuf number"));
+        return getLongProperty(ALLOW_PROTO_FILTER_NUM, "not found allow protobuf number");
     }
 
     /**
@@ -1666,11 +1538,7 @@ public class DynamicPropertiesStore extends GSCStoreWithRevoking<BytesWrapper> {
     }
 
     public long getAllowAccountStateRoot() {
-        return Optional.ofNullable(getUnchecked(ALLOW_ACCOUNT_STATE_ROOT))
-                .map(BytesWrapper::getData)
-                .map(ByteArray::toLong)
-                .orElseThrow(
-                        () -> new IllegalArgumentException("not found ALLOW_ACCOUNT_STATE_ROOT"));
+        return getLongProperty(ALLOW_ACCOUNT_STATE_ROOT, "not found ALLOW_ACCOUNT_STATE_ROOT");
     }
 
     public boolean allowAccountStateRoot() {
@@ -15,15 +15,14 @@ package org.gsc.db;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import javafx.util.Pair;
@@ -88,48 +87,47 @@ public class KhaosDatabase extends GSCDatabase {
         }
     }
 
+    /**
+     * Blocks indexed by hash and by number. Writers are serialized on the store, readers such as
+     * transaction lookups and fork switching read the concurrent maps without locking. Blocks
+     * more than maxCapcity below the head are pruned from the low end of the number index.
+     */
     public class KhaosStore {
 
-        private HashMap<BlockId, KhaosBlock> hashKblkMap = new HashMap<>();
-        // private HashMap<Sha256Hash, KhaosBlock> parentHashKblkMap = new HashMap<>();
+        private Map<BlockId, KhaosBlock> hashKblkMap = new ConcurrentHashMap<>();
         private int maxCapcity = 1024;
 
-        @Getter
-        private LinkedHashMap<Long, ArrayList<KhaosBlock>> numKblkMap =
-                new LinkedHashMap<Long, ArrayList<KhaosBlock>>() {
-
-                    @Override
-                    protected boolean removeEldestEntry(Map.Entry<Long, ArrayList<KhaosBlock>> entry) {
-                        long minNum = Long.max(0L, head.num - maxCapcity);
-                        Map<Long, ArrayList<KhaosBlock>> minNumMap = numKblkMap.entrySet().stream()
-                                .filter(e -> e.getKey() < minNum)
-                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-                        minNumMap.forEach((k, v) -> {
-                            numKblkMap.remove(k);
-                            v.forEach(b -> hashKblkMap.remove(b.id));
-                        });
-
-                        return false;
-                    }
-                };
+        private ConcurrentSkipListMap<Long, List<KhaosBlock>> numKblkMap =
+                new ConcurrentSkipListMap<>();
 
         public void setMaxCapcity(int maxCapcity) {
             this.maxCapcity = maxCapcity;
         }
 
-        public void insert(KhaosBlock block) {
+        public synchronized void insert(KhaosBlock block) {
             hashKblkMap.put(block.id, block);
-            numKblkMap.computeIfAbsent(block.num, listBlk -> new ArrayList<>()).add(block);
+            numKblkMap.computeIfAbsent(block.num, listBlk -> new CopyOnWriteArrayList<>())
+                    .add(block);
+            prune();
         }
 
-        public boolean remove(Sha256Hash hash) {
+        private void prune() {
+            if (head == null) {
+                return;
+            }
+            long minNum = Long.max(0L, head.num - maxCapcity);
+            Map.Entry<Long, List<KhaosBlock>> eldest;
+            while ((eldest = numKblkMap.firstEntry()) != null && eldest.getKey() < minNum) {
+                numKblkMap.remove(eldest.getKey());
+                eldest.getValue().forEach(b -> hashKblkMap.remove(b.id, b));
+            }
+        }
+
+        public synchronized boolean remove(Sha256Hash hash) {
             KhaosBlock block = this.hashKblkMap.get(hash);
-            // Sha256Hash parentHash = Sha256Hash.ZERO_HASH;
             if (block != null) {
                 long num = block.num;
-                // parentHash = block.getParentHash();
-                ArrayList<KhaosBlock> listBlk = numKblkMap.get(num);
+                List<KhaosBlock> listBlk = numKblkMap.get(num);
                 if (listBlk != null) {
                     listBlk.removeIf(b -> b.id.equals(hash));
                 }
@@ -144,8 +142,25 @@ public class KhaosDatabase extends GSCDatabase {
             return false;
         }
 
+        /**
+         * the blocks of the number, an empty list if there is none.
+         */
         public List<KhaosBlock> getBlockByNum(Long num) {
-            return numKblkMap.get(num);
+            List<KhaosBlock> listBlk = numKblkMap.get(num);
+            return listBlk == null
+                    ? Collections.emptyList() : Collections.unmodifiableList(listBlk);
+        }
+
+        /**
+         * a block of the highest number, null if the store is empty.
+         */
+        public synchronized KhaosBlock getHighest() {
+            for (List<KhaosBlock> listBlk : numKblkMap.descendingMap().values()) {
+                if (!listBlk.isEmpty()) {
+                    return listBlk.get(0);
+                }
+            }
+            return null;
         }
 
         public KhaosBlock getByHash(Sha256Hash hash) {
@@ -158,7 +173,7 @@ public class KhaosDatabase extends GSCDatabase {
 
     }
 
-    private KhaosBlock head;
+    private volatile KhaosBlock head;
 
     @Getter
     private KhaosStore miniStore = new KhaosStore();
@@ -203,11 +218,11 @@ public class KhaosDatabase extends GSCDatabase {
             miniUnlinkedStore.remove(hash);
         }
 
-        head = miniStore.numKblkMap.entrySet().stream()
-                .max(Comparator.comparingLong(Map.Entry::getKey))
-                .map(Map.Entry::getValue)
-                .map(list -> list.get(0))
-                .orElseThrow(() -> new RuntimeException("khaosDB head should not be null."));
+        KhaosBlock highest = miniStore.getHighest();
+        if (highest == null) {
+            throw new RuntimeException("khaosDB head should not be null.");
+        }
+        head = highest;
     }
 
     /**
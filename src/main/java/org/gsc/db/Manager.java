@@ -14,17 +14,11 @@
 package org.gsc.db;
 
 import static org.gsc.config.Parameter.ChainConstant.CONFIRMED_THRESHOLD;
-import static org.gsc.config.Parameter.NodeConstant.MAX_TRANSACTION_PENDING;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.primitives.Longs;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
 
 import java.util.ArrayList;
@@ -38,17 +32,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import java.util.stream.LongStream;
 
 import javafx.util.Pair;
 
@@ -73,6 +59,7 @@ import org.gsc.runtime.event.trigger.ContractTrigger;
 import org.gsc.net.node.Node;
 import org.gsc.net.peer.p2p.Message;
 import org.gsc.runtime.config.VMConfig;
+import org.gsc.runtime.vm.program.ProgramPrecompileCache;
 import org.gsc.utils.ByteArray;
 import org.gsc.utils.ForkController;
 import org.gsc.utils.SessionOptional;
@@ -82,16 +69,21 @@ import org.gsc.core.Constant;
 import org.gsc.core.wrapper.AccountWrapper;
 import org.gsc.core.wrapper.BlockWrapper.BlockId;
 import org.gsc.core.wrapper.utils.BlockUtil;
+import org.gsc.core.wrapper.utils.SignatureCache;
 import org.gsc.config.Parameter.ChainConstant;
 import org.gsc.config.args.Args;
 import org.gsc.config.args.GenesisBlock;
 import org.gsc.db.KhaosDatabase.KhaosBlock;
+import org.gsc.db.ParallelTransactionExecutor.Speculation;
 import org.gsc.db.api.AssetUpdateHelper;
+import org.gsc.db.api.TransactionAddressIndexRebuildHelper;
+import org.gsc.db.api.TransactionPositionUpdateHelper;
 import org.gsc.db.accountstate.TrieService;
 import org.gsc.db.accountstate.callback.AccountStateCallBack;
 import org.gsc.db.db2.core.ISession;
 import org.gsc.db.db2.core.IGSCChainBase;
 import org.gsc.db.db2.core.SnapshotManager;
+import org.gsc.db.db2.core.SpeculativeState;
 import org.gsc.core.exception.AccountResourceInsufficientException;
 import org.gsc.core.exception.BadBlockException;
 import org.gsc.core.exception.BadItemException;
@@ -133,6 +125,8 @@ public class Manager {
     private AccountStore accountStore;
     @Autowired
     private TransactionStore transactionStore;
+    @Autowired
+    private TransactionAddressIndexStore transactionAddressIndexStore;
     @Autowired(required = false)
     private TransactionCache transactionCache;
     @Autowired
@@ -220,7 +214,10 @@ public class Manager {
     @Setter
     private ProposalController proposalController;
 
-    private ExecutorService validateSignService;
+    private TransactionSignValidator transactionSignValidator;
+
+    // null unless node.parallelExecution is on
+    private ParallelTransactionExecutor parallelTransactionExecutor;
 
     private boolean isRunRepushThread = true;
 
@@ -256,6 +253,10 @@ public class Manager {
         return getDynamicPropertiesStore().getTokenUpdateDone() == 0L;
     }
 
+    public boolean needToUpdateTransactionPosition() {
+        return getDynamicPropertiesStore().getTransactionPositionUpdateDone() == 0L;
+    }
+
     public DynamicPropertiesStore getDynamicPropertiesStore() {
         return this.dynamicPropertiesStore;
     }
@@ -324,8 +325,8 @@ public class Manager {
         }
     }
 
-    public List<TransactionWrapper> getPendingTransactions() {
-        return this.pendingTransactions;
+    public TransactionPool getTransactionPool() {
+        return this.transactionPool;
     }
 
     public List<TransactionWrapper> getPoppedTransactions() {
@@ -337,13 +338,13 @@ public class Manager {
     }
 
     // transactions cache
-    private List<TransactionWrapper> pendingTransactions;
+    private TransactionPool transactionPool;
 
     // transactions popped
     private List<TransactionWrapper> popedTransactions =
             Collections.synchronizedList(Lists.newArrayList());
 
-    // the capacity is equal to Integer.MAX_VALUE default
+    // bounded by the capacity of the transaction pool
     private BlockingQueue<TransactionWrapper> repushTransactions;
 
     private BlockingQueue<TriggerWrapper> triggerWrapperQueue;
@@ -457,10 +458,12 @@ public class Manager {
         trieService.setManager(this);
         revokingStore.disable();
         revokingStore.check();
+        assetIssueStore.buildIndex();
+        assetIssueV2Store.buildIndex();
         this.setWitnessController(WitnessController.createInstance(this));
         this.setProposalController(ProposalController.createInstance(this));
-        this.pendingTransactions = Collections.synchronizedList(Lists.newArrayList());
-        this.repushTransactions = new LinkedBlockingQueue<>();
+        this.transactionPool = new TransactionPool(Args.getInstance().getMaxPendingTransactions());
+        this.repushTransactions = new LinkedBlockingQueue<>(transactionPool.getCapacity());
         this.triggerWrapperQueue = new LinkedBlockingQueue<>();
 
         this.initGenesis();
@@ -489,13 +492,28 @@ public class Manager {
             new AssetUpdateHelper(this).doWork();
         }
 
+        if (Args.getInstance().isNeedToUpdateTransactionPosition()
+                && needToUpdateTransactionPosition()) {
+            new TransactionPositionUpdateHelper(this).doWork();
+        }
+
+        if (Args.getInstance().isRebuildTransactionAddressIndex()
+                && transactionAddressIndexStore.isEnabled()) {
+            new TransactionAddressIndexRebuildHelper(this).doWork();
+        }
+
         //for test only
         dynamicPropertiesStore.updateDynamicStoreByConfig();
 
         initCacheTxs();
         revokingStore.enable();
-        validateSignService = Executors
-                .newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
+        transactionSignValidator = new TransactionSignValidator(this,
+                Args.getInstance().getValidateSignThreadNum());
+        if (Args.getInstance().isParallelExecution()
+                && Args.getInstance().getStorage().getDbVersion() == 2) {
+            parallelTransactionExecutor = new ParallelTransactionExecutor(
+                    Args.getInstance().getParallelExecutionThreadNum());
+        }
         Thread repushThread = new Thread(repushLoop);
         repushThread.start();
         // add contract event listener for subscribing
@@ -612,44 +630,32 @@ public class Manager {
         long start = System.currentTimeMillis();
         long headNum = dynamicPropertiesStore.getLatestBlockHeaderNumber();
         long recentBlockCount = recentBlockStore.size();
-        ListeningExecutorService service = MoreExecutors
-                .listeningDecorator(Executors.newFixedThreadPool(50));
-        List<ListenableFuture<?>> futures = new ArrayList<>();
-        AtomicLong blockCount = new AtomicLong(0);
-        AtomicLong emptyBlockCount = new AtomicLong(0);
-        LongStream.rangeClosed(headNum - recentBlockCount + 1, headNum).forEach(
-                blockNum -> futures.add(service.submit(() -> {
-                    try {
-                        blockCount.incrementAndGet();
-                        BlockWrapper blockWrapper = getBlockByNum(blockNum);
-                        if (blockWrapper.getTransactions().isEmpty()) {
-                            emptyBlockCount.incrementAndGet();
-                        }
-                        blockWrapper.getTransactions().stream()
-                                .map(tc -> tc.getTransactionId().getBytes())
-                                .map(bytes -> Maps.immutableEntry(bytes, Longs.toByteArray(blockNum)))
-                                .forEach(e -> transactionCache
-                                        .put(e.getKey(), new BytesWrapper(e.getValue())));
-                    } catch (ItemNotFoundException | BadItemException e) {
-                        logger.info("init txs cache error.");
-                        throw new IllegalStateException("init txs cache error.");
-                    }
-                })));
-
-        ListenableFuture<?> future = Futures.allAsList(futures);
-        try {
-            future.get();
-            service.shutdown();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-            logger.info(e.getMessage());
+        long blockCount = 0;
+        long emptyBlockCount = 0;
+        // in block order, so the cache fills its block window sequentially
+        for (long blockNum = Math.max(headNum - recentBlockCount + 1, 0); blockNum <= headNum;
+                blockNum++) {
+            try {
+                blockCount++;
+                BlockWrapper blockWrapper = getBlockByNum(blockNum);
+                if (blockWrapper.getTransactions().isEmpty()) {
+                    emptyBlockCount++;
+                }
+                byte[] blockNumBytes = Longs.toByteArray(blockNum);
+                for (TransactionWrapper tc : blockWrapper.getTransactions()) {
+                    transactionCache.put(tc.getTransactionId().getBytes(),
+                            new BytesWrapper(blockNumBytes));
+                }
+            } catch (ItemNotFoundException | BadItemException e) {
+                logger.info("init txs cache error.");
+                throw new IllegalStateException("init txs cache error.");
+            }
         }
 
         logger.info("end to init txs cache. trxids:{}, block count:{}, empty block count:{}, cost:{}",
                 transactionCache.size(),
-                blockCount.get(),
-                emptyBlockCount.get(),
+                blockCount,
+                emptyBlockCount,
                 System.currentTimeMillis() - start
         );
     }
@@ -759,6 +765,8 @@ public class Manager {
 
     /**
      * push transaction into pending.
+     *
+     * @return false if the transaction pool is full.
      */
     public boolean pushTransaction(final TransactionWrapper trx)
             throws ValidateSignatureException, ContractValidateException, ContractExeException,
@@ -766,9 +774,7 @@ public class Manager {
             TooBigTransactionException, TransactionExpirationException,
             ReceiptCheckErrException, VMIllegalException, TooBigTransactionResultException {
 
-        synchronized (pushTransactionQueue) {
-            pushTransactionQueue.add(trx);
-        }
+        pushTransactionQueue.add(trx);
 
         try {
             if (!trx.validateSignature(this)) {
@@ -780,9 +786,21 @@ public class Manager {
                     session.setValue(revokingStore.buildSession());
                 }
 
+                // checked before executing, nothing is spent on a transaction that cannot stay
+                if (transactionPool.isFull()) {
+                    logger.info("Transaction pool is full, drop transaction {}",
+                            trx.getTransactionId());
+                    return false;
+                }
+
                 try (ISession tmpSession = revokingStore.buildSession()) {
                     processTransaction(trx, null);
-                    pendingTransactions.add(trx);
+                    if (!transactionPool.add(trx)) {
+                        // closing the session unmerged reverts the transaction
+                        logger.info("Transaction pool is full, drop transaction {}",
+                                trx.getTransactionId());
+                        return false;
+                    }
                     tmpSession.merge();
                 }
             }
@@ -1252,7 +1270,7 @@ public class Manager {
 
         if (Objects.nonNull(blockCap)) {
             trace.setResult();
-            if (!blockCap.getInstance().getBlockHeader().getWitnessSignature().isEmpty()) {
+            if (!blockCap.getBlockHeader().getWitnessSignature().isEmpty()) {
                 if (trace.checkNeedRetry()) {
                     String txId = Hex.toHexString(trxCap.getTransactionId().getBytes());
                     logger.info("Retry for tx id: {}", txId);
@@ -1280,12 +1298,15 @@ public class Manager {
         TransactionInfoWrapper transactionInfo = TransactionInfoWrapper
                 .buildInstance(trxCap, blockCap, trace);
 
-        // if event subscribe is enabled, post contract triggers to queue
-        postContractTrigger(trace, false);
-        Contract contract = trxCap.getInstance().getRawData().getContract(0);
-        if (isMultSignTransaction(trxCap.getInstance())) {
-            ownerAddressSet.add(ByteArray.toHexString(TransactionWrapper.getOwner(contract)));
-        }
+        // deferred to the commit when the transaction executes ahead of its turn
+        SpeculativeState.runOrDefer(() -> {
+            // if event subscribe is enabled, post contract triggers to queue
+            postContractTrigger(trace, false);
+            Contract contract = trxCap.getInstance().getRawData().getContract(0);
+            if (isMultSignTransaction(trxCap.getInstance())) {
+                ownerAddressSet.add(ByteArray.toHexString(TransactionWrapper.getOwner(contract)));
+            }
+        });
 
         return transactionInfo.getInstance();
     }
@@ -1339,6 +1360,7 @@ public class Manager {
         final BlockWrapper blockWrapper =
                 new BlockWrapper(number + 1, preHash, when, extraData, witnessWrapper.getAddress());
         blockWrapper.generatedByMyself = true;
+        blockWrapper.startAssembling();
         session.reset();
         session.setValue(revokingStore.buildSession());
         //
@@ -1353,13 +1375,13 @@ public class Manager {
                 new TransactionRetWrapper(blockWrapper);
 
         Set<String> accountSet = new HashSet<>();
-        Iterator<TransactionWrapper> iterator = pendingTransactions.iterator();
+        Iterator<TransactionWrapper> iterator = transactionPool.snapshot().iterator();
         while (iterator.hasNext() || repushTransactions.size() > 0) {
             boolean fromPending = false;
             TransactionWrapper trx;
             if (iterator.hasNext()) {
                 fromPending = true;
-                trx = (TransactionWrapper) iterator.next();
+                trx = iterator.next();
             } else {
                 trx = repushTransactions.poll();
             }
@@ -1373,7 +1395,7 @@ public class Manager {
             }
 
             // check the block size
-            if ((blockWrapper.getInstance().getSerializedSize() + trx.getSerializedSize() + 3)
+            if ((blockWrapper.getSerializedSize() + trx.getSerializedSize() + 3)
                     > ChainConstant.BLOCK_SIZE) {
                 postponedTrxCount++;
                 continue;
@@ -1406,7 +1428,7 @@ public class Manager {
                     transactionRetWrapper.addTransactionInfo(result);
                 }
                 if (fromPending) {
-                    iterator.remove();
+                    transactionPool.remove(trx);
                 }
             } catch (ContractExeException e) {
                 logger.info("contract not processed during execute");
@@ -1451,7 +1473,7 @@ public class Manager {
         }
 
         logger.info(
-                "postponedTrxCount[" + postponedTrxCount + "],TrxLeft[" + pendingTransactions.size()
+                "postponedTrxCount[" + postponedTrxCount + "],TrxLeft[" + transactionPool.size()
                         + "],repushTrxCount[" + repushTransactions.size() + "]");
 
         blockWrapper.setMerkleRoot();
@@ -1515,6 +1537,10 @@ public class Manager {
         return this.transactionStore;
     }
 
+    public TransactionAddressIndexStore getTransactionAddressIndexStore() {
+        return this.transactionAddressIndexStore;
+    }
+
     public TransactionHistoryStore getTransactionHistoryStore() {
         return this.transactionHistoryStore;
     }
@@ -1555,14 +1581,16 @@ public class Manager {
 
         try {
             accountStateCallBack.preExecute(block);
+            int blockIndex = 0;
             for (TransactionWrapper transactionWrapper : block.getTransactions()) {
                 transactionWrapper.setBlockNum(block.getNum());
+                transactionWrapper.setBlockIndex(blockIndex++);
                 if (block.generatedByMyself) {
                     transactionWrapper.setVerified(true);
                 }
-                accountStateCallBack.preExeTrans();
-                TransactionInfo result = processTransaction(transactionWrapper, block);
-                accountStateCallBack.exeTransFinish();
+            }
+            for (TransactionInfo result : processTransactions(block.getTransactions(), block,
+                    parallelTransactionExecutor)) {
                 if (Objects.nonNull(result)) {
                     transactionRetWrapper.addTransactionInfo(result);
                 }
@@ -1595,6 +1623,51 @@ public class Manager {
     }
 
 
+    /**
+     * executes the transactions in order, with an executor the transactions of every window run
+     * ahead of their turn first and only the ones whose speculation is stale execute serially.
+     */
+    List<TransactionInfo> processTransactions(List<TransactionWrapper> transactions,
+            BlockWrapper blockCap, ParallelTransactionExecutor executor)
+            throws ValidateSignatureException, ContractValidateException, ContractExeException,
+            AccountResourceInsufficientException, TransactionExpirationException,
+            TooBigTransactionException, TooBigTransactionResultException,
+            DupTransactionException, TaposException, ReceiptCheckErrException, VMIllegalException {
+        List<TransactionInfo> results = new ArrayList<>(transactions.size());
+        int windowSize = executor == null ? transactions.size() : executor.getWindowSize();
+        for (int from = 0; from < transactions.size(); from += windowSize) {
+            List<TransactionWrapper> window = transactions
+                    .subList(from, Math.min(from + windowSize, transactions.size()));
+            List<Speculation> speculations = null;
+            if (executor != null && window.size() > 1) {
+                try {
+                    speculations = executor.speculate(window,
+                            trx -> processTransaction(trx, blockCap));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            for (int i = 0; i < window.size(); i++) {
+                Speculation speculation = speculations == null ? null : speculations.get(i);
+                accountStateCallBack.preExeTrans();
+                if (speculation != null && speculation.commit()) {
+                    results.add(speculation.getResult());
+                } else {
+                    results.add(processTransaction(window.get(i), blockCap));
+                }
+                accountStateCallBack.exeTransFinish();
+            }
+        }
+        if (executor != null && logger.isDebugEnabled()) {
+            logger.debug("Parallel execution, {}", executor.getStatistics());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Code cache, {}", ProgramPrecompileCache.getInstance().getStatistics());
+        }
+        return results;
+    }
+
     private void updateTransHashCache(BlockWrapper block) {
         for (TransactionWrapper transactionWrapper : block.getTransactions()) {
             this.transactionIdCache.put(transactionWrapper.getTransactionId(), true);
@@ -1815,11 +1888,6 @@ public class Manager {
         }
     }
 
-    public boolean isTooManyPending() {
-        return getPendingTransactions().size() + getRepushTransactions().size()
-                > MAX_TRANSACTION_PENDING;
-    }
-
     public boolean isGeneratingBlock() {
         if (Args.getInstance().isWitness()) {
             return witnessController.isGeneratingBlock();
@@ -1827,56 +1895,26 @@ public class Manager {
         return false;
     }
 
-    private static class ValidateSignTask implements Callable<Boolean> {
-
-        private TransactionWrapper trx;
-        private CountDownLatch countDownLatch;
-        private Manager manager;
-
-        ValidateSignTask(TransactionWrapper trx, CountDownLatch countDownLatch,
-                         Manager manager) {
-            this.trx = trx;
-            this.countDownLatch = countDownLatch;
-            this.manager = manager;
-        }
-
-        @Override
-        public Boolean call() throws ValidateSignatureException {
-            try {
-                trx.validateSignature(manager);
-            } catch (ValidateSignatureException e) {
-                throw e;
-            } finally {
-                countDownLatch.countDown();
-            }
-            return true;
-        }
-    }
-
     public void preValidateTransactionSign(BlockWrapper block)
             throws InterruptedException, ValidateSignatureException {
         logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size()
                 + ",block num:" + block.getNum());
-        int transSize = block.getTransactions().size();
-        if (transSize <= 0) {
+        if (block.getTransactions().isEmpty()) {
             return;
         }
-        CountDownLatch countDownLatch = new CountDownLatch(transSize);
-        List<Future<Boolean>> futures = new ArrayList<>(transSize);
-
-        for (TransactionWrapper transaction : block.getTransactions()) {
-            Future<Boolean> future = validateSignService
-                    .submit(new ValidateSignTask(transaction, countDownLatch, this));
-            futures.add(future);
+        transactionSignValidator.validate(block.getTransactions());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Signature cache, {}", SignatureCache.getInstance().getStatistics());
         }
-        countDownLatch.await();
+    }
 
-        for (Future<Boolean> future : futures) {
-            try {
-                future.get();
-            } catch (ExecutionException e) {
-                throw new ValidateSignatureException(e.getCause().getMessage());
-            }
+    /**
+     * starts recovering the signers of a block that is processed later, for example while the
+     * blocks before it are still executing.
+     */
+    public void prefetchTransactionSign(BlockWrapper block) {
+        if (!block.generatedByMyself) {
+            transactionSignValidator.prefetch(block);
         }
     }
 
@@ -0,0 +1,183 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.db.db2.core.SpeculativeState;
+import org.gsc.protos.Protocol.Transaction.Contract;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+import org.gsc.protos.Protocol.TransactionInfo;
+
+/**
+ * Executes the transactions of a block ahead of their turn. A window of transactions runs on a
+ * fork join pool, every transaction against the current head through its own
+ * {@link SpeculativeState}, then the caller walks the window in block order: a speculation
+ * whose reads still hold is committed, any other transaction is executed again, serially, on the
+ * head. The committed rows are the rows of the serial run, so results and receipts do not
+ * depend on the mode.
+ *
+ * <p>Read and write sets are predicted from the contract types: a transaction is only run ahead
+ * if its type keeps all of its state in the revoking dbs and its accounts, owner and receiver,
+ * are not used by an earlier transaction of the window. The sets the speculations really used
+ * decide the commit.</p>
+ */
+@Slf4j(topic = "DB")
+public class ParallelTransactionExecutor {
+
+    private static final int WINDOW_PER_THREAD = 4;
+
+    private static final Set<ContractType> SPECULATIVE_TYPES = Collections.unmodifiableSet(
+            EnumSet.of(ContractType.TransferContract, ContractType.TransferAssetContract,
+                    ContractType.FreezeBalanceContract, ContractType.UnfreezeBalanceContract,
+                    ContractType.AccountUpdateContract, ContractType.SetAccountIdContract,
+                    ContractType.ParticipateAssetIssueContract, ContractType.UnfreezeAssetContract,
+                    ContractType.WithdrawBalanceContract, ContractType.VoteWitnessContract));
+
+    public interface Execution {
+
+        TransactionInfo execute(TransactionWrapper trx) throws Exception;
+    }
+
+    private final ForkJoinPool pool;
+
+    @Getter
+    private final int windowSize;
+
+    private final LongAdder speculatedCount = new LongAdder();
+    private final LongAdder committedCount = new LongAdder();
+
+    public ParallelTransactionExecutor(int threadNum) {
+        this.pool = new ForkJoinPool(Math.max(threadNum, 1));
+        this.windowSize = pool.getParallelism() * WINDOW_PER_THREAD;
+    }
+
+    /**
+     * runs the window ahead of its turn, nothing may write the head snapshots meanwhile.
+     *
+     * @return the speculation of every transaction of the window, null for the transactions
+     * that have to run at their turn.
+     */
+    public List<Speculation> speculate(List<TransactionWrapper> window, Execution execution)
+            throws InterruptedException {
+        Speculation[] speculations = new Speculation[window.size()];
+        List<Future<?>> futures = new ArrayList<>();
+        Set<WrappedByteArray> accounts = new HashSet<>();
+        for (int i = 0; i < window.size(); i++) {
+            TransactionWrapper trx = window.get(i);
+            Set<WrappedByteArray> touched = getAccounts(trx);
+            boolean independent = isSpeculative(trx) && Collections.disjoint(accounts, touched);
+            accounts.addAll(touched);
+            if (independent) {
+                Speculation speculation = new Speculation();
+                speculations[i] = speculation;
+                futures.add(pool.submit(() -> {
+                    speculation.execute(trx, execution);
+                    return null;
+                }));
+            }
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // the speculation stays failed, the transaction runs again at its turn
+                logger.debug("speculative execution failed: {}", e.getMessage());
+            }
+        }
+        speculatedCount.add(futures.size());
+        return Arrays.asList(speculations);
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public long getCommittedCount() {
+        return committedCount.sum();
+    }
+
+    public String getStatistics() {
+        long speculated = speculatedCount.sum();
+        long committed = committedCount.sum();
+        return String.format("speculated: %d, committed: %d, executed again: %d",
+                speculated, committed, speculated - committed);
+    }
+
+    private static boolean isSpeculative(TransactionWrapper trx) {
+        List<Contract> contracts = trx.getInstance().getRawData().getContractList();
+        return contracts.size() == 1 && SPECULATIVE_TYPES.contains(contracts.get(0).getType());
+    }
+
+    private static Set<WrappedByteArray> getAccounts(TransactionWrapper trx) {
+        Set<WrappedByteArray> accounts = new HashSet<>();
+        for (Contract contract : trx.getInstance().getRawData().getContractList()) {
+            byte[] owner = TransactionWrapper.getOwner(contract);
+            if (owner != null) {
+                accounts.add(WrappedByteArray.of(owner));
+            }
+            if (SPECULATIVE_TYPES.contains(contract.getType())) {
+                byte[] to = TransactionWrapper.getToAddress(contract);
+                if (to != null) {
+                    accounts.add(WrappedByteArray.of(to));
+                }
+            }
+        }
+        return accounts;
+    }
+
+    public class Speculation {
+
+        private final SpeculativeState state = new SpeculativeState();
+
+        @Getter
+        private TransactionInfo result;
+
+        private boolean failed = true;
+
+        private void execute(TransactionWrapper trx, Execution execution) throws Exception {
+            result = state.run(() -> execution.execute(trx));
+            failed = false;
+        }
+
+        /**
+         * writes the speculation into the head snapshots if the values it read are still there.
+         *
+         * @return false if the transaction has to be executed again.
+         */
+        public boolean commit() {
+            if (failed || !state.isValid()) {
+                return false;
+            }
+            state.commit();
+            committedCount.increment();
+            return true;
+        }
+    }
+}
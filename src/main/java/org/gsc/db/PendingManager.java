@@ -31,8 +31,7 @@ public class PendingManager implements AutoCloseable {
     public PendingManager(Manager db) {
 
         this.dbManager = db;
-        tmpTransactions.addAll(db.getPendingTransactions());
-        db.getPendingTransactions().clear();
+        tmpTransactions.addAll(db.getTransactionPool().drain());
         db.getSession().reset();
     }
 
@@ -40,29 +39,22 @@ public class PendingManager implements AutoCloseable {
     public void close() {
 
         for (TransactionWrapper tx : tmpTransactions) {
-            try {
-                if (tx.getTrxTrace() != null &&
-                        tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)) {
-                    dbManager.getRepushTransactions().put(tx);
-                }
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage());
-                Thread.currentThread().interrupt();
-            }
+            repush(tx);
         }
         tmpTransactions.clear();
 
         for (TransactionWrapper tx : dbManager.getPoppedTransactions()) {
-            try {
-                if (tx.getTrxTrace() != null &&
-                        tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)) {
-                    dbManager.getRepushTransactions().put(tx);
-                }
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage());
-                Thread.currentThread().interrupt();
-            }
+            repush(tx);
         }
         dbManager.getPoppedTransactions().clear();
     }
+
+    private void repush(TransactionWrapper tx) {
+        if (tx.getTrxTrace() != null &&
+                tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)
+                && !dbManager.getRepushTransactions().offer(tx)) {
+            // the block lock is held here, the queue is full and waiting would stall the repush
+            logger.debug("repush queue is full, drop transaction {}", tx.getTransactionId());
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.gsc.config.args.Args;
+import org.gsc.core.wrapper.BytesWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.protos.Protocol.Transaction.Contract;
+import org.gsc.utils.ByteArray;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only index from an address to the transactions it sent or received.
+ * key: address, direction (1 byte), block number (8 bytes), index in block (4 bytes).
+ * value: transaction id.
+ * Keys of an address and direction are ordered by position in chain, so a page of its
+ * history is a prefix scan from either end. The index is written by the transaction store in
+ * the same revoking session as the block, so it is flushed and revoked together with it.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class TransactionAddressIndexStore extends GSCStoreWithRevoking<BytesWrapper> {
+
+    public enum Direction {
+        FROM((byte) 0),
+        TO((byte) 1);
+
+        private final byte value;
+
+        Direction(byte value) {
+            this.value = value;
+        }
+    }
+
+    private static final int POSITION_LENGTH = Long.BYTES + Integer.BYTES;
+
+    /**
+     * same condition as the index helper, only confirmed nodes serve account history.
+     */
+    @Getter
+    private final boolean enabled;
+
+    @Autowired
+    private TransactionAddressIndexStore(@Value("transaction_address_index") String dbName) {
+        super(dbName);
+        enabled = Args.getInstance().isConfirmedNode()
+                && BooleanUtils.toBoolean(Args.getInstance().getStorage().getIndexSwitch());
+    }
+
+    /**
+     * a transaction not in a block yet, e.g. a pending one, has no position in chain and is not
+     * indexed, it is once its block is applied.
+     */
+    public void put(TransactionWrapper transaction) {
+        long blockNum = transaction.getBlockNum();
+        int index = transaction.getBlockIndex();
+        if (blockNum < 0 || index < 0) {
+            return;
+        }
+        byte[] id = transaction.getTransactionId().getBytes();
+        for (Contract contract : transaction.getInstance().getRawData().getContractList()) {
+            byte[] owner = TransactionWrapper.getOwner(contract);
+            if (ArrayUtils.isNotEmpty(owner)) {
+                revokingDB.put(createKey(owner, Direction.FROM, blockNum, index), id);
+            }
+            byte[] to = TransactionWrapper.getToAddress(contract);
+            if (ArrayUtils.isNotEmpty(to)) {
+                revokingDB.put(createKey(to, Direction.TO, blockNum, index), id);
+            }
+        }
+    }
+
+    public void delete(TransactionWrapper transaction) {
+        long blockNum = transaction.getBlockNum();
+        int index = transaction.getBlockIndex();
+        if (blockNum < 0 || index < 0) {
+            return;
+        }
+        for (Contract contract : transaction.getInstance().getRawData().getContractList()) {
+            byte[] owner = TransactionWrapper.getOwner(contract);
+            if (ArrayUtils.isNotEmpty(owner)) {
+                revokingDB.delete(createKey(owner, Direction.FROM, blockNum, index));
+            }
+            byte[] to = TransactionWrapper.getToAddress(contract);
+            if (ArrayUtils.isNotEmpty(to)) {
+                revokingDB.delete(createKey(to, Direction.TO, blockNum, index));
+            }
+        }
+    }
+
+    /**
+     * ids of the transactions of an address, oldest first or newest first if reverse is set.
+     * Only offset + limit keys are read, no transaction is parsed.
+     */
+    public List<byte[]> getTransactionIds(byte[] address, Direction direction, long offset,
+            long limit, boolean reverse) {
+        if (ArrayUtils.isEmpty(address) || offset < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long count = offset > Long.MAX_VALUE - limit ? Long.MAX_VALUE : offset + limit;
+        return revokingDB.prefixQuery(createPrefix(address, direction), count, reverse).stream()
+                .skip(offset)
+                .map(Map.Entry::getValue)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] createPrefix(byte[] address, Direction direction) {
+        return ArrayUtils.add(address, direction.value);
+    }
+
+    private static byte[] createKey(byte[] address, Direction direction, long blockNum,
+            int index) {
+        byte[] prefix = createPrefix(address, direction);
+        byte[] key = new byte[prefix.length + POSITION_LENGTH];
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+        System.arraycopy(ByteArray.fromLong(blockNum), 0, key, prefix.length, Long.BYTES);
+        System.arraycopy(ByteArray.fromInt(index), 0, key, prefix.length + Long.BYTES,
+                Integer.BYTES);
+        return key;
+    }
+}
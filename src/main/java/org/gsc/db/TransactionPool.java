@@ -0,0 +1,226 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import org.gsc.core.wrapper.ReceiptWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.utils.Sha256Hash;
+
+/**
+ * Pending transactions that passed admission, waiting to be packed into a block.
+ *
+ * <p>Transactions are queued per sender in arrival order, a sender's transactions are handed
+ * out in that order so one never runs before the transaction it may depend on. Across senders
+ * the head transactions are ordered by priority, the fee paid per kilobyte on admission, and
+ * by arrival among equal priorities.</p>
+ *
+ * <p>Every sender queue is updated under the lock of its own hash map bin, so senders are
+ * sharded and admission for one sender never waits for another. {@link #snapshot} only reads
+ * the concurrent structures, block production iterates it without blocking admission. When
+ * the pool is full a new transaction is rejected: the pending state holds the changes of every
+ * pooled transaction, so one cannot be dropped without executing the others again.</p>
+ */
+public class TransactionPool {
+
+    private static final Comparator<Entry> PRIORITY_ORDER = Comparator
+            .comparingLong((Entry entry) -> -entry.priority)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private static final Comparator<Entry> ARRIVAL_ORDER =
+            Comparator.comparingLong(entry -> entry.sequence);
+
+    @Getter
+    private final int capacity;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Sha256Hash, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<WrappedByteArray, ConcurrentSkipListMap<Long, Entry>> senders =
+            new ConcurrentHashMap<>();
+
+    public TransactionPool(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    /**
+     * fee paid per kilobyte, the fees are known once the transaction is processed.
+     */
+    public static long getPriority(TransactionWrapper trx) {
+        if (trx.getTrxTrace() == null) {
+            return 0;
+        }
+        ReceiptWrapper receipt = trx.getTrxTrace().getReceipt();
+        long fee = receipt.getNetFee() + receipt.getCpuFee() + receipt.getMultiSignFee();
+        return fee * 1024 / Math.max(trx.getSerializedSize(), 1);
+    }
+
+    public boolean add(TransactionWrapper trx) {
+        return add(trx, getPriority(trx));
+    }
+
+    /**
+     * @return false if the transaction is pooled already or the pool is full.
+     */
+    public boolean add(TransactionWrapper trx, long priority) {
+        if (isFull()) {
+            return false;
+        }
+        Entry entry = new Entry(trx, priority, sequence.incrementAndGet());
+        boolean[] added = {false};
+        senders.compute(entry.sender, (sender, queue) -> {
+            if (entries.putIfAbsent(entry.id, entry) != null) {
+                return queue;
+            }
+            if (queue == null) {
+                queue = new ConcurrentSkipListMap<>();
+            }
+            queue.put(entry.sequence, entry);
+            added[0] = true;
+            return queue;
+        });
+        return added[0];
+    }
+
+    public boolean contains(Sha256Hash id) {
+        return entries.containsKey(id);
+    }
+
+    public boolean remove(TransactionWrapper trx) {
+        return remove(trx.getTransactionId());
+    }
+
+    public boolean remove(Sha256Hash id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        boolean[] removed = {false};
+        senders.computeIfPresent(entry.sender, (sender, queue) -> {
+            if (entries.remove(id, entry)) {
+                queue.remove(entry.sequence);
+                removed[0] = true;
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+        return removed[0];
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public boolean isFull() {
+        return entries.size() >= capacity;
+    }
+
+    /**
+     * the pooled transactions in the order they should be packed, built from the sender queues
+     * without locking, transactions added or removed meanwhile may or may not be included.
+     */
+    public List<TransactionWrapper> snapshot() {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(senders.size(), 1),
+                (a, b) -> PRIORITY_ORDER.compare(a.entry, b.entry));
+        for (ConcurrentSkipListMap<Long, Entry> queue : senders.values()) {
+            Iterator<Entry> iterator = queue.values().iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+
+        List<TransactionWrapper> transactions = new ArrayList<>(entries.size());
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            transactions.add(head.entry.transaction);
+            if (head.iterator.hasNext()) {
+                head.entry = head.iterator.next();
+                heads.add(head);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * removes every pooled transaction, in the order they were admitted, which is the order to
+     * execute them again in: a transaction may depend on an earlier one of another sender.
+     */
+    public List<TransactionWrapper> drain() {
+        List<Entry> drained = new ArrayList<>(entries.values());
+        drained.sort(ARRIVAL_ORDER);
+        List<TransactionWrapper> transactions = new ArrayList<>(drained.size());
+        for (Entry entry : drained) {
+            if (remove(entry.id)) {
+                transactions.add(entry.transaction);
+            }
+        }
+        return transactions;
+    }
+
+    public void clear() {
+        drain();
+    }
+
+    private static class Entry {
+
+        private final Sha256Hash id;
+        private final WrappedByteArray sender;
+        private final TransactionWrapper transaction;
+        private final long priority;
+        private final long sequence;
+
+        Entry(TransactionWrapper transaction, long priority, long sequence) {
+            this.id = transaction.getTransactionId();
+            this.sender = WrappedByteArray.of(getSender(transaction));
+            this.transaction = transaction;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        private static byte[] getSender(TransactionWrapper transaction) {
+            if (transaction.getInstance().getRawData().getContractCount() == 0) {
+                return new byte[0];
+            }
+            byte[] owner = TransactionWrapper
+                    .getOwner(transaction.getInstance().getRawData().getContract(0));
+            return owner == null ? new byte[0] : owner;
+        }
+    }
+
+    private static class Head {
+
+        private Entry entry;
+        private final Iterator<Entry> iterator;
+
+        Head(Entry entry, Iterator<Entry> iterator) {
+            this.entry = entry;
+            this.iterator = iterator;
+        }
+    }
+}
@@ -63,6 +63,14 @@ public class TransactionRetStore extends GSCStoreWithRevoking<TransactionRetWrap
             return null;
         }
 
+        int index = transactionStore.getBlockIndex(key);
+        if (index >= 0 && index < result.getInstance().getTransactioninfoCount()) {
+            TransactionInfo transactionResultInfo = result.getInstance().getTransactioninfo(index);
+            if (transactionResultInfo.getId().equals(ByteString.copyFrom(key))) {
+                return new TransactionInfoWrapper(transactionResultInfo);
+            }
+        }
+
         for (TransactionInfo transactionResultInfo : result.getInstance().getTransactioninfoList()) {
             if (transactionResultInfo.getId().equals(ByteString.copyFrom(key))) {
                 return new TransactionInfoWrapper(transactionResultInfo);
@@ -0,0 +1,173 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gsc.core.exception.ValidateSignatureException;
+import org.gsc.core.wrapper.BlockWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.core.wrapper.utils.SignatureCache;
+
+/**
+ * Validates the transaction signatures of a block on a fork join pool. The transactions are
+ * split into chunks, a few per worker so idle workers steal from busy ones, and a chunk first
+ * recovers all of its signers in one batch before checking them against the account
+ * permissions. The first invalid signature stops every chunk that has not finished.
+ *
+ * <p>Signer recovery does not depend on the state, so it can run for a block ahead of its
+ * execution: {@link #prefetch} only fills the signature cache, permissions are checked by
+ * {@link #validate} when the block is processed.</p>
+ */
+@Slf4j(topic = "DB")
+public class TransactionSignValidator {
+
+    private static final int MIN_CHUNK_SIZE = 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Manager manager;
+
+    private final ForkJoinPool pool;
+
+    public TransactionSignValidator(Manager manager, int threadNum) {
+        this.manager = manager;
+        this.pool = new ForkJoinPool(Math.max(threadNum, 1));
+    }
+
+    public void validate(List<TransactionWrapper> transactions)
+            throws InterruptedException, ValidateSignatureException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        AtomicReference<ValidateSignatureException> error = new AtomicReference<>();
+        try {
+            pool.submit(new ValidateTask(transactions, 0, transactions.size(),
+                    chunkSize(transactions.size()), error)).get();
+        } catch (ExecutionException e) {
+            throw new ValidateSignatureException(e.getCause().getMessage());
+        }
+        if (error.get() != null) {
+            throw error.get();
+        }
+    }
+
+    /**
+     * recovers the signers of a block in the background, ahead of {@link #validate}.
+     */
+    public void prefetch(BlockWrapper block) {
+        List<TransactionWrapper> transactions = block.getTransactions();
+        if (!transactions.isEmpty()) {
+            pool.execute(new RecoverTask(transactions, 0, transactions.size(),
+                    chunkSize(transactions.size())));
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private int chunkSize(int size) {
+        int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        return Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+    }
+
+    private class ValidateTask extends RecursiveAction {
+
+        private final List<TransactionWrapper> transactions;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final AtomicReference<ValidateSignatureException> error;
+
+        ValidateTask(List<TransactionWrapper> transactions, int from, int to, int chunkSize,
+                AtomicReference<ValidateSignatureException> error) {
+            this.transactions = transactions;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.error = error;
+        }
+
+        @Override
+        protected void compute() {
+            if (error.get() != null) {
+                return;
+            }
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ValidateTask(transactions, from, middle, chunkSize, error),
+                        new ValidateTask(transactions, middle, to, chunkSize, error));
+                return;
+            }
+            List<TransactionWrapper> chunk = transactions.subList(from, to);
+            recoverAddresses(chunk);
+            for (TransactionWrapper transaction : chunk) {
+                if (error.get() != null) {
+                    return;
+                }
+                try {
+                    transaction.validateSignature(manager);
+                } catch (ValidateSignatureException e) {
+                    error.compareAndSet(null, e);
+                    return;
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, new ValidateSignatureException(e.getMessage()));
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class RecoverTask extends RecursiveAction {
+
+        private final List<TransactionWrapper> transactions;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RecoverTask(List<TransactionWrapper> transactions, int from, int to, int chunkSize) {
+            this.transactions = transactions;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RecoverTask(transactions, from, middle, chunkSize),
+                        new RecoverTask(transactions, middle, to, chunkSize));
+                return;
+            }
+            recoverAddresses(transactions.subList(from, to));
+        }
+    }
+
+    /**
+     * best effort, a signature the batch could not recover is recovered again on validation.
+     */
+    private static void recoverAddresses(List<TransactionWrapper> transactions) {
+        try {
+            SignatureCache.getInstance().recoverAddresses(transactions);
+        } catch (RuntimeException e) {
+            logger.debug("batch recover signatures failed: {}", e.getMessage());
+        }
+    }
+}
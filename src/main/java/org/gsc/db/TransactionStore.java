@@ -13,6 +13,11 @@
 
 package org.gsc.db;
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -28,17 +33,32 @@ import org.gsc.utils.Sha256Hash;
 import org.gsc.db.KhaosDatabase.KhaosBlock;
 import org.gsc.core.exception.BadItemException;
 import org.gsc.core.exception.StoreException;
+import org.gsc.protos.Protocol.Block;
+import org.gsc.protos.Protocol.Transaction;
 
 @Slf4j(topic = "DB")
 @Component
 public class TransactionStore extends GSCStoreWithRevoking<TransactionWrapper> {
 
+    /**
+     * legacy value: 8 bytes of block number.
+     */
+    private static final int BLOCK_NUM_LENGTH = 8;
+
+    /**
+     * value: 8 bytes of block number followed by 4 bytes of index in block.
+     */
+    private static final int POSITION_LENGTH = 12;
+
     @Autowired
     private BlockStore blockStore;
 
     @Autowired
     private KhaosDatabase khaosDatabase;
 
+    @Autowired
+    private TransactionAddressIndexStore addressIndexStore;
+
     @Autowired
     private TransactionStore(@Value("transaction") String dbName) {
         super(dbName);
@@ -48,13 +68,108 @@ public class TransactionStore extends GSCStoreWithRevoking<TransactionWrapper> {
     public void put(byte[] key, TransactionWrapper item) {
         if (Objects.isNull(item) || item.getBlockNum() == -1) {
             super.put(key, item);
-        } else {
+        } else if (item.getBlockIndex() < 0) {
             revokingDB.put(key, ByteArray.fromLong(item.getBlockNum()));
+        } else {
+            revokingDB.put(key, encodePosition(item.getBlockNum(), item.getBlockIndex()));
+        }
+
+        if (Objects.nonNull(item) && addressIndexStore.isEnabled()) {
+            addressIndexStore.put(item);
+        }
+    }
+
+    /**
+     * rewrite a legacy block number entry with the position of the transaction in block.
+     */
+    public boolean updatePosition(byte[] key, long blockNum, int index) {
+        byte[] value = revokingDB.getUnchecked(key);
+        if (ArrayUtils.isEmpty(value) || value.length != BLOCK_NUM_LENGTH
+                || ByteArray.toLong(value) != blockNum) {
+            return false;
         }
+        revokingDB.put(key, encodePosition(blockNum, index));
+        return true;
+    }
+
+    private static byte[] encodePosition(long blockNum, int index) {
+        return ArrayUtils.addAll(ByteArray.fromLong(blockNum), ByteArray.fromInt(index));
+    }
+
+    private static long decodeBlockNum(byte[] value) {
+        return ByteArray.toLong(ByteArray.subArray(value, 0, BLOCK_NUM_LENGTH));
+    }
 
-        if (Objects.nonNull(indexHelper)) {
-            indexHelper.update(item.getInstance());
+    private static int decodeIndex(byte[] value) {
+        return ByteArray.toInt(ByteArray.subArray(value, BLOCK_NUM_LENGTH, POSITION_LENGTH));
+    }
+
+    /**
+     * index in block of the transaction, -1 if the entry does not record it.
+     */
+    public int getBlockIndex(byte[] key) {
+        byte[] value = revokingDB.getUnchecked(key);
+        if (ArrayUtils.isEmpty(value) || value.length != POSITION_LENGTH) {
+            return -1;
         }
+        return decodeIndex(value);
+    }
+
+    /**
+     * decode only the index-th transaction of the serialized block, skipping the others.
+     */
+    private static Transaction parseTransactionAt(byte[] blockData, int index)
+            throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(blockData);
+        int count = 0;
+        while (true) {
+            int tag = input.readTag();
+            if (tag == 0) {
+                return null;
+            }
+            if (WireFormat.getTagFieldNumber(tag) == Block.TRANSACTIONS_FIELD_NUMBER
+                    && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED
+                    && count++ == index) {
+                return Transaction.parseFrom(input.readBytes());
+            }
+            input.skipField(tag);
+        }
+    }
+
+    private TransactionWrapper getTransactionFromBlockStore(byte[] key, long blockNum,
+            int index) {
+        byte[] blockData = blockStore.getDataByNumber(blockNum);
+        if (ArrayUtils.isEmpty(blockData)) {
+            return null;
+        }
+        try {
+            Transaction transaction = parseTransactionAt(blockData, index);
+            if (transaction != null) {
+                TransactionWrapper transactionWrapper = new TransactionWrapper(transaction);
+                if (Arrays.equals(transactionWrapper.getTransactionId().getBytes(), key)) {
+                    transactionWrapper.setBlockNum(blockNum);
+                    transactionWrapper.setBlockIndex(index);
+                    return transactionWrapper;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("parse transaction at {} of block {} failed", index, blockNum, e);
+        }
+        return null;
+    }
+
+    private TransactionWrapper getTransactionFromKhaosDatabase(byte[] key, long high, int index) {
+        List<KhaosBlock> khaosBlocks = khaosDatabase.getMiniStore().getBlockByNum(high);
+        for (KhaosBlock bl : khaosBlocks) {
+            Block block = bl.getBlk().getInstance();
+            if (index < block.getTransactionsCount()) {
+                TransactionWrapper e = new TransactionWrapper(block.getTransactions(index));
+                if (Arrays.equals(e.getTransactionId().getBytes(), key)) {
+                    return e;
+                }
+            }
+        }
+        return null;
     }
 
     private TransactionWrapper getTransactionFromBlockStore(byte[] key, long blockNum) {
@@ -87,9 +202,12 @@ public class TransactionStore extends GSCStoreWithRevoking<TransactionWrapper> {
             return -1;
         }
 
-        if (value.length == 8) {
+        if (value.length == BLOCK_NUM_LENGTH) {
             return ByteArray.toLong(value);
         }
+        if (value.length == POSITION_LENGTH) {
+            return decodeBlockNum(value);
+        }
         TransactionWrapper transactionWrapper = new TransactionWrapper(value);
         return transactionWrapper.getBlockNum();
     }
@@ -101,7 +219,20 @@ public class TransactionStore extends GSCStoreWithRevoking<TransactionWrapper> {
             return null;
         }
         TransactionWrapper transactionWrapper = null;
-        if (value.length == 8) {
+        if (value.length == POSITION_LENGTH) {
+            long blockHigh = decodeBlockNum(value);
+            int index = decodeIndex(value);
+            transactionWrapper = getTransactionFromBlockStore(key, blockHigh, index);
+            if (transactionWrapper == null) {
+                transactionWrapper = getTransactionFromKhaosDatabase(key, blockHigh, index);
+            }
+            if (transactionWrapper == null) {
+                transactionWrapper = getTransactionFromBlockStore(key, blockHigh);
+            }
+            if (transactionWrapper == null) {
+                transactionWrapper = getTransactionFromKhaosDatabase(key, blockHigh);
+            }
+        } else if (value.length == BLOCK_NUM_LENGTH) {
             long blockHigh = ByteArray.toLong(value);
             transactionWrapper = getTransactionFromBlockStore(key, blockHigh);
             if (transactionWrapper == null) {
@@ -136,12 +267,12 @@ public class TransactionStore extends GSCStoreWithRevoking<TransactionWrapper> {
     }
 
     private void deleteIndex(byte[] key) {
-        if (Objects.nonNull(indexHelper)) {
+        if (addressIndexStore.isEnabled()) {
             TransactionWrapper item;
             try {
                 item = get(key);
                 if (Objects.nonNull(item)) {
-                    indexHelper.remove(item.getInstance());
+                    addressIndexStore.delete(item);
                 }
             } catch (StoreException e) {
                 logger.error("deleteIndex: ", e);
@@ -13,12 +13,15 @@
 
 package org.gsc.db.accountstate.callback;
 
+import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Internal;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +36,10 @@ import org.gsc.core.wrapper.utils.RLP;
 import org.gsc.db.Manager;
 import org.gsc.db.accountstate.AccountStateEntity;
 import org.gsc.db.accountstate.storetrie.AccountStateStoreTrie;
+import org.gsc.db.db2.common.WriteBufferDB;
+import org.gsc.db.db2.core.SpeculativeState;
 import org.gsc.core.exception.BadBlockException;
+import org.gsc.protos.Protocol.Account;
 import org.gsc.trie.TrieImpl;
 import org.gsc.trie.TrieImpl.Node;
 import org.gsc.trie.TrieImpl.ScanAction;
@@ -46,6 +52,7 @@ public class AccountStateCallBack {
     private volatile boolean execute = false;
     private volatile boolean allowGenerateRoot = false;
     private TrieImpl trie;
+    private WriteBufferDB trieBuffer;
 
     @Setter
     private Manager manager;
@@ -55,10 +62,17 @@ public class AccountStateCallBack {
 
     private List<TrieEntry> trieEntryList = new ArrayList<>();
 
+    /**
+     * the last state of every account the block touched, sorted by key, null if deleted. The
+     * trie is updated once per block from it, the root does not depend on the update order.
+     */
+    private Map<byte[], Account> blockAccounts =
+            new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+
     private static class TrieEntry {
 
         private byte[] key;
-        private byte[] data;
+        private Account account;
 
         public byte[] getKey() {
             return key;
@@ -69,18 +83,18 @@ public class AccountStateCallBack {
             return this;
         }
 
-        public byte[] getData() {
-            return data;
+        public Account getAccount() {
+            return account;
         }
 
-        public TrieEntry setData(byte[] data) {
-            this.data = data;
+        public TrieEntry setAccount(Account account) {
+            this.account = account;
             return this;
         }
 
-        public static TrieEntry build(byte[] key, byte[] data) {
+        public static TrieEntry build(byte[] key, Account account) {
             TrieEntry trieEntry = new TrieEntry();
-            return trieEntry.setKey(key).setData(data);
+            return trieEntry.setKey(key).setAccount(account);
         }
     }
 
@@ -91,8 +105,9 @@ public class AccountStateCallBack {
         if (item == null) {
             return;
         }
-        trieEntryList
-                .add(TrieEntry.build(key, new AccountStateEntity(item.getInstance()).toByteArrays()));
+        // the account is encoded once per block, when the trie is updated
+        TrieEntry entry = TrieEntry.build(key, item.getInstance());
+        SpeculativeState.runOrDefer(() -> trieEntryList.add(entry));
     }
 
     public void preExeTrans() {
@@ -101,7 +116,7 @@ public class AccountStateCallBack {
 
     public void exeTransFinish() {
         for (TrieEntry trieEntry : trieEntryList) {
-            trie.put(RLP.encodeElement(trieEntry.getKey()), trieEntry.getData());
+            blockAccounts.put(trieEntry.getKey(), trieEntry.getAccount());
         }
         trieEntryList.clear();
     }
@@ -110,7 +125,7 @@ public class AccountStateCallBack {
         if (!exe()) {
             return;
         }
-        trie.delete(RLP.encodeElement(key));
+        SpeculativeState.runOrDefer(() -> blockAccounts.put(key, null));
     }
 
     public void preExecute(BlockWrapper blockWrapper) {
@@ -131,7 +146,33 @@ public class AccountStateCallBack {
         if (Arrays.equals(Internal.EMPTY_BYTE_ARRAY, rootHash)) {
             rootHash = Hash.EMPTY_TRIE_HASH;
         }
-        trie = new TrieImpl(db, rootHash);
+        trieEntryList.clear();
+        blockAccounts.clear();
+        trieBuffer = new WriteBufferDB(db);
+        trie = new TrieImpl(trieBuffer, rootHash);
+    }
+
+    /**
+     * applies the accounts of the block to the trie, the dirty subtrees are hashed in parallel.
+     */
+    private byte[] generateRoot() {
+        for (Map.Entry<byte[], Account> entry : blockAccounts.entrySet()) {
+            byte[] key = RLP.encodeElement(entry.getKey());
+            if (entry.getValue() == null) {
+                trie.delete(key);
+            } else {
+                trie.put(key, new AccountStateEntity(entry.getValue()).toByteArrays());
+            }
+        }
+        logger.debug("account state of block {}: {} accounts", blockWrapper.getNum(),
+                blockAccounts.size());
+        blockAccounts.clear();
+
+        byte[] newRoot = trie.getRootHash();
+        if (ArrayUtils.isEmpty(newRoot)) {
+            newRoot = Hash.EMPTY_TRIE_HASH;
+        }
+        return newRoot;
     }
 
     public void executePushFinish() throws BadBlockException {
@@ -142,17 +183,17 @@ public class AccountStateCallBack {
                 .getAccountStateRoot();
         execute = false;
         //
-        byte[] newRoot = trie.getRootHash();
-        if (ArrayUtils.isEmpty(newRoot)) {
-            newRoot = Hash.EMPTY_TRIE_HASH;
-        }
+        byte[] newRoot = generateRoot();
         if (!oldRoot.isEmpty() && !Arrays.equals(oldRoot.toByteArray(), newRoot)) {
             logger.error("the accountStateRoot hash is error. {}, oldRoot: {}, newRoot: {}",
                     blockWrapper.getBlockId().getString(), ByteUtil.toHexString(oldRoot.toByteArray()),
                     ByteUtil.toHexString(newRoot));
             printErrorLog(trie);
+            trieBuffer.discard();
             throw new BadBlockException("the accountStateRoot hash is error");
         }
+        // the trie nodes of the block are written at once
+        trieBuffer.flush();
     }
 
     public void executeGenerateFinish() {
@@ -160,16 +201,20 @@ public class AccountStateCallBack {
             return;
         }
         //
-        byte[] newRoot = trie.getRootHash();
-        if (ArrayUtils.isEmpty(newRoot)) {
-            newRoot = Hash.EMPTY_TRIE_HASH;
-        }
+        byte[] newRoot = generateRoot();
         blockWrapper.setAccountStateRoot(newRoot);
+        // the generating session is reset, the nodes are written when the block is pushed
+        trieBuffer.discard();
         execute = false;
     }
 
     public void exceptionFinish() {
         execute = false;
+        trieEntryList.clear();
+        blockAccounts.clear();
+        if (trieBuffer != null) {
+            trieBuffer.discard();
+        }
     }
 
     private boolean exe() {
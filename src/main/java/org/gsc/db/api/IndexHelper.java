@@ -23,15 +23,11 @@ import org.gsc.db.api.index.Index;
 import org.gsc.protos.Contract.AssetIssueContract;
 import org.gsc.protos.Protocol.Account;
 import org.gsc.protos.Protocol.Block;
-import org.gsc.protos.Protocol.Transaction;
 import org.gsc.protos.Protocol.Witness;
 
 @Slf4j(topic = "DB")
 public class IndexHelper {
 
-    @Getter
-    @Resource
-    private Index.Iface<Transaction> transactionIndex;
     @Getter
     @Resource
     private Index.Iface<Block> blockIndex;
@@ -47,7 +43,6 @@ public class IndexHelper {
 
     //@PostConstruct
     public void init() {
-        transactionIndex.fill();
         //blockIndex.fill();
         //witnessIndex.fill();
         //accountIndex.fill();
@@ -58,10 +53,6 @@ public class IndexHelper {
         index.add(bytes);
     }
 
-    public void add(Transaction t) {
-        add(transactionIndex, getKey(t));
-    }
-
     public void add(Block b) {
         //add(blockIndex, getKey(b));
     }
@@ -82,10 +73,6 @@ public class IndexHelper {
         index.update(bytes);
     }
 
-    public void update(Transaction t) {
-        update(transactionIndex, getKey(t));
-    }
-
     public void update(Block b) {
         // update(blockIndex, getKey(b));
     }
@@ -106,10 +93,6 @@ public class IndexHelper {
         index.remove(bytes);
     }
 
-    public void remove(Transaction t) {
-        remove(transactionIndex, getKey(t));
-    }
-
     public void remove(Block b) {
         //remove(blockIndex, getKey(b));
     }
@@ -126,10 +109,6 @@ public class IndexHelper {
         //remove(assetIssueIndex, getKey(a));
     }
 
-    private byte[] getKey(Transaction t) {
-        return new TransactionWrapper(t).getTransactionId().getBytes();
-    }
-
     private byte[] getKey(Block b) {
         return new BlockWrapper(b).getBlockId().getBytes();
     }
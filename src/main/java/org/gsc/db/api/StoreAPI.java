@@ -13,25 +13,23 @@
 
 package org.gsc.db.api;
 
-import static com.googlecode.cqengine.query.QueryFactory.ascending;
-import static com.googlecode.cqengine.query.QueryFactory.equal;
-import static com.googlecode.cqengine.query.QueryFactory.orderBy;
-import static com.googlecode.cqengine.query.QueryFactory.queryOptions;
 import static org.gsc.config.Parameter.DatabaseConstants.TRANSACTIONS_COUNT_LIMIT_MAX;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Streams;
-import com.googlecode.cqengine.resultset.ResultSet;
 
 import java.util.List;
+import java.util.Objects;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.gsc.db.api.index.Index;
-import org.gsc.db.api.index.TransactionIndex;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.TransactionAddressIndexStore;
+import org.gsc.db.TransactionAddressIndexStore.Direction;
+import org.gsc.db.TransactionStore;
+import org.gsc.utils.ByteArray;
 import org.gsc.core.exception.NonUniqueObjectException;
 import org.gsc.protos.Protocol.Transaction;
 
@@ -39,8 +37,11 @@ import org.gsc.protos.Protocol.Transaction;
 @Slf4j(topic = "DB")
 public class StoreAPI {
 
-    @Autowired(required = false)
-    private IndexHelper indexHelper;
+    @Autowired
+    private TransactionStore transactionStore;
+
+    @Autowired
+    private TransactionAddressIndexStore addressIndexStore;
 
     /********************************************************************************
      *                            account api                                       *
@@ -92,53 +93,35 @@ public class StoreAPI {
             logger.info("id is empty");
             return null;
         }
-        Index.Iface<Transaction> index = indexHelper.getTransactionIndex();
-        try (ResultSet<Transaction> resultSet = index
-                .retrieve(equal(TransactionIndex.Transaction_ID, id))) {
-            if (resultSet.isEmpty()) {
-                return null;
-            }
-
-            return resultSet.uniqueResult();
-        } catch (com.googlecode.cqengine.resultset.common.NonUniqueObjectException e) {
-            throw new NonUniqueObjectException(e);
-        }
+        TransactionWrapper transaction = transactionStore.getUnchecked(ByteArray.fromHexString(id));
+        return transaction == null ? null : transaction.getInstance();
     }
 
     public List<Transaction> getTransactionsFromThis(String address, long offset, long limit) {
-        if (StringUtils.isEmpty(address)) {
-            logger.info("address is empty");
-            return Lists.newArrayList();
-        }
-        Index.Iface<Transaction> index = indexHelper.getTransactionIndex();
-        try (ResultSet<Transaction> resultSet =
-                     index.retrieve(
-                             equal(TransactionIndex.OWNERS, address),
-                             queryOptions(
-                                     orderBy(ascending(TransactionIndex.TIMESTAMP))))) {
-            if (limit > TRANSACTIONS_COUNT_LIMIT_MAX) {
-                limit = TRANSACTIONS_COUNT_LIMIT_MAX;
-            }
-            return ImmutableList.copyOf(Streams.stream(resultSet).skip(offset).limit(limit).iterator());
-        }
+        return getTransactions(address, Direction.FROM, offset, limit);
     }
 
     public List<Transaction> getTransactionsToThis(String address, long offset, long limit) {
+        return getTransactions(address, Direction.TO, offset, limit);
+    }
+
+    private List<Transaction> getTransactions(String address, Direction direction, long offset,
+            long limit) {
         if (StringUtils.isEmpty(address)) {
             logger.info("address is empty");
             return Lists.newArrayList();
         }
-        Index.Iface<Transaction> index = indexHelper.getTransactionIndex();
-        try (ResultSet<Transaction> resultSet =
-                     index.retrieve(
-                             equal(TransactionIndex.TOS, address),
-                             queryOptions(
-                                     orderBy(ascending(TransactionIndex.TIMESTAMP))))) {
-            if (limit > TRANSACTIONS_COUNT_LIMIT_MAX) {
-                limit = TRANSACTIONS_COUNT_LIMIT_MAX;
-            }
-            return ImmutableList.copyOf(Streams.stream(resultSet).skip(offset).limit(limit).iterator());
+        if (limit > TRANSACTIONS_COUNT_LIMIT_MAX) {
+            limit = TRANSACTIONS_COUNT_LIMIT_MAX;
         }
+        return addressIndexStore
+                .getTransactionIds(ByteArray.fromHexString(address), direction, offset, limit,
+                        false)
+                .stream()
+                .map(transactionStore::getUnchecked)
+                .filter(Objects::nonNull)
+                .map(TransactionWrapper::getInstance)
+                .collect(ImmutableList.toImmutableList());
     }
 
     /*******************************************************************************
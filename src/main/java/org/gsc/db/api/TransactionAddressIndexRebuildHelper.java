@@ -0,0 +1,75 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db.api;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gsc.core.wrapper.BlockWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.Manager;
+import org.gsc.db.TransactionAddressIndexStore;
+
+/**
+ * Writes the address index entries of every transaction in the block store, for a database
+ * created before the index existed or whose index was lost. Writing an entry again is harmless,
+ * so the index is not cleared first.
+ */
+@Slf4j(topic = "DB")
+public class TransactionAddressIndexRebuildHelper {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private Manager dbManager;
+
+    public TransactionAddressIndexRebuildHelper(Manager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public void doWork() {
+        long start = System.currentTimeMillis();
+        logger.info("Start rebuilding the transaction address index");
+        long count = rebuild();
+        logger.info("Complete the transaction address index rebuild,Total transactions：{},"
+                + "Total time：{} milliseconds", count, System.currentTimeMillis() - start);
+    }
+
+    public long rebuild() {
+        TransactionAddressIndexStore addressIndexStore =
+                dbManager.getTransactionAddressIndexStore();
+        long latestBlockHeaderNumber =
+                dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+        long count = 0;
+        long blockNum = 1;
+        while (blockNum <= latestBlockHeaderNumber) {
+            List<BlockWrapper> blocks = dbManager.getBlockStore()
+                    .getLimitNumber(blockNum, BATCH_SIZE);
+            if (blocks.isEmpty()) {
+                break;
+            }
+            for (BlockWrapper block : blocks) {
+                int index = 0;
+                for (TransactionWrapper transaction : block.getTransactions()) {
+                    transaction.setBlockNum(block.getNum());
+                    transaction.setBlockIndex(index++);
+                    addressIndexStore.put(transaction);
+                    count++;
+                }
+                blockNum = block.getNum() + 1;
+            }
+            logger.info("The number of block that have processed：{}", blockNum - 1);
+        }
+        return count;
+    }
+}
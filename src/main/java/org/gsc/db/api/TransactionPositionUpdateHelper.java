@@ -0,0 +1,80 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db.api;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gsc.core.wrapper.BlockWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.Manager;
+import org.gsc.db.TransactionStore;
+
+/**
+ * Rewrites legacy transaction store entries, which only record the block number, with the
+ * position of the transaction in its block. The transaction_result_store is keyed by block
+ * number and keeps the results in block order, so it needs no rewrite.
+ */
+@Slf4j(topic = "DB")
+public class TransactionPositionUpdateHelper {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private Manager dbManager;
+
+    public TransactionPositionUpdateHelper(Manager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public void doWork() {
+        long start = System.currentTimeMillis();
+        logger.info("Start updating the transaction position");
+        long count = updateTransaction();
+        finish();
+        logger.info("Complete the transaction position update,Total transactions：{},"
+                + "Total time：{} milliseconds", count, System.currentTimeMillis() - start);
+    }
+
+    public long updateTransaction() {
+        TransactionStore transactionStore = dbManager.getTransactionStore();
+        long latestBlockHeaderNumber =
+                dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+        long count = 0;
+        long blockNum = 1;
+        while (blockNum <= latestBlockHeaderNumber) {
+            List<BlockWrapper> blocks = dbManager.getBlockStore()
+                    .getLimitNumber(blockNum, BATCH_SIZE);
+            if (blocks.isEmpty()) {
+                break;
+            }
+            for (BlockWrapper block : blocks) {
+                int index = 0;
+                for (TransactionWrapper transaction : block.getTransactions()) {
+                    if (transactionStore.updatePosition(
+                            transaction.getTransactionId().getBytes(), block.getNum(), index)) {
+                        count++;
+                    }
+                    index++;
+                }
+                blockNum = block.getNum() + 1;
+            }
+            logger.info("The number of block that have processed：{}", blockNum - 1);
+        }
+        return count;
+    }
+
+    public void finish() {
+        dbManager.getDynamicPropertiesStore().saveTransactionPositionUpdateDone(1);
+    }
+}
@@ -0,0 +1,352 @@
+package org.gsc.db.db2.common;
+
+import com.google.common.collect.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A {@link DB} for snapshot layers which keeps its rows in one byte arena indexed by an
+ * open-addressing table of ints. A layer then holds a few arrays instead of a map node, a key,
+ * a value and their byte arrays per row. Keys and values are copied in on put and out on get,
+ * so it behaves exactly like {@link HashDB}.
+ *
+ * <p>Writes are serialized by a lock. Reads, e.g. from API threads while a block is applied, take
+ * no lock: they load the current {@link Table} once and check afterwards that no write ran in the
+ * meantime, otherwise they read again under the lock. Resizing and compaction never change a
+ * published table, they publish a new one.
+ */
+public class ArenaHashDB implements DB<Key, Value> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ARENA_SIZE = 1024;
+    private static final int MIN_COMPACT_SIZE = 64 * 1024;
+    private static final int EMPTY = -1;
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * The arrays of a table are replaced together: a reader never pairs the offsets of one table
+     * with the mask or the arena of another.
+     */
+    private static final class Table {
+
+        // slot -> offset of its row in the arena, EMPTY if free
+        private final int[] offsets;
+        // slot -> hash of its key
+        private final int[] hashes;
+        private final int mask;
+        // row: key length (int), key, operator (byte), value length (int, NULL_LENGTH for null),
+        // value. Rows are only appended, a published row never changes.
+        private final byte[] arena;
+
+        private Table(int[] offsets, int[] hashes, byte[] arena) {
+            this.offsets = offsets;
+            this.hashes = hashes;
+            this.mask = offsets.length - 1;
+            this.arena = arena;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+
+    private volatile Table table;
+    private volatile int size;
+
+    // guarded by the write lock
+    private int arenaSize;
+    // bytes taken by rows that were overwritten or removed, guarded by the write lock
+    private int garbage;
+
+    public ArenaHashDB() {
+        int[] offsets = new int[INITIAL_CAPACITY];
+        Arrays.fill(offsets, EMPTY);
+        table = new Table(offsets, new int[INITIAL_CAPACITY], new byte[INITIAL_ARENA_SIZE]);
+    }
+
+    @Override
+    public Value get(Key key) {
+        byte[] k = key.rawBytes();
+        int hash = hash(k);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Value value = get(table, k, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // a write changed the slots under the read, the stamp is invalid too
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return get(table, k, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void put(Key key, Value value) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            if ((size + 1) * 2 > t.offsets.length) {
+                t = resize(t, t.offsets.length << 1);
+            }
+
+            byte[] k = key.rawBytes();
+            int hash = hash(k);
+            int slot = hash & t.mask;
+            while (t.offsets[slot] != EMPTY) {
+                if (t.hashes[slot] == hash && keyEquals(t, t.offsets[slot], k)) {
+                    garbage += rowLength(t.arena, t.offsets[slot]);
+                    int offset = arenaSize;
+                    t = append(t, k, value);
+                    t.offsets[slot] = offset;
+                    compactIfNeeded(t);
+                    return;
+                }
+                slot = (slot + 1) & t.mask;
+            }
+
+            int offset = arenaSize;
+            t = append(t, k, value);
+            t.hashes[slot] = hash;
+            t.offsets[slot] = offset;
+            ++size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void remove(Key key) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            byte[] k = key.rawBytes();
+            int slot = find(t, k, hash(k));
+            if (slot == EMPTY) {
+                return;
+            }
+
+            garbage += rowLength(t.arena, t.offsets[slot]);
+            delete(t, slot);
+            compactIfNeeded(t);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * the rows are copied out under the read lock, later writes do not show in the iterator.
+     */
+    @Override
+    public Iterator<Map.Entry<Key, Value>> iterator() {
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            List<Map.Entry<Key, Value>> entries = new ArrayList<>(size);
+            for (int offset : t.offsets) {
+                if (offset != EMPTY) {
+                    entries.add(Maps.immutableEntry(readKey(t.arena, offset),
+                            readValue(t.arena, offset)));
+                }
+            }
+            return entries.iterator();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Value get(Table t, byte[] key, int hash) {
+        int slot = find(t, key, hash);
+        return slot == EMPTY ? null : readValue(t.arena, t.offsets[slot]);
+    }
+
+    /**
+     * probes at most every slot once, so a read racing a write cannot loop forever.
+     */
+    private static int find(Table t, byte[] key, int hash) {
+        int slot = hash & t.mask;
+        for (int i = 0; i < t.offsets.length && t.offsets[slot] != EMPTY; i++) {
+            if (t.hashes[slot] == hash && keyEquals(t, t.offsets[slot], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        return EMPTY;
+    }
+
+    private static boolean keyEquals(Table t, int offset, byte[] key) {
+        if (readInt(t.arena, offset) != key.length) {
+            return false;
+        }
+
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < key.length; i++) {
+            if (t.arena[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Key readKey(byte[] arena, int offset) {
+        int length = readInt(arena, offset);
+        int start = offset + Integer.BYTES;
+        return Key.of(Arrays.copyOfRange(arena, start, start + length));
+    }
+
+    private static Value readValue(byte[] arena, int offset) {
+        int operatorOffset = offset + Integer.BYTES + readInt(arena, offset);
+        Value.Operator operator = Value.Operator.valueOf(arena[operatorOffset]);
+        int length = readInt(arena, operatorOffset + 1);
+        if (length == NULL_LENGTH) {
+            return Value.of(operator, null);
+        }
+
+        int start = operatorOffset + 1 + Integer.BYTES;
+        return Value.of(operator, Arrays.copyOfRange(arena, start, start + length));
+    }
+
+    private static int rowLength(byte[] bytes, int offset) {
+        int keyLength = readInt(bytes, offset);
+        int valueLength = readInt(bytes, offset + Integer.BYTES + keyLength + 1);
+        return 2 * Integer.BYTES + keyLength + 1 + Math.max(valueLength, 0);
+    }
+
+    /**
+     * writes the row at arenaSize, in a larger arena published with a new table if it does not
+     * fit. The caller points a slot at the row afterwards.
+     */
+    private Table append(Table t, byte[] key, Value value) {
+        byte[] v = value.rawBytes();
+        int length = 2 * Integer.BYTES + key.length + 1 + (v == null ? 0 : v.length);
+        byte[] arena = t.arena;
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length << 1, arenaSize + length));
+        }
+
+        writeInt(arena, arenaSize, key.length);
+        arenaSize += Integer.BYTES;
+        System.arraycopy(key, 0, arena, arenaSize, key.length);
+        arenaSize += key.length;
+        arena[arenaSize++] = value.getOperator().getValue();
+        writeInt(arena, arenaSize, v == null ? NULL_LENGTH : v.length);
+        arenaSize += Integer.BYTES;
+        if (v != null) {
+            System.arraycopy(v, 0, arena, arenaSize, v.length);
+            arenaSize += v.length;
+        }
+
+        if (arena != t.arena) {
+            t = new Table(t.offsets, t.hashes, arena);
+            table = t;
+        }
+        return t;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * backward shift deletion, keeps probe sequences without tombstones.
+     */
+    private void delete(Table t, int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & t.mask;
+            if (t.offsets[next] == EMPTY) {
+                break;
+            }
+            int home = t.hashes[next] & t.mask;
+            boolean movable = hole <= next
+                    ? (home <= hole || home > next)
+                    : (home <= hole && home > next);
+            if (movable) {
+                t.hashes[hole] = t.hashes[next];
+                t.offsets[hole] = t.offsets[next];
+                hole = next;
+            }
+        }
+        t.offsets[hole] = EMPTY;
+        --size;
+    }
+
+    private Table resize(Table old, int capacity) {
+        int[] offsets = new int[capacity];
+        Arrays.fill(offsets, EMPTY);
+        int[] hashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < old.offsets.length; i++) {
+            if (old.offsets[i] != EMPTY) {
+                int slot = old.hashes[i] & mask;
+                while (offsets[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                offsets[slot] = old.offsets[i];
+                hashes[slot] = old.hashes[i];
+            }
+        }
+
+        Table t = new Table(offsets, hashes, old.arena);
+        table = t;
+        return t;
+    }
+
+    /**
+     * copy the live rows into a new arena once most of it is garbage. The offsets are rewritten in
+     * a copy, readers of the old table keep a consistent view until the new one is published.
+     */
+    private void compactIfNeeded(Table old) {
+        if (arenaSize < MIN_COMPACT_SIZE || garbage * 2 < arenaSize) {
+            return;
+        }
+
+        byte[] arena = new byte[Math.max(INITIAL_ARENA_SIZE, (arenaSize - garbage) << 1)];
+        int[] offsets = old.offsets.clone();
+        arenaSize = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] != EMPTY) {
+                int length = rowLength(old.arena, offsets[i]);
+                System.arraycopy(old.arena, offsets[i], arena, arenaSize, length);
+                offsets[i] = arenaSize;
+                arenaSize += length;
+            }
+        }
+        garbage = 0;
+        table = new Table(offsets, old.hashes.clone(), arena);
+    }
+}
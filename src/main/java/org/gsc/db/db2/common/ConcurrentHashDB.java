@@ -1,5 +1,8 @@
 package org.gsc.db.db2.common;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,6 +42,7 @@ public class ConcurrentHashDB implements DB<byte[], BytesWrapper> {
 
     @Override
     public Iterator<Entry<byte[], BytesWrapper>> iterator() {
-        return null;
+        return Iterators.transform(db.entrySet().iterator(),
+                entry -> Maps.immutableEntry(entry.getKey().getBytes(), entry.getValue()));
     }
 }
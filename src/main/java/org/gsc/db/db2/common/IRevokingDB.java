@@ -1,5 +1,6 @@
 package org.gsc.db.db2.common;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,5 +34,8 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
     // for deferTransaction
     Set<byte[]> getValuesPrevious(byte[] key, long limit);
 
+    // for transaction address index
+    List<Map.Entry<byte[], byte[]>> prefixQuery(byte[] prefix, long limit, boolean reverse);
+
     Map<WrappedByteArray, WrappedByteArray> getAllValues();
 }
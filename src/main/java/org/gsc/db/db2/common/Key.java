@@ -30,4 +30,9 @@ public final class Key {
 
         return Arrays.copyOf(key, key.length);
     }
+
+    // without a copy, for the DBs of this package which copy it themselves
+    byte[] rawBytes() {
+        return data.getBytes();
+    }
 }
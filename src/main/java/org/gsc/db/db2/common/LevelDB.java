@@ -1,8 +1,5 @@
 package org.gsc.db.db2.common;
 
-import com.google.common.collect.Maps;
-
-import java.util.HashMap;
 import java.util.Map;
 
 import lombok.Getter;
@@ -56,10 +53,7 @@ public class LevelDB implements DB<byte[], byte[]>, Flusher {
 
     @Override
     public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-        Map<byte[], byte[]> rows = batch.entrySet().stream()
-                .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-                .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
-        db.updateByBatch(rows, writeOptions);
+        db.updateByBatch(batch.entrySet(), writeOptions);
 //    db.reOpen();
     }
 
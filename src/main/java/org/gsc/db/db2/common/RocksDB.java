@@ -1,9 +1,6 @@
 package org.gsc.db.db2.common;
 
-import com.google.common.collect.Maps;
-
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Map;
 
 import lombok.Getter;
@@ -58,10 +55,7 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
 
     @Override
     public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-        Map<byte[], byte[]> rows = batch.entrySet().stream()
-                .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-                .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
-        db.updateByBatch(rows, optionsWrapper);
+        db.updateByBatch(batch.entrySet(), optionsWrapper);
     }
 
     @Override
@@ -1,80 +1,194 @@
 package org.gsc.db.db2.common;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.primitives.Longs;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.NoSuchElementException;
 
 import lombok.extern.slf4j.Slf4j;
 import org.gsc.db.common.WrappedByteArray;
 
+/**
+ * Transaction id -> block number cache for the TaPoS window. Ids are kept in an open-addressing
+ * table of primitive longs, and a ring of per-block buckets remembers which ids every block
+ * added so the eldest block is dropped in O(its transactions) when the ring wraps around.
+ */
 @Slf4j(topic = "DB")
 public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
 
     // > 65_536(= 2^16) blocks, that is the number of the reference block
-    private final int BLOCK_COUNT = 70_000;
+    private static final int BLOCK_COUNT = 70_000;
+    // transaction id is a sha256 hash
+    private static final int KEY_LENGTH = 32;
+    private static final int KEY_LONGS = KEY_LENGTH / Long.BYTES;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final long EMPTY = Long.MIN_VALUE;
 
-    private Map<Key, Long> db = new WeakHashMap<>();
-    private Multimap<Long, Key> blockNumMap = ArrayListMultimap.create();
+    // linear probing table, slot i holds keys[i * KEY_LONGS, (i + 1) * KEY_LONGS) and values[i]
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    // bucket of block n is at n % BLOCK_COUNT
+    private long[] ringBlockNums;
+    private long[][] ringKeys;
+    private int[] ringSizes;
+    private long latestBlockNum;
+
+    public TxCacheDB() {
+        init();
+    }
+
+    private void init() {
+        keys = new long[INITIAL_CAPACITY * KEY_LONGS];
+        values = new long[INITIAL_CAPACITY];
+        Arrays.fill(values, EMPTY);
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+        ringBlockNums = new long[BLOCK_COUNT];
+        Arrays.fill(ringBlockNums, -1);
+        ringKeys = new long[BLOCK_COUNT][];
+        ringSizes = new int[BLOCK_COUNT];
+        latestBlockNum = -1;
+    }
 
     @Override
-    public byte[] get(byte[] key) {
-        Long v = db.get(Key.of(key));
-        return v == null ? null : Longs.toByteArray(v);
+    public synchronized byte[] get(byte[] key) {
+        if (key == null || key.length != KEY_LENGTH) {
+            return null;
+        }
+        int slot = find(key, 0);
+        return slot < 0 ? null : Longs.toByteArray(values[slot]);
     }
 
     @Override
-    public void put(byte[] key, byte[] value) {
+    public synchronized void put(byte[] key, byte[] value) {
         if (key == null || value == null) {
             return;
         }
+        if (key.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("key length must be " + KEY_LENGTH);
+        }
 
-        Key k = Key.copyOf(key);
-        Long v = Longs.fromByteArray(value);
-        blockNumMap.put(v, k);
-        db.put(k, v);
-        removeEldest();
+        long blockNum = Longs.fromByteArray(value);
+        if (blockNum == EMPTY) {
+            throw new IllegalArgumentException("block number must not be " + EMPTY);
+        }
+        // a pending transaction has no block yet, Manager puts it with -1, it is dropped with the
+        // latest block
+        long windowBlockNum = blockNum < 0 ? Math.max(latestBlockNum, 0) : blockNum;
+        if (windowBlockNum > latestBlockNum) {
+            advance(windowBlockNum);
+        }
+        int ring = (int) (windowBlockNum % BLOCK_COUNT);
+        if (ringBlockNums[ring] != windowBlockNum) {
+            // older than the window
+            return;
+        }
+
+        long[] bucket = ringKeys[ring];
+        int offset = ringSizes[ring] * KEY_LONGS;
+        if (bucket == null || offset == bucket.length) {
+            bucket = Arrays.copyOf(bucket == null ? new long[0] : bucket,
+                    Math.max(KEY_LONGS * 4, offset * 2));
+            ringKeys[ring] = bucket;
+        }
+        for (int i = 0; i < KEY_LONGS; i++) {
+            bucket[offset + i] = readLong(key, i * Long.BYTES);
+        }
+        ringSizes[ring]++;
+
+        insert(bucket, offset, blockNum);
+    }
+
+    /**
+     * move the window to end at blockNum, dropping the blocks that fall out of it, including
+     * the ones which had no transaction put.
+     */
+    private void advance(long blockNum) {
+        long start = Math.max(latestBlockNum + 1, blockNum - BLOCK_COUNT + 1);
+        for (long n = Math.max(start, 0); n <= blockNum; n++) {
+            int ring = (int) (n % BLOCK_COUNT);
+            removeEldest(ring);
+            ringBlockNums[ring] = n;
+        }
+        latestBlockNum = blockNum;
     }
 
-    private void removeEldest() {
-        Set<Long> keys = blockNumMap.keySet();
-        if (keys.size() > BLOCK_COUNT) {
-            keys.stream()
-                    .min(Long::compareTo)
-                    .ifPresent(k -> {
-                        blockNumMap.removeAll(k);
-                        logger.debug("******removeEldest block number:{}, block count:{}", k, keys.size());
-                    });
+    private void removeEldest(int ring) {
+        long eldest = ringBlockNums[ring];
+        if (eldest < 0) {
+            return;
         }
+        long[] bucket = ringKeys[ring];
+        for (int i = 0; i < ringSizes[ring]; i++) {
+            int slot = find(bucket, i * KEY_LONGS);
+            // the id may have been put again with another block number
+            if (slot >= 0 && (values[slot] == eldest || values[slot] < 0)) {
+                delete(slot);
+            }
+        }
+        ringSizes[ring] = 0;
+        logger.debug("******removeEldest block number:{}", eldest);
     }
 
     @Override
-    public long size() {
-        return db.size();
+    public synchronized long size() {
+        return size;
     }
 
     @Override
-    public boolean isEmpty() {
-        return db.isEmpty();
+    public synchronized boolean isEmpty() {
+        return size == 0;
     }
 
     @Override
-    public void remove(byte[] key) {
-        if (key != null) {
-            db.remove(Key.of(key));
+    public synchronized void remove(byte[] key) {
+        if (key == null || key.length != KEY_LENGTH) {
+            return;
+        }
+        int slot = find(key, 0);
+        if (slot >= 0) {
+            delete(slot);
         }
     }
 
     @Override
-    public Iterator<Map.Entry<byte[], byte[]>> iterator() {
-        return Iterators.transform(db.entrySet().iterator(),
-                e -> Maps.immutableEntry(e.getKey().getBytes(), Longs.toByteArray(e.getValue())));
+    public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+        final long[] snapshotKeys = Arrays.copyOf(keys, keys.length);
+        final long[] snapshotValues = Arrays.copyOf(values, values.length);
+        return new Iterator<Map.Entry<byte[], byte[]>>() {
+            private int slot = nextSlot(0);
+
+            private int nextSlot(int from) {
+                int i = from;
+                while (i < snapshotValues.length && snapshotValues[i] == EMPTY) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < snapshotValues.length;
+            }
+
+            @Override
+            public Map.Entry<byte[], byte[]> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<byte[], byte[]> entry = Maps.immutableEntry(
+                        toBytes(snapshotKeys, slot * KEY_LONGS),
+                        Longs.toByteArray(snapshotValues[slot]));
+                slot = nextSlot(slot + 1);
+                return entry;
+            }
+        };
     }
 
     @Override
@@ -83,15 +197,119 @@ public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         reset();
-        db = null;
-        blockNumMap = null;
+        keys = null;
+        values = null;
+        ringKeys = null;
     }
 
     @Override
-    public void reset() {
-        db.clear();
-        blockNumMap.clear();
+    public synchronized void reset() {
+        init();
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return Longs.fromBytes(bytes[offset], bytes[offset + 1], bytes[offset + 2],
+                bytes[offset + 3], bytes[offset + 4], bytes[offset + 5], bytes[offset + 6],
+                bytes[offset + 7]);
+    }
+
+    private static byte[] toBytes(long[] source, int offset) {
+        byte[] bytes = new byte[KEY_LENGTH];
+        for (int i = 0; i < KEY_LONGS; i++) {
+            System.arraycopy(Longs.toByteArray(source[offset + i]), 0, bytes, i * Long.BYTES,
+                    Long.BYTES);
+        }
+        return bytes;
+    }
+
+    private int home(long firstLong) {
+        long h = firstLong * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int find(byte[] key, int offset) {
+        long k0 = readLong(key, offset);
+        long k1 = readLong(key, offset + Long.BYTES);
+        long k2 = readLong(key, offset + 2 * Long.BYTES);
+        long k3 = readLong(key, offset + 3 * Long.BYTES);
+        return find(k0, k1, k2, k3);
+    }
+
+    private int find(long[] key, int offset) {
+        return find(key[offset], key[offset + 1], key[offset + 2], key[offset + 3]);
+    }
+
+    private int find(long k0, long k1, long k2, long k3) {
+        int slot = home(k0);
+        while (values[slot] != EMPTY) {
+            int base = slot * KEY_LONGS;
+            if (keys[base] == k0 && keys[base + 1] == k1 && keys[base + 2] == k2
+                    && keys[base + 3] == k3) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long[] key, int offset, long value) {
+        if ((size + 1) * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        int slot = home(key[offset]);
+        while (values[slot] != EMPTY) {
+            int base = slot * KEY_LONGS;
+            if (keys[base] == key[offset] && keys[base + 1] == key[offset + 1]
+                    && keys[base + 2] == key[offset + 2] && keys[base + 3] == key[offset + 3]) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        System.arraycopy(key, offset, keys, slot * KEY_LONGS, KEY_LONGS);
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * backward shift deletion, keeps probe sequences without tombstones.
+     */
+    private void delete(int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == EMPTY) {
+                break;
+            }
+            int home = home(keys[next * KEY_LONGS]);
+            boolean movable = hole <= next
+                    ? (home <= hole || home > next)
+                    : (home <= hole && home > next);
+            if (movable) {
+                System.arraycopy(keys, next * KEY_LONGS, keys, hole * KEY_LONGS, KEY_LONGS);
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity * KEY_LONGS];
+        values = new long[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                insert(oldKeys, i * KEY_LONGS, oldValues[i]);
+            }
+        }
     }
 }
@@ -83,4 +83,9 @@ public final class Value {
 
         return Arrays.copyOf(value, value.length);
     }
+
+    // without a copy, for the DBs of this package which copy it themselves
+    byte[] rawBytes() {
+        return data.getBytes();
+    }
 }
@@ -0,0 +1,95 @@
+package org.gsc.db.db2.common;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gsc.core.wrapper.BytesWrapper;
+
+/**
+ * Buffers the writes to a backing db until {@link #flush}, reads see the buffered writes first.
+ * Rows written and removed again before the flush never reach the backing db. The buffer is a
+ * concurrent map, so several threads may write disjoint rows, e.g. while hashing a trie.
+ */
+public class WriteBufferDB implements DB<byte[], BytesWrapper> {
+
+    private static final BytesWrapper DELETED = new BytesWrapper(null);
+
+    private final DB<byte[], BytesWrapper> backing;
+
+    private final Map<Key, BytesWrapper> buffer = new ConcurrentHashMap<>();
+
+    public WriteBufferDB(DB<byte[], BytesWrapper> backing) {
+        this.backing = backing;
+    }
+
+    @Override
+    public BytesWrapper get(byte[] bytes) {
+        BytesWrapper value = buffer.get(Key.of(bytes));
+        if (value == null) {
+            return backing.get(bytes);
+        }
+        return value == DELETED ? null : value;
+    }
+
+    @Override
+    public void put(byte[] bytes, BytesWrapper bytes2) {
+        buffer.put(Key.copyOf(bytes), bytes2);
+    }
+
+    @Override
+    public long size() {
+        return backing.size() + buffer.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return buffer.isEmpty() && backing.isEmpty();
+    }
+
+    @Override
+    public void remove(byte[] bytes) {
+        buffer.put(Key.copyOf(bytes), DELETED);
+    }
+
+    /**
+     * writes the buffered rows into the backing db, call it when no other thread writes.
+     *
+     * @return the number of rows written or removed.
+     */
+    public int flush() {
+        int count = buffer.size();
+        buffer.forEach((key, value) -> {
+            if (value == DELETED) {
+                backing.remove(key.rawBytes());
+            } else {
+                backing.put(key.rawBytes(), value);
+            }
+        });
+        buffer.clear();
+        return count;
+    }
+
+    public void discard() {
+        buffer.clear();
+    }
+
+    /**
+     * the rows of the backing db with the buffered writes applied on top, the buffered rows come
+     * last. Like the buffer it is weakly consistent with writes made while iterating.
+     */
+    @Override
+    public Iterator<Entry<byte[], BytesWrapper>> iterator() {
+        Iterator<Entry<byte[], BytesWrapper>> backingRows = Iterators.filter(backing.iterator(),
+                entry -> !buffer.containsKey(Key.of(entry.getKey())));
+        Iterator<Entry<byte[], BytesWrapper>> bufferedRows = Iterators.transform(
+                Iterators.filter(buffer.entrySet().iterator(),
+                        entry -> entry.getValue() != DELETED),
+                entry -> Maps.immutableEntry(entry.getKey().getBytes(), entry.getValue()));
+        return Iterators.concat(backingRows, bufferedRows);
+    }
+}
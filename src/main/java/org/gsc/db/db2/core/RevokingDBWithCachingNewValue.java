@@ -2,14 +2,19 @@ package org.gsc.db.db2.core;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.primitives.UnsignedBytes;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -18,6 +23,7 @@ import org.gsc.config.args.Args;
 import org.gsc.db.common.WrappedByteArray;
 import org.gsc.db.db2.common.DB;
 import org.gsc.db.db2.common.IRevokingDB;
+import org.gsc.db.db2.common.Key;
 import org.gsc.db.db2.common.LevelDB;
 import org.gsc.db.db2.common.RocksDB;
 import org.gsc.db.db2.common.Value;
@@ -31,6 +37,9 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     @Getter
     private String dbName;
     private Class<? extends DB> clz;
+    // increased whenever values visible from head may change without a put, e.g. revoke
+    @Getter
+    private volatile long revision = 0;
 
     public RevokingDBWithCachingNewValue(String dbName, Class<? extends DB> clz) {
         this.dbName = dbName;
@@ -44,6 +53,14 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
         this.mode.set(mode);
     }
 
+    public boolean isFullNodeMode() {
+        return mode.get() == null || mode.get();
+    }
+
+    public void increaseRevision() {
+        ++revision;
+    }
+
     private Snapshot head() {
         if (mode.get() == null || mode.get()) {
             return head;
@@ -73,20 +90,35 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
         head().reset();
         head().close();
         head = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName, clz);
+        increaseRevision();
     }
 
     @Override
-    public synchronized void put(byte[] key, byte[] value) {
-        head().put(key, value);
+    public void put(byte[] key, byte[] value) {
+        SpeculativeState state = SpeculativeState.current();
+        if (state != null) {
+            state.put(this, key, value);
+            return;
+        }
+        synchronized (this) {
+            head().put(key, value);
+        }
     }
 
     @Override
-    public synchronized void delete(byte[] key) {
-        head().remove(key);
+    public void delete(byte[] key) {
+        SpeculativeState state = SpeculativeState.current();
+        if (state != null) {
+            state.delete(this, key);
+            return;
+        }
+        synchronized (this) {
+            head().remove(key);
+        }
     }
 
     @Override
-    public synchronized byte[] get(byte[] key) throws ItemNotFoundException {
+    public byte[] get(byte[] key) throws ItemNotFoundException {
         byte[] value = getUnchecked(key);
         if (value == null) {
             throw new ItemNotFoundException();
@@ -96,23 +128,46 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     }
 
     @Override
-    public synchronized byte[] getUnchecked(byte[] key) {
+    public byte[] getUnchecked(byte[] key) {
+        SpeculativeState state = SpeculativeState.current();
+        if (state != null) {
+            return state.get(this, key);
+        }
+        synchronized (this) {
+            return head().get(key);
+        }
+    }
+
+    /**
+     * read for a speculative execution, without the lock: the executor does not write the head
+     * snapshots while transactions execute ahead of their turn.
+     */
+    byte[] getFromHead(byte[] key) {
         return head().get(key);
     }
 
     @Override
-    public synchronized boolean has(byte[] key) {
+    public boolean has(byte[] key) {
         return getUnchecked(key) != null;
     }
 
     @Override
     public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+        markScanned();
         return head().iterator();
     }
 
+    private void markScanned() {
+        SpeculativeState state = SpeculativeState.current();
+        if (state != null) {
+            state.markScanned();
+        }
+    }
+
     //for blockstore
     @Override
     public Set<byte[]> getlatestValues(long limit) {
+        markScanned();
         return getlatestValues(head(), limit);
     }
 
@@ -186,11 +241,13 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 
     @Override
     public Set<byte[]> getValuesNext(byte[] key, long limit) {
+        markScanned();
         return getValuesNext(head(), key, limit);
     }
 
     @Override
     public Set<byte[]> getValuesPrevious(byte[] key, long limit) {
+        markScanned();
         Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
         if (head.getPrevious() != null) {
             ((SnapshotImpl) head).collect(collection);
@@ -221,7 +278,64 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
         return result.stream().limit(limit).collect(Collectors.toSet());
     }
 
+    /**
+     * merges the rows of the snapshots under the prefix into the first rows stored in the root,
+     * which only needs as many extra root rows as the snapshots delete.
+     */
+    @Override
+    public synchronized List<Map.Entry<byte[], byte[]>> prefixQuery(byte[] prefix, long limit,
+            boolean reverse) {
+        markScanned();
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Snapshot head = head();
+        Deque<SnapshotImpl> snapshots = new ArrayDeque<>();
+        for (Snapshot snapshot = head; snapshot.getPrevious() != null;
+                snapshot = snapshot.getPrevious()) {
+            snapshots.push((SnapshotImpl) snapshot);
+        }
+
+        // oldest first, so newer rows win, a null value is a delete
+        TreeMap<byte[], byte[]> rows = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        for (SnapshotImpl snapshot : snapshots) {
+            for (Map.Entry<Key, Value> e : snapshot.db) {
+                byte[] key = e.getKey().getBytes();
+                if (ByteUtil.startsWith(key, prefix)) {
+                    rows.put(key, e.getValue().getBytes());
+                }
+            }
+        }
+
+        long deleted = rows.values().stream().filter(Objects::isNull).count();
+        long rootLimit = limit > Long.MAX_VALUE - deleted ? Long.MAX_VALUE : limit + deleted;
+        List<Map.Entry<byte[], byte[]>> stored = Collections.emptyList();
+        DB<byte[], byte[]> root = ((SnapshotRoot) head.getRoot()).db;
+        if (root.getClass() == LevelDB.class) {
+            stored = ((LevelDB) root).getDb().prefixQuery(prefix, rootLimit, reverse);
+        } else if (root.getClass() == RocksDB.class) {
+            stored = ((RocksDB) root).getDb().prefixQuery(prefix, rootLimit, reverse);
+        }
+
+        TreeMap<byte[], byte[]> merged = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        stored.forEach(e -> merged.put(e.getKey(), e.getValue()));
+        rows.forEach((key, value) -> {
+            if (value == null) {
+                merged.remove(key);
+            } else {
+                merged.put(key, value);
+            }
+        });
+
+        return (reverse ? merged.descendingMap() : merged).entrySet().stream()
+                .limit(limit)
+                .map(e -> Maps.immutableEntry(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
     public Map<WrappedByteArray, WrappedByteArray> getAllValues() {
+        markScanned();
         Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
         if (head.getPrevious() != null) {
             ((SnapshotImpl) head).collect(collection);
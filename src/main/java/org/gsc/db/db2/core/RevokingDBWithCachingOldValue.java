@@ -2,6 +2,7 @@ package org.gsc.db.db2.core;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -141,6 +142,12 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    public List<Map.Entry<byte[], byte[]>> prefixQuery(byte[] prefix, long limit,
+            boolean reverse) {
+        return dbSource.prefixQuery(prefix, limit, reverse);
+    }
+
     public Map<WrappedByteArray, WrappedByteArray> getAllValues() {
         Map<WrappedByteArray, WrappedByteArray> result = new HashMap<>();
         dbSource.getAll().forEach((key, value) -> {
@@ -6,6 +6,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import lombok.Getter;
 import org.gsc.db.common.WrappedByteArray;
+import org.gsc.config.args.Args;
+import org.gsc.db.db2.common.ArenaHashDB;
 import org.gsc.db.db2.common.HashDB;
 import org.gsc.db.db2.common.Key;
 import org.gsc.db.db2.common.Value;
@@ -26,7 +28,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
         previous = snapshot;
         snapshot.setNext(this);
         synchronized (this) {
-            db = new HashDB();
+            db = Args.getInstance().isSnapshotArena() ? new ArenaHashDB() : new HashDB();
         }
 
     }
@@ -41,26 +43,50 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
         Preconditions.checkNotNull(key, "key in db is not null.");
         Preconditions.checkNotNull(value, "value in db is not null.");
 
-        db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+        if (db instanceof ArenaHashDB) {
+            // the arena copies the bytes itself
+            put(Key.of(key), Value.of(Value.Operator.PUT, value));
+        } else {
+            put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+        }
     }
 
     @Override
     public void remove(byte[] key) {
         Preconditions.checkNotNull(key, "key in db is not null.");
-        db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+        put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+    }
+
+    private void put(Key key, Value value) {
+        long size = db.size();
+        db.put(key, value);
+        if (db.size() > size) {
+            ((SnapshotRoot) root).addKey(key);
+        }
     }
 
     private byte[] get(Snapshot head, byte[] key) {
+        SnapshotRoot snapshotRoot = (SnapshotRoot) root;
+        if (!snapshotRoot.mightBeInSnapshots(key)) {
+            snapshotRoot.recordRead(0, true);
+            return snapshotRoot.get(key);
+        }
+
         Snapshot snapshot = head;
+        Key k = Key.of(key);
         Value value;
+        int levels = 0;
         while (Snapshot.isImpl(snapshot)) {
-            if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
+            ++levels;
+            if ((value = ((SnapshotImpl) snapshot).db.get(k)) != null) {
+                snapshotRoot.recordRead(levels, false);
                 return value.getBytes();
             }
 
             snapshot = snapshot.getPrevious();
         }
 
+        snapshotRoot.recordRead(levels, false);
         return snapshot == null ? null : snapshot.get(key);
     }
 
@@ -79,7 +105,9 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     @Override
     public void merge(Snapshot from) {
         SnapshotImpl fromImpl = (SnapshotImpl) from;
-        Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+        for (Map.Entry<Key, Value> e : fromImpl.db) {
+            put(e.getKey(), e.getValue());
+        }
     }
 
     // we have a 4x4 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -106,7 +134,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
                     Value v = e.getValue();
                     Value value = db.get(k);
                     if (value == null) {
-                        db.put(k, v);
+                        put(k, v);
                     } else if (value.getOperator() == Value.Operator.DELETE) {
                         db.put(k, Value.copyOf(Value.Operator.MODIFY, v.getBytes()));
                     } else {
@@ -121,7 +149,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
                     Value v = e.getValue();
                     Value value = db.get(k);
                     if (value == null || value.getOperator() == Value.Operator.MODIFY) {
-                        db.put(k, v);
+                        put(k, v);
                     } else if (value.getOperator() == Value.Operator.CREATE) {
                         db.put(k, Value.copyOf(Value.Operator.CREATE, v.getBytes()));
                     } else {
@@ -135,9 +163,10 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
                 .forEach(k -> {
                     Value value = db.get(k);
                     if (value == null || value.getOperator() == Value.Operator.MODIFY) {
-                        db.put(k, Value.of(Value.Operator.DELETE, null));
+                        put(k, Value.of(Value.Operator.DELETE, null));
                     } else if (value.getOperator() == Value.Operator.CREATE) {
                         db.remove(k);
+                        ((SnapshotRoot) root).removeKey(k);
                     } else {
                         throw new IllegalStateException();
                     }
@@ -146,6 +175,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
     @Override
     public Snapshot retreat() {
+        ((SnapshotRoot) root).removeKeys(this);
         return previous;
     }
 
@@ -0,0 +1,60 @@
+package org.gsc.db.db2.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counting filter over the keys held by the snapshots above a root. Every snapshot adds each of
+ * its keys once and removes them again when it leaves the chain, so a key whose counters are
+ * zero is not in any snapshot and reads may go straight to the root.
+ */
+public class SnapshotKeyFilter {
+
+    private static final int DEFAULT_BITS = 17;
+
+    private final AtomicIntegerArray counters;
+    private final int bits;
+    private final int mask;
+
+    public SnapshotKeyFilter() {
+        this(DEFAULT_BITS);
+    }
+
+    public SnapshotKeyFilter(int bits) {
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.counters = new AtomicIntegerArray(1 << bits);
+    }
+
+    public void add(byte[] key) {
+        long h = hash(key);
+        counters.incrementAndGet(first(h));
+        counters.incrementAndGet(second(h));
+    }
+
+    public void remove(byte[] key) {
+        long h = hash(key);
+        counters.decrementAndGet(first(h));
+        counters.decrementAndGet(second(h));
+    }
+
+    /**
+     * false means no snapshot holds the key, true means it may.
+     */
+    public boolean mightContain(byte[] key) {
+        long h = hash(key);
+        return counters.get(first(h)) > 0 && counters.get(second(h)) > 0;
+    }
+
+    private static long hash(byte[] key) {
+        return Arrays.hashCode(key) * 0x9E3779B97F4A7C15L;
+    }
+
+    private int first(long h) {
+        return (int) (h >>> (Long.SIZE - bits)) & mask;
+    }
+
+    private int second(long h) {
+        return (int) (h >>> 20) & mask;
+    }
+}
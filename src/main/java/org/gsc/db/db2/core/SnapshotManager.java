@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -30,9 +31,7 @@ import org.gsc.config.args.Args;
 import org.gsc.db.CheckTmpStore;
 import org.gsc.db.RevokingDatabase;
 import org.gsc.db.common.WrappedByteArray;
-import org.gsc.db.db2.common.DB;
 import org.gsc.db.db2.common.IRevokingDB;
-import org.gsc.db.db2.common.Key;
 import org.gsc.db.db2.common.Value;
 import org.gsc.core.exception.RevokingStoreIllegalStateException;
 
@@ -60,6 +59,10 @@ public class SnapshotManager implements RevokingDatabase {
 
     private Map<String, ListeningExecutorService> flushServices = new HashMap<>();
 
+    // per store flush cost and bytes written
+    @Getter
+    private Map<String, FlushStats> flushStats = new ConcurrentHashMap<>();
+
     @Autowired
     @Setter
     @Getter
@@ -150,6 +153,7 @@ public class SnapshotManager implements RevokingDatabase {
 
         try {
             retreat();
+            dbs.forEach(RevokingDBWithCachingNewValue::increaseRevision);
         } finally {
             disabled = false;
         }
@@ -177,6 +181,7 @@ public class SnapshotManager implements RevokingDatabase {
 
         try {
             retreat();
+            dbs.forEach(RevokingDBWithCachingNewValue::increaseRevision);
         } finally {
             disabled = false;
         }
@@ -238,10 +243,40 @@ public class SnapshotManager implements RevokingDatabase {
         return flushCount >= maxFlushCount;
     }
 
-    private void refresh() {
-        List<ListenableFuture<?>> futures = new ArrayList<>(dbs.size());
+    /**
+     * every store builds the batch of its oldest flushCount snapshots on its own flush thread,
+     * while the caller replaces the checkpoint with them. The stores are written only after the
+     * checkpoint, so a crash in between is recovered by check().
+     */
+    private List<FlushTask> prepare() {
+        List<FlushTask> tasks = new ArrayList<>(dbs.size());
+        if (flushCount <= 0) {
+            return tasks;
+        }
+
         for (RevokingDBWithCachingNewValue db : dbs) {
-            futures.add(flushServices.get(db.getDbName()).submit(() -> refreshOne(db)));
+            if (Snapshot.isRoot(db.getHead())) {
+                continue;
+            }
+
+            List<Snapshot> snapshots = new ArrayList<>(flushCount);
+            Snapshot next = db.getHead().getRoot();
+            for (int i = 0; i < flushCount; ++i) {
+                next = next.getNext();
+                snapshots.add(next);
+            }
+
+            FlushTask task = new FlushTask(db, snapshots);
+            task.batch = flushServices.get(db.getDbName()).submit(task::build);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private void refresh(List<FlushTask> tasks) {
+        List<ListenableFuture<?>> futures = new ArrayList<>(tasks.size());
+        for (FlushTask task : tasks) {
+            futures.add(flushServices.get(task.db.getDbName()).submit(() -> refreshOne(task)));
         }
         Future<?> future = Futures.allAsList(futures);
         try {
@@ -253,29 +288,23 @@ public class SnapshotManager implements RevokingDatabase {
         }
     }
 
-    private void refreshOne(RevokingDBWithCachingNewValue db) {
-        if (Snapshot.isRoot(db.getHead())) {
-            return;
-        }
-
-        List<Snapshot> snapshots = new ArrayList<>();
-
+    private void refreshOne(FlushTask task) {
+        long start = System.currentTimeMillis();
+        RevokingDBWithCachingNewValue db = task.db;
         SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
-        Snapshot next = root;
-        for (int i = 0; i < flushCount; ++i) {
-            next = next.getNext();
-            snapshots.add(next);
-        }
-
-        root.merge(snapshots);
+        root.flush(task.getBatch(), task.snapshots);
 
         root.resetConfirmed();
+        Snapshot next = task.snapshots.get(task.snapshots.size() - 1);
         if (db.getHead() == next) {
             db.setHead(root);
         } else {
             next.getNext().setPrevious(root);
             root.setNext(next.getNext());
         }
+
+        flushStats.computeIfAbsent(db.getDbName(), k -> new FlushStats())
+                .record(task.buildCost + System.currentTimeMillis() - start, task.bytes);
     }
 
     public void flush() {
@@ -285,48 +314,62 @@ public class SnapshotManager implements RevokingDatabase {
 
         if (shouldBeRefreshed()) {
             long start = System.currentTimeMillis();
+            List<FlushTask> tasks = prepare();
             deleteCheckPoint();
-            createCheckPoint();
+            createCheckPoint(tasks);
             long checkPointEnd = System.currentTimeMillis();
-            refresh();
+            refresh(tasks);
             flushCount = 0;
-            logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
+            logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}, bytes:{}",
                     System.currentTimeMillis() - start,
                     checkPointEnd - start,
-                    System.currentTimeMillis() - checkPointEnd
+                    System.currentTimeMillis() - checkPointEnd,
+                    tasks.stream().mapToLong(task -> task.bytes).sum()
             );
+            if (logger.isDebugEnabled()) {
+                logReadStats();
+                tasks.forEach(task -> logger.debug("{} flush {}",
+                        task.db.getDbName(), flushStats.get(task.db.getDbName())));
+            }
         }
     }
 
-    private void createCheckPoint() {
-        Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+    private void logReadStats() {
         for (RevokingDBWithCachingNewValue db : dbs) {
-            Snapshot head = db.getHead();
-            if (Snapshot.isRoot(head)) {
-                return;
+            long[] stats = ((SnapshotRoot) db.getHead().getRoot()).drainReadStats();
+            if (stats[0] > 0) {
+                logger.debug("{} reads:{}, snapshots per read:{}, filtered:{}", db.getDbName(),
+                        stats[0], String.format("%.2f", (double) stats[1] / stats[0]), stats[2]);
             }
+        }
+    }
 
-            String dbName = db.getDbName();
-            Snapshot next = head.getRoot();
-            for (int i = 0; i < flushCount; ++i) {
-                next = next.getNext();
-                SnapshotImpl snapshot = (SnapshotImpl) next;
-                DB<Key, Value> keyValueDB = snapshot.getDb();
-                for (Map.Entry<Key, Value> e : keyValueDB) {
-                    Key k = e.getKey();
-                    Value v = e.getValue();
-                    batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-                            WrappedByteArray.of(v.encode()));
-                }
+    private void createCheckPoint(List<FlushTask> tasks) {
+        Map<byte[], byte[]> batch = new HashMap<>();
+        // the batches are deduplicated per store and the prefixes differ, so the keys are unique
+        for (FlushTask task : tasks) {
+            byte[] prefix = simpleEncode(task.db.getDbName());
+            for (Map.Entry<WrappedByteArray, WrappedByteArray> e : task.getBatch().entrySet()) {
+                batch.put(Bytes.concat(prefix, e.getKey().getBytes()),
+                        encodeCheckPointValue(e.getValue().getBytes()));
             }
         }
 
-        checkTmpStore.getDbSource().updateByBatch(batch.entrySet().stream()
-                        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-                        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
+        checkTmpStore.getDbSource().updateByBatch(batch,
                 WriteOptionsWrapper.getInstance().sync(Args.getInstance().getStorage().isDbSync()));
     }
 
+    private static byte[] encodeCheckPointValue(byte[] value) {
+        if (value == null) {
+            return new byte[]{Value.Operator.DELETE.getValue()};
+        }
+
+        byte[] r = new byte[1 + value.length];
+        r[0] = Value.Operator.PUT.getValue();
+        System.arraycopy(value, 0, r, 1, value.length);
+        return r;
+    }
+
     private void deleteCheckPoint() {
         Map<byte[], byte[]> hmap = new HashMap<byte[], byte[]>();
         if (!checkTmpStore.getDbSource().allKeys().isEmpty()) {
@@ -373,6 +416,7 @@ public class SnapshotManager implements RevokingDatabase {
 
             dbs.forEach(db -> db.getHead().getRoot().merge(db.getHead()));
             retreat();
+            dbs.forEach(RevokingDBWithCachingNewValue::increaseRevision);
         }
 
         unChecked = false;
@@ -394,6 +438,71 @@ public class SnapshotManager implements RevokingDatabase {
         return new String(value);
     }
 
+    private static class FlushTask {
+
+        private final RevokingDBWithCachingNewValue db;
+        private final List<Snapshot> snapshots;
+        private ListenableFuture<Map<WrappedByteArray, WrappedByteArray>> batch;
+        private long buildCost;
+        private long bytes;
+
+        FlushTask(RevokingDBWithCachingNewValue db, List<Snapshot> snapshots) {
+            this.db = db;
+            this.snapshots = snapshots;
+        }
+
+        private Map<WrappedByteArray, WrappedByteArray> build() {
+            long start = System.currentTimeMillis();
+            Map<WrappedByteArray, WrappedByteArray> rows = SnapshotRoot.buildBatch(snapshots);
+            long size = 0;
+            for (Map.Entry<WrappedByteArray, WrappedByteArray> e : rows.entrySet()) {
+                size += e.getKey().getBytes().length;
+                if (e.getValue().getBytes() != null) {
+                    size += e.getValue().getBytes().length;
+                }
+            }
+            bytes = size;
+            buildCost = System.currentTimeMillis() - start;
+            return rows;
+        }
+
+        private Map<WrappedByteArray, WrappedByteArray> getBatch() {
+            try {
+                return batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RevokingStoreIllegalStateException("flush interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RevokingStoreIllegalStateException(
+                        "build flush batch of " + db.getDbName() + " failed", e.getCause());
+            }
+        }
+    }
+
+    @Getter
+    public static class FlushStats {
+
+        private long count;
+        private long totalCost;
+        private long totalBytes;
+        private long lastCost;
+        private long lastBytes;
+
+        synchronized void record(long cost, long bytes) {
+            ++count;
+            totalCost += cost;
+            totalBytes += bytes;
+            lastCost = cost;
+            lastBytes = bytes;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "count:" + count + ", last cost:" + lastCost + ", last bytes:" + lastBytes
+                    + ", total cost:" + totalCost + ", total bytes:" + totalBytes;
+        }
+    }
+
     @Slf4j(topic = "DB")
     @Getter // only for unit test
     public static class Session implements ISession {
@@ -9,21 +9,34 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
+import org.gsc.config.args.Args;
 import org.gsc.db.common.WrappedByteArray;
 import org.gsc.db.db2.common.DB;
 import org.gsc.db.db2.common.Flusher;
+import org.gsc.db.db2.common.Key;
 import org.gsc.db.db2.common.LevelDB;
 import org.gsc.db.db2.common.RocksDB;
 import org.gsc.db.db2.common.TxCacheDB;
+import org.gsc.db.db2.common.Value;
 
 public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
     @Getter
     private Snapshot confirmed;
 
+    // null when storage.snapshotKeyFilter is off
+    @Getter
+    private SnapshotKeyFilter keyFilter;
+
+    // reads served by the snapshots above this root, and how many snapshots they looked at
+    private final LongAdder readCount = new LongAdder();
+    private final LongAdder levelCount = new LongAdder();
+    private final LongAdder filteredCount = new LongAdder();
+
     public SnapshotRoot(String parentName, String name, Class<? extends DB> clz) {
         try {
             if (clz == LevelDB.class || clz == RocksDB.class) {
@@ -44,6 +57,48 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
         }
 
         confirmed = this;
+        if (Args.getInstance().isSnapshotKeyFilter()) {
+            keyFilter = new SnapshotKeyFilter();
+        }
+    }
+
+    public boolean mightBeInSnapshots(byte[] key) {
+        return keyFilter == null || keyFilter.mightContain(key);
+    }
+
+    void recordRead(int levels, boolean filtered) {
+        readCount.increment();
+        levelCount.add(levels);
+        if (filtered) {
+            filteredCount.increment();
+        }
+    }
+
+    /**
+     * @return reads, snapshots traversed by them, and reads the key filter sent straight to the
+     * root, all counted since the last call.
+     */
+    public long[] drainReadStats() {
+        return new long[]{readCount.sumThenReset(), levelCount.sumThenReset(),
+                filteredCount.sumThenReset()};
+    }
+
+    void addKey(Key key) {
+        if (keyFilter != null) {
+            keyFilter.add(key.getBytes());
+        }
+    }
+
+    void removeKey(Key key) {
+        if (keyFilter != null) {
+            keyFilter.remove(key.getBytes());
+        }
+    }
+
+    void removeKeys(SnapshotImpl snapshot) {
+        if (keyFilter != null) {
+            snapshot.db.forEach(e -> keyFilter.remove(e.getKey().getBytes()));
+        }
     }
 
     @Override
@@ -72,16 +127,32 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     }
 
     public void merge(List<Snapshot> snapshots) {
-        Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+        flush(buildBatch(snapshots), snapshots);
+    }
+
+    /**
+     * collect the rows of the snapshots, oldest first, so later snapshots win.
+     */
+    public static Map<WrappedByteArray, WrappedByteArray> buildBatch(List<Snapshot> snapshots) {
+        long size = 0;
+        for (Snapshot snapshot : snapshots) {
+            size += ((SnapshotImpl) snapshot).db.size();
+        }
+
+        Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>((int) (size / 0.75) + 1);
         for (Snapshot snapshot : snapshots) {
-            SnapshotImpl from = (SnapshotImpl) snapshot;
-            Streams.stream(from.db)
-                    .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-                            WrappedByteArray.of(e.getValue().getBytes())))
-                    .forEach(e -> batch.put(e.getKey(), e.getValue()));
+            for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+                batch.put(WrappedByteArray.of(e.getKey().getBytes()),
+                        WrappedByteArray.of(e.getValue().getBytes()));
+            }
         }
+        return batch;
+    }
 
+    public void flush(Map<WrappedByteArray, WrappedByteArray> batch, List<Snapshot> snapshots) {
         ((Flusher) db).flush(batch);
+        // the caller unlinks the flushed snapshots right after this
+        snapshots.forEach(snapshot -> removeKeys((SnapshotImpl) snapshot));
     }
 
     @Override
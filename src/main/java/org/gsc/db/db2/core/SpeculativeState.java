@@ -0,0 +1,159 @@
+package org.gsc.db.db2.core;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import lombok.Getter;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.db.db2.common.Value;
+
+/**
+ * State of a transaction executed ahead of its turn. While it runs on a thread, the revoking
+ * dbs read through it and write into it instead of the head snapshot:
+ * reads: the value seen for every key read from the head, a null value if it was absent.
+ * writes: the last put or delete of every key, in the order the keys were first written.
+ * deferred: work outside the dbs, e.g. account state trie updates, run on commit.
+ *
+ * <p>Execution is deterministic, so the speculative run is the serial one as long as every key
+ * it read still has the same value when its turn comes: {@link #isValid} checks that, then
+ * {@link #commit} writes the same rows the serial run would have written. Reads that scan a db
+ * can't be checked this way and invalidate the state.</p>
+ */
+public class SpeculativeState {
+
+    private static final ThreadLocal<SpeculativeState> CURRENT = new ThreadLocal<>();
+
+    private final Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> reads =
+            new HashMap<>();
+
+    private final Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, Value>> writes =
+            new LinkedHashMap<>();
+
+    private final List<Runnable> deferred = new ArrayList<>();
+
+    @Getter
+    private boolean scanned = false;
+
+    public static SpeculativeState current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * runs the work now, or on commit if the current thread executes speculatively.
+     */
+    public static void runOrDefer(Runnable work) {
+        SpeculativeState state = CURRENT.get();
+        if (state == null) {
+            work.run();
+        } else {
+            state.deferred.add(work);
+        }
+    }
+
+    /**
+     * runs the execution with this state installed on the current thread.
+     */
+    public <T> T run(Callable<T> execution) throws Exception {
+        CURRENT.set(this);
+        try {
+            return execution.call();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    byte[] get(RevokingDBWithCachingNewValue db, byte[] key) {
+        WrappedByteArray k = WrappedByteArray.of(key);
+        Map<WrappedByteArray, Value> written = writes.get(db);
+        if (written != null) {
+            Value value = written.get(k);
+            if (value != null) {
+                return value.getBytes();
+            }
+        }
+
+        Map<WrappedByteArray, byte[]> read = reads.computeIfAbsent(db, d -> new HashMap<>());
+        byte[] value;
+        if (read.containsKey(k)) {
+            value = read.get(k);
+        } else {
+            value = db.getFromHead(key);
+            read.put(WrappedByteArray.copyOf(key), value);
+        }
+        // the recorded value is checked on commit, callers get their own copy
+        return value == null ? null : value.clone();
+    }
+
+    void put(RevokingDBWithCachingNewValue db, byte[] key, byte[] value) {
+        Preconditions.checkNotNull(key, "key in db is not null.");
+        Preconditions.checkNotNull(value, "value in db is not null.");
+        writes.computeIfAbsent(db, d -> new LinkedHashMap<>())
+                .put(WrappedByteArray.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+    }
+
+    void delete(RevokingDBWithCachingNewValue db, byte[] key) {
+        Preconditions.checkNotNull(key, "key in db is not null.");
+        writes.computeIfAbsent(db, d -> new LinkedHashMap<>())
+                .put(WrappedByteArray.copyOf(key), Value.of(Value.Operator.DELETE, null));
+    }
+
+    void markScanned() {
+        scanned = true;
+    }
+
+    /**
+     * true if every key read still has the value it was read with, call it from the thread that
+     * owns the head snapshots.
+     */
+    public boolean isValid() {
+        if (scanned) {
+            return false;
+        }
+        for (Map.Entry<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> e
+                : reads.entrySet()) {
+            RevokingDBWithCachingNewValue db = e.getKey();
+            for (Map.Entry<WrappedByteArray, byte[]> read : e.getValue().entrySet()) {
+                if (!Arrays.equals(read.getValue(), db.getUnchecked(read.getKey().getBytes()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * writes the rows into the head snapshots and runs the deferred work.
+     */
+    public void commit() {
+        writes.forEach((db, rows) -> {
+            rows.forEach((key, value) -> {
+                if (value.getOperator() == Value.Operator.DELETE) {
+                    db.delete(key.getBytes());
+                } else {
+                    db.put(key.getBytes(), value.getBytes());
+                }
+            });
+            // values cached above the db, e.g. decoded properties, may be stale now
+            db.increaseRevision();
+        });
+        deferred.forEach(Runnable::run);
+    }
+
+    public int getReadCount() {
+        return reads.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public int getWriteCount() {
+        return writes.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db.dbsource;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.Getter;
+
+/**
+ * An open database shared by the calls of a data source. A call pins the handle in a counter
+ * picked by its thread instead of taking a lock, and closing waits until the calls which pinned
+ * it before are done.
+ */
+public final class DbHandle<T> {
+
+    // a counter per cache line
+    private static final int STRIDE = 8;
+    private static final int STRIPES =
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1;
+    private static final long PARK_NANOS = 10_000;
+
+    @Getter
+    private final T db;
+    // a thread always pins and unpins the same counter, so no counter goes below zero
+    private final AtomicLongArray pins = new AtomicLongArray(STRIPES * STRIDE);
+    private volatile boolean closed;
+
+    public DbHandle(T db) {
+        this.db = db;
+    }
+
+    /**
+     * @return false if the handle was closed, the database must not be used then.
+     */
+    public boolean pin() {
+        int index = index();
+        pins.incrementAndGet(index);
+        if (closed) {
+            pins.decrementAndGet(index);
+            return false;
+        }
+        return true;
+    }
+
+    public void unpin() {
+        pins.decrementAndGet(index());
+    }
+
+    /**
+     * after this returns nothing can pin the handle and nothing uses the database.
+     */
+    public void close() {
+        closed = true;
+        while (isPinned()) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private boolean isPinned() {
+        for (int i = 0; i < STRIPES; i++) {
+            if (pins.get(i * STRIDE) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int index() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+    }
+}
@@ -25,14 +25,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -46,12 +48,14 @@ import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.WriteOptions;
+import org.gsc.db.dbsource.DbHandle;
 import org.gsc.db.dbsource.DbSourceInter;
 import org.gsc.utils.ByteUtil;
 import org.gsc.db.dbsource.WriteOptionsWrapper;
 import org.gsc.utils.FileUtil;
 import org.gsc.utils.PropUtil;
 import org.gsc.config.args.Args;
+import org.gsc.db.common.WrappedByteArray;
 import org.gsc.db.common.iterator.StoreIterator;
 
 @Slf4j(topic = "DB")
@@ -62,10 +66,10 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     private static final String ENGINE = "ENGINE";
 
     private String dataBaseName;
-    private DB database;
-    private boolean alive;
+    private volatile DbHandle<DB> handle;
     private String parentName;
-    private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+    // only taken to open, close or reset the database, calls pin the handle instead
+    private final ReentrantLock resetDbLock = new ReentrantLock();
 
     /**
      * constructor.
@@ -106,7 +110,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
             logger.error("database engine do not match");
             throw new RuntimeException("Failed to initialize database");
         }
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
             logger.debug("~> LevelDbDataSourceImpl.initDB(): " + dataBaseName);
 
@@ -119,27 +123,32 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
             Options dbOptions = Args.getInstance().getStorage().getOptionsByDbName(dataBaseName);
 
             try {
-                openDatabase(dbOptions);
-                alive = true;
+                handle = new DbHandle<>(openDatabase(dbOptions));
             } catch (IOException ioe) {
                 throw new RuntimeException("Can't initialize database", ioe);
             }
+
+            logger.info("Open database {}, profile: {}, compression: {}, block size: {}, "
+                            + "cache size: {}, write buffer size: {}, max open files: {}",
+                    dataBaseName, Args.getInstance().getStorage().getProfileByDbName(dataBaseName),
+                    dbOptions.compressionType(), dbOptions.blockSize(), dbOptions.cacheSize(),
+                    dbOptions.writeBufferSize(), dbOptions.maxOpenFiles());
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
-    private void openDatabase(Options dbOptions) throws IOException {
+    private DB openDatabase(Options dbOptions) throws IOException {
         final Path dbPath = getDbPath();
         if (!Files.isSymbolicLink(dbPath.getParent())) {
             Files.createDirectories(dbPath.getParent());
         }
         try {
-            database = factory.open(dbPath.toFile(), dbOptions);
+            return factory.open(dbPath.toFile(), dbOptions);
         } catch (IOException e) {
             if (e.getMessage().contains("Corruption:")) {
                 factory.repair(dbPath.toFile(), dbOptions);
-                database = factory.open(dbPath.toFile(), dbOptions);
+                return factory.open(dbPath.toFile(), dbOptions);
             } else {
                 throw e;
             }
@@ -168,31 +177,57 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
      * reset database.
      */
     public void resetDb() {
-        closeDB();
-        FileUtil.recursiveDelete(getDbPath().toString());
-        initDB();
+        resetDbLock.lock();
+        try {
+            closeDB();
+            FileUtil.recursiveDelete(getDbPath().toString());
+            initDB();
+        } finally {
+            resetDbLock.unlock();
+        }
     }
 
     public void reOpen() {
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
             closeDB();
             initDB();
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
     @Override
     public boolean isAlive() {
-        return alive;
+        return handle != null;
+    }
+
+    /**
+     * pin the open database, waiting for a reset in progress to finish.
+     */
+    private DbHandle<DB> pin() {
+        DbHandle<DB> current = handle;
+        if (current != null && current.pin()) {
+            return current;
+        }
+
+        resetDbLock.lock();
+        try {
+            current = handle;
+            if (current == null || !current.pin()) {
+                throw new DBException("Closed");
+            }
+            return current;
+        } finally {
+            resetDbLock.unlock();
+        }
     }
 
     /**
      * destroy database.
      */
     public void destroyDb(File fileLocation) {
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
             logger.debug("Destroying existing database: " + fileLocation);
             Options options = new Options();
@@ -202,7 +237,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
                 logger.error(e.getMessage(), e);
             }
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
@@ -218,62 +253,66 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
     @Override
     public byte[] getData(byte[] key) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = null;
         try {
-            return database.get(key);
+            // a closed db throws here, it reads as missing like any other DBException
+            current = pin();
+            return current.getDb().get(key);
         } catch (DBException e) {
             logger.debug(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            if (current != null) {
+                current.unpin();
+            }
         }
         return null;
     }
 
     @Override
     public void putData(byte[] key, byte[] value) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
         try {
-            database.put(key, value);
+            current.getDb().put(key, value);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Override
     public void putData(byte[] key, byte[] value, WriteOptionsWrapper options) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
         try {
-            database.put(key, value, options.getLevel());
+            current.getDb().put(key, value, options.getLevel());
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Override
     public void deleteData(byte[] key) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
         try {
-            database.delete(key);
+            current.getDb().delete(key);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Override
     public void deleteData(byte[] key, WriteOptionsWrapper options) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
         try {
-            database.delete(key, options.getLevel());
+            current.getDb().delete(key, options.getLevel());
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Deprecated
     @Override
     public Set<byte[]> allKeys() {
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Set<byte[]> result = Sets.newHashSet();
             for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
                 result.add(iterator.peekNext().getKey());
@@ -282,15 +321,15 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Deprecated
     @Override
     public Set<byte[]> allValues() {
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Set<byte[]> result = Sets.newHashSet();
             for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
                 result.add(iterator.peekNext().getValue());
@@ -299,7 +338,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -307,8 +346,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
             iterator.seekToLast();
@@ -323,7 +362,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -331,8 +370,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
             for (iterator.seek(key); iterator.hasNext() && i++ < limit; iterator.next()) {
@@ -342,7 +381,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -350,8 +389,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Collections.emptyMap();
         }
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Map<byte[], byte[]> result = new HashMap<>();
             long i = 0;
             for (iterator.seek(key); iterator.hasNext() && i++ < limit; iterator.next()) {
@@ -362,7 +401,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -370,11 +409,12 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
-            byte[] data = getData(key);
+            // read through the pinned handle, pinning again would wait on a close in progress
+            byte[] data = current.getDb().get(key);
             if (Objects.nonNull(data)) {
                 result.add(data);
                 i++;
@@ -386,7 +426,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -394,8 +434,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0 || key.length < precision) {
             return Collections.emptyMap();
         }
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Map<byte[], byte[]> result = new HashMap<>();
             long i = 0;
             for (iterator.seekToFirst(); iterator.hasNext() && i++ < limit; iterator.next()) {
@@ -413,13 +453,65 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
+        }
+    }
+
+    /**
+     * the first {@code limit} entries whose key starts with {@code prefix}, in key order, or in
+     * reverse key order if {@code reverse} is set.
+     */
+    public List<Entry<byte[], byte[]>> prefixQuery(byte[] prefix, long limit, boolean reverse) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
+            List<Entry<byte[], byte[]>> result = new ArrayList<>();
+            if (!reverse) {
+                for (iterator.seek(prefix); iterator.hasNext() && result.size() < limit;
+                        iterator.next()) {
+                    Entry<byte[], byte[]> entry = iterator.peekNext();
+                    if (!ByteUtil.startsWith(entry.getKey(), prefix)) {
+                        break;
+                    }
+                    result.add(entry);
+                }
+                return result;
+            }
+
+            byte[] upperBound = ByteUtil.prefixUpperBound(prefix);
+            if (upperBound != null) {
+                iterator.seek(upperBound);
+            }
+            if (upperBound == null || !iterator.hasNext()) {
+                // past the last key, so the last entry itself is the first candidate
+                iterator.seekToLast();
+                if (!iterator.hasNext()
+                        || !ByteUtil.startsWith(iterator.peekNext().getKey(), prefix)) {
+                    return result;
+                }
+                result.add(iterator.peekNext());
+            }
+            while (result.size() < limit && iterator.hasPrev()) {
+                Entry<byte[], byte[]> entry = iterator.peekPrev();
+                if (!ByteUtil.startsWith(entry.getKey(), prefix)) {
+                    break;
+                }
+                result.add(entry);
+                iterator.prev();
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            current.unpin();
         }
     }
 
     public Map<byte[], byte[]> getAll() {
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             Map<byte[], byte[]> result = new HashMap<>();
             for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
                 result.put(iterator.peekNext().getKey(), iterator.peekNext().getValue());
@@ -428,14 +520,14 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Override
     public long getTotal() throws RuntimeException {
-        resetDbLock.readLock().lock();
-        try (DBIterator iterator = database.iterator()) {
+        DbHandle<DB> current = pin();
+        try (DBIterator iterator = current.getDb().iterator()) {
             long total = 0;
             for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
                 total++;
@@ -444,11 +536,11 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
-    private void updateByBatchInner(Map<byte[], byte[]> rows) throws Exception {
+    private void updateByBatchInner(DB database, Map<byte[], byte[]> rows) throws Exception {
         try (WriteBatch batch = database.createWriteBatch()) {
             rows.forEach((key, value) -> {
                 if (value == null) {
@@ -461,7 +553,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
         }
     }
 
-    private void updateByBatchInner(Map<byte[], byte[]> rows, WriteOptions options) throws Exception {
+    private void updateByBatchInner(DB database, Map<byte[], byte[]> rows, WriteOptions options)
+            throws Exception {
         try (WriteBatch batch = database.createWriteBatch()) {
             rows.forEach((key, value) -> {
                 if (value == null) {
@@ -476,33 +569,67 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
     @Override
     public void updateByBatch(Map<byte[], byte[]> rows) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
         try {
-            updateByBatchInner(rows);
+            updateByBatchInner(current.getDb(), rows);
         } catch (Exception e) {
             try {
-                updateByBatchInner(rows);
+                updateByBatchInner(current.getDb(), rows);
             } catch (Exception e1) {
                 throw new RuntimeException(e);
             }
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
     @Override
     public void updateByBatch(Map<byte[], byte[]> rows, WriteOptionsWrapper options) {
-        resetDbLock.readLock().lock();
+        DbHandle<DB> current = pin();
+        try {
+            updateByBatchInner(current.getDb(), rows, options.getLevel());
+        } catch (Exception e) {
+            try {
+                updateByBatchInner(current.getDb(), rows, options.getLevel());
+            } catch (Exception e1) {
+                throw new RuntimeException(e);
+            }
+        } finally {
+            current.unpin();
+        }
+    }
+
+    private void updateByBatchInner(DB database,
+                                    Collection<Map.Entry<WrappedByteArray, WrappedByteArray>> rows,
+                                    WriteOptions options) throws Exception {
+        try (WriteBatch batch = database.createWriteBatch()) {
+            for (Map.Entry<WrappedByteArray, WrappedByteArray> entry : rows) {
+                if (entry.getValue().getBytes() == null) {
+                    batch.delete(entry.getKey().getBytes());
+                } else {
+                    batch.put(entry.getKey().getBytes(), entry.getValue().getBytes());
+                }
+            }
+            database.write(batch, options);
+        }
+    }
+
+    /**
+     * write the rows of a snapshot flush as they are, a null value deletes the key.
+     */
+    public void updateByBatch(Collection<Map.Entry<WrappedByteArray, WrappedByteArray>> rows,
+                              WriteOptionsWrapper options) {
+        DbHandle<DB> current = pin();
         try {
-            updateByBatchInner(rows, options.getLevel());
+            updateByBatchInner(current.getDb(), rows, options.getLevel());
         } catch (Exception e) {
             try {
-                updateByBatchInner(rows, options.getLevel());
+                updateByBatchInner(current.getDb(), rows, options.getLevel());
             } catch (Exception e1) {
                 throw new RuntimeException(e);
             }
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -513,23 +640,31 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
     @Override
     public void closeDB() {
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
-            if (!isAlive()) {
+            DbHandle<DB> current = handle;
+            if (current == null) {
                 return;
             }
-            database.close();
-            alive = false;
+            handle = null;
+            current.close();
+            current.getDb().close();
         } catch (IOException e) {
             logger.error("Failed to find the dbStore file on the closeDB: {} ", dataBaseName);
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
     @Override
     public org.gsc.db.common.iterator.DBIterator iterator() {
-        return new StoreIterator(database.iterator());
+        // the iterator outlives the call, the handle is only pinned to create it on an open db
+        DbHandle<DB> current = pin();
+        try {
+            return new StoreIterator(current.getDb().iterator());
+        } finally {
+            current.unpin();
+        }
     }
 
     public Stream<Entry<byte[], byte[]>> stream() {
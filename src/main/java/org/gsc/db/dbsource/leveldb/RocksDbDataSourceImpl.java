@@ -14,6 +14,7 @@
 package org.gsc.db.dbsource.leveldb;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import java.io.File;
@@ -21,13 +22,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,8 +47,11 @@ import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
+import org.gsc.config.args.Args;
+import org.gsc.db.dbsource.DbHandle;
 import org.gsc.db.dbsource.DbSourceInter;
 import org.gsc.db.dbsource.RocksDbSettings;
+import org.gsc.db.common.WrappedByteArray;
 import org.gsc.db.dbsource.WriteOptionsWrapper;
 import org.gsc.utils.ByteUtil;
 import org.gsc.utils.FileUtil;
@@ -58,12 +65,12 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     private static final String ENGINE = "ENGINE";
 
     private String dataBaseName;
-    private RocksDB database;
-    private boolean alive;
+    private volatile DbHandle<RocksDB> handle;
     private String parentName;
     private ReadOptions readOpts;
 
-    private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+    // only taken to open, close or reset the database, calls pin the handle instead
+    private final ReentrantLock resetDbLock = new ReentrantLock();
 
     public RocksDbDataSourceImpl(String parentName, String name) {
         this.dataBaseName = name;
@@ -75,33 +82,62 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
 
     public RocksDB getDatabase() {
-        return database;
+        DbHandle<RocksDB> current = handle;
+        return current == null ? null : current.getDb();
     }
 
     public boolean isAlive() {
-        return alive;
+        return handle != null;
+    }
+
+    /**
+     * pin the open database, waiting for a reset in progress to finish.
+     */
+    private DbHandle<RocksDB> pin() {
+        DbHandle<RocksDB> current = handle;
+        if (current != null && current.pin()) {
+            return current;
+        }
+
+        resetDbLock.lock();
+        try {
+            current = handle;
+            if (current == null || !current.pin()) {
+                throw new RuntimeException("db is not alive");
+            }
+            return current;
+        } finally {
+            resetDbLock.unlock();
+        }
     }
 
     @Override
     public void closeDB() {
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
-            if (!isAlive()) {
+            DbHandle<RocksDB> current = handle;
+            if (current == null) {
                 return;
             }
-            database.close();
-            alive = false;
+            handle = null;
+            current.close();
+            current.getDb().close();
         } catch (Exception e) {
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
     @Override
     public void resetDb() {
-        closeDB();
-        FileUtil.recursiveDelete(getDbPath().toString());
-        initDB();
+        resetDbLock.lock();
+        try {
+            closeDB();
+            FileUtil.recursiveDelete(getDbPath().toString());
+            initDB();
+        } finally {
+            resetDbLock.unlock();
+        }
     }
 
     private boolean quitIfNotAlive() {
@@ -116,15 +152,15 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return null;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         Set<byte[]> result = Sets.newHashSet();
-        try (final RocksIterator iter = database.newIterator()) {
+        try (final RocksIterator iter = current.getDb().newIterator()) {
             for (iter.seekToFirst(); iter.isValid(); iter.next()) {
                 result.add(iter.key());
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -138,15 +174,15 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return 0;
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iterator = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iterator = current.getDb().newIterator()) {
             long total = 0;
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                 total++;
             }
             return total;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -189,7 +225,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
 
     public void initDB(RocksDbSettings settings) {
-        resetDbLock.writeLock().lock();
+        resetDbLock.lock();
         try {
             if (isAlive()) {
                 return;
@@ -227,7 +263,11 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
                 tableCfg.setBlockCacheSize(32 * 1024 * 1024);
                 tableCfg.setCacheIndexAndFilterBlocks(true);
                 tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
-                tableCfg.setFilter(new BloomFilter(10, false));
+                int bloomFilterBits = Args.getInstance().getStorage()
+                        .getBloomFilterBitsByDbName(dataBaseName);
+                if (bloomFilterBits > 0) {
+                    tableCfg.setFilter(new BloomFilter(bloomFilterBits, false));
+                }
 
                 // read options
                 readOpts = new ReadOptions();
@@ -242,14 +282,12 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
                     }
 
                     try {
-                        database = RocksDB.open(options, dbPath.toString());
+                        handle = new DbHandle<>(RocksDB.open(options, dbPath.toString()));
                     } catch (RocksDBException e) {
                         logger.error(e.getMessage(), e);
                         throw new RuntimeException("Failed to initialize database", e);
                     }
 
-                    alive = true;
-
                 } catch (IOException ioe) {
                     logger.error(ioe.getMessage(), ioe);
                     throw new RuntimeException("Failed to initialize database", ioe);
@@ -258,7 +296,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
                 logger.debug("<~ RocksDbDataSource.initDB(): " + dataBaseName);
             }
         } finally {
-            resetDbLock.writeLock().unlock();
+            resetDbLock.unlock();
         }
     }
 
@@ -267,13 +305,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            database.put(key, value);
+            current.getDb().put(key, value);
         } catch (RocksDBException e) {
             logger.error(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -282,13 +320,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            database.put(optionsWrapper.getRocks(), key, value);
+            current.getDb().put(optionsWrapper.getRocks(), key, value);
         } catch (RocksDBException e) {
             logger.error(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -297,13 +335,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return null;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            return database.get(key);
+            return current.getDb().get(key);
         } catch (RocksDBException e) {
             logger.error(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
         return null;
     }
@@ -313,13 +351,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            database.delete(key);
+            current.getDb().delete(key);
         } catch (RocksDBException e) {
             logger.error(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -328,13 +366,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            database.delete(optionsWrapper.getRocks(), key);
+            current.getDb().delete(optionsWrapper.getRocks(), key);
         } catch (RocksDBException e) {
             logger.error(e.getMessage(), e);
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -345,13 +383,20 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 
     @Override
     public org.gsc.db.common.iterator.DBIterator iterator() {
-        return new RockStoreIterator(database.newIterator());
+        // the iterator outlives the call, the handle is only pinned to create it on an open db
+        DbHandle<RocksDB> current = pin();
+        try {
+            return new RockStoreIterator(current.getDb().newIterator());
+        } finally {
+            current.unpin();
+        }
     }
 
-    private void updateByBatchInner(Map<byte[], byte[]> rows) throws Exception {
-        if (quitIfNotAlive()) {
-            return;
-        }
+    /**
+     * the caller pins the handle, so the database stays open until the batch is written even if a
+     * close has begun.
+     */
+    private void updateByBatchInner(RocksDB database, Map<byte[], byte[]> rows) throws Exception {
         try (WriteBatch batch = new WriteBatch()) {
             for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
                 if (entry.getValue() == null) {
@@ -364,11 +409,9 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         }
     }
 
-    private void updateByBatchInner(Map<byte[], byte[]> rows, WriteOptions options)
+    private void updateByBatchInner(RocksDB database, Map<byte[], byte[]> rows,
+                                    WriteOptions options)
             throws Exception {
-        if (quitIfNotAlive()) {
-            return;
-        }
         try (WriteBatch batch = new WriteBatch()) {
             for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
                 if (entry.getValue() == null) {
@@ -386,17 +429,17 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            updateByBatchInner(rows);
+            updateByBatchInner(current.getDb(), rows);
         } catch (Exception e) {
             try {
-                updateByBatchInner(rows);
+                updateByBatchInner(current.getDb(), rows);
             } catch (Exception e1) {
                 throw new RuntimeException(e);
             }
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -405,17 +448,54 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (quitIfNotAlive()) {
             return;
         }
-        resetDbLock.readLock().lock();
+        DbHandle<RocksDB> current = pin();
         try {
-            updateByBatchInner(rows, optionsWrapper.getRocks());
+            updateByBatchInner(current.getDb(), rows, optionsWrapper.getRocks());
         } catch (Exception e) {
             try {
-                updateByBatchInner(rows);
+                updateByBatchInner(current.getDb(), rows);
             } catch (Exception e1) {
                 throw new RuntimeException(e);
             }
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
+        }
+    }
+
+    private void updateByBatchInner(RocksDB database,
+                                    Collection<Map.Entry<WrappedByteArray, WrappedByteArray>> rows,
+                                    WriteOptions options) throws Exception {
+        try (WriteBatch batch = new WriteBatch()) {
+            for (Map.Entry<WrappedByteArray, WrappedByteArray> entry : rows) {
+                if (entry.getValue().getBytes() == null) {
+                    batch.delete(entry.getKey().getBytes());
+                } else {
+                    batch.put(entry.getKey().getBytes(), entry.getValue().getBytes());
+                }
+            }
+            database.write(options, batch);
+        }
+    }
+
+    /**
+     * write the rows of a snapshot flush as they are, a null value deletes the key.
+     */
+    public void updateByBatch(Collection<Map.Entry<WrappedByteArray, WrappedByteArray>> rows,
+                              WriteOptionsWrapper optionsWrapper) {
+        if (quitIfNotAlive()) {
+            return;
+        }
+        DbHandle<RocksDB> current = pin();
+        try {
+            updateByBatchInner(current.getDb(), rows, optionsWrapper.getRocks());
+        } catch (Exception e) {
+            try {
+                updateByBatchInner(current.getDb(), rows, optionsWrapper.getRocks());
+            } catch (Exception e1) {
+                throw new RuntimeException(e);
+            }
+        } finally {
+            current.unpin();
         }
     }
 
@@ -426,8 +506,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Collections.emptyMap();
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iter = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iter = current.getDb().newIterator()) {
             Map<byte[], byte[]> result = new HashMap<>();
             long i = 0;
             for (iter.seek(key); iter.isValid() && i < limit; iter.next(), i++) {
@@ -435,7 +515,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -446,8 +526,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iter = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iter = current.getDb().newIterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
             for (iter.seekToLast(); iter.isValid() && i < limit; iter.prev(), i++) {
@@ -455,7 +535,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -466,21 +546,26 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iter = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iter = current.getDb().newIterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
-            byte[] data = getData(key);
-            if (Objects.nonNull(data)) {
-                result.add(data);
-                i++;
+            // read through the pinned handle, pinning again would wait on a close in progress
+            try {
+                byte[] data = current.getDb().get(key);
+                if (Objects.nonNull(data)) {
+                    result.add(data);
+                    i++;
+                }
+            } catch (RocksDBException e) {
+                logger.error(e.getMessage(), e);
             }
             for (iter.seekForPrev(key); iter.isValid() && i < limit; iter.prev(), i++) {
                 result.add(iter.value());
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -491,8 +576,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0) {
             return Sets.newHashSet();
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iter = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iter = current.getDb().newIterator()) {
             Set<byte[]> result = Sets.newHashSet();
             long i = 0;
             for (iter.seek(key); iter.isValid() && i < limit; iter.next(), i++) {
@@ -500,7 +585,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
         }
     }
 
@@ -511,8 +596,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
         if (limit <= 0 || key.length < precision) {
             return Collections.emptyMap();
         }
-        resetDbLock.readLock().lock();
-        try (RocksIterator iterator = database.newIterator()) {
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iterator = current.getDb().newIterator()) {
             Map<byte[], byte[]> result = new HashMap<>();
             long i = 0;
             for (iterator.seekToFirst(); iterator.isValid() && i++ < limit; iterator.next()) {
@@ -527,13 +612,66 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
             }
             return result;
         } finally {
-            resetDbLock.readLock().unlock();
+            current.unpin();
+        }
+    }
+
+    /**
+     * the first {@code limit} entries whose key starts with {@code prefix}, in key order, or in
+     * reverse key order if {@code reverse} is set.
+     */
+    public List<Map.Entry<byte[], byte[]>> prefixQuery(byte[] prefix, long limit,
+            boolean reverse) {
+        if (quitIfNotAlive()) {
+            return null;
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        DbHandle<RocksDB> current = pin();
+        try (RocksIterator iterator = current.getDb().newIterator()) {
+            List<Map.Entry<byte[], byte[]>> result = new ArrayList<>();
+            if (reverse) {
+                byte[] upperBound = ByteUtil.prefixUpperBound(prefix);
+                if (upperBound == null) {
+                    iterator.seekToLast();
+                } else {
+                    // positions at the last key <= upperBound, which may be upperBound itself
+                    iterator.seekForPrev(upperBound);
+                    if (iterator.isValid() && Arrays.equals(iterator.key(), upperBound)) {
+                        iterator.prev();
+                    }
+                }
+            } else {
+                iterator.seek(prefix);
+            }
+
+            while (iterator.isValid() && result.size() < limit) {
+                byte[] key = iterator.key();
+                if (!ByteUtil.startsWith(key, prefix)) {
+                    break;
+                }
+                result.add(Maps.immutableEntry(key, iterator.value()));
+                if (reverse) {
+                    iterator.prev();
+                } else {
+                    iterator.next();
+                }
+            }
+            return result;
+        } finally {
+            current.unpin();
         }
     }
 
     public void backup(String dir) throws RocksDBException {
-        Checkpoint cp = Checkpoint.create(database);
-        cp.createCheckpoint(dir + this.getDBName());
+        DbHandle<RocksDB> current = pin();
+        try {
+            Checkpoint cp = Checkpoint.create(current.getDb());
+            cp.createCheckpoint(dir + this.getDBName());
+        } finally {
+            current.unpin();
+        }
     }
 
     public boolean deleteDbBakPath(String dir) {
@@ -223,6 +223,10 @@ public class GSCNetDelegate {
         }
     }
 
+    public void prefetchTransactionSign(BlockWrapper block) {
+        dbManager.prefetchTransactionSign(block);
+    }
+
     public void pushTransaction(TransactionWrapper trx) throws P2pException {
         try {
             dbManager.pushTransaction(trx);
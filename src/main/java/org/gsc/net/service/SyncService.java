@@ -38,6 +38,7 @@ import org.gsc.net.server.Channel.GSCState;
 import org.gsc.core.wrapper.BlockWrapper;
 import org.gsc.core.wrapper.BlockWrapper.BlockId;
 import org.gsc.config.Parameter.NodeConstant;
+import org.gsc.config.args.Args;
 import org.gsc.core.exception.P2pException;
 import org.gsc.core.exception.P2pException.TypeEnum;
 import org.gsc.net.GSCNetDelegate;
@@ -59,6 +60,16 @@ public class SyncService {
 
     private Map<BlockMessage, PeerConnection> blockJustReceived = new ConcurrentHashMap<>();
 
+    /**
+     * received blocks whose signers are not recovered yet, prepared once they come within
+     * pipelineDepth blocks of the head of a peer's fetch queue.
+     */
+    private Map<BlockId, BlockWrapper> blockToPrepare = new ConcurrentHashMap<>();
+
+    private int pipelineDepth = Args.getInstance().getSyncPipelineDepth();
+
+    private int maxPendingBlocks = Args.getInstance().getSyncMaxPendingBlocks();
+
     private Cache<BlockId, Long> requestBlockIds = CacheBuilder.newBuilder().maximumSize(10_000)
             .expireAfterWrite(1, TimeUnit.HOURS).initialCapacity(10_000)
             .recordStats().build();
@@ -73,6 +84,8 @@ public class SyncService {
     @Setter
     private volatile boolean fetchFlag = false;
 
+    private volatile boolean fetchThrottled = false;
+
     public void init() {
         fetchExecutor.scheduleWithFixedDelay(() -> {
             try {
@@ -130,6 +143,9 @@ public class SyncService {
         synchronized (blockJustReceived) {
             blockJustReceived.put(blockMessage, peer);
         }
+        if (pipelineDepth > 0 && blockToPrepare.size() < maxPendingBlocks) {
+            blockToPrepare.put(blockMessage.getBlockId(), blockMessage.getBlockWrapper());
+        }
         handleFlag = true;
         if (peer.isIdle()) {
             if (peer.getRemainNum() > 0
@@ -203,9 +219,18 @@ public class SyncService {
         return summary;
     }
 
+    /**
+     * requests at most as many blocks as the import pipeline has room for, counting blocks
+     * received but not imported and blocks requested but not received.
+     */
     private void startFetchSyncBlock() {
         HashMap<PeerConnection, List<BlockId>> send = new HashMap<>();
 
+        final int[] capacity = {maxPendingBlocks - blockWaitToProcess.size()
+                - blockJustReceived.size() - gscNetDelegate.getActivePeer().stream()
+                .mapToInt(peer -> peer.getSyncBlockRequested().size()).sum()};
+        fetchThrottled = false;
+
         gscNetDelegate.getActivePeer().stream()
                 .filter(peer -> peer.isNeedSyncFromPeer() && peer.isIdle())
                 .forEach(peer -> {
@@ -213,10 +238,15 @@ public class SyncService {
                         send.put(peer, new LinkedList<>());
                     }
                     for (BlockId blockId : peer.getSyncBlockToFetch()) {
+                        if (capacity[0] <= 0) {
+                            fetchThrottled = true;
+                            break;
+                        }
                         if (requestBlockIds.getIfPresent(blockId) == null) {
                             requestBlockIds.put(blockId, System.currentTimeMillis());
                             peer.getSyncBlockRequested().put(blockId, System.currentTimeMillis());
                             send.get(peer).add(blockId);
+                            capacity[0]--;
                             if (send.get(peer).size() >= MAX_BLOCK_FETCH_PER_PEER) {
                                 break;
                             }
@@ -247,6 +277,7 @@ public class SyncService {
                 blockWaitToProcess.forEach((msg, peerConnection) -> {
                     if (peerConnection.isDisconnect()) {
                         blockWaitToProcess.remove(msg);
+                        blockToPrepare.remove(msg.getBlockId());
                         invalid(msg.getBlockId());
                         return;
                     }
@@ -261,16 +292,44 @@ public class SyncService {
                     if (isFound[0]) {
                         blockWaitToProcess.remove(msg);
                         isProcessed[0] = true;
+                        prepareNextBlocks();
                         processSyncBlock(msg.getBlockWrapper());
                     }
                 });
             }
         }
+
+        if (fetchThrottled) {
+            fetchFlag = true;
+        }
+    }
+
+    /**
+     * starts signer recovery of the blocks up to pipelineDepth positions behind the head of
+     * every peer's fetch queue, it runs on the signature workers while the head executes.
+     */
+    private void prepareNextBlocks() {
+        if (pipelineDepth <= 0 || blockToPrepare.isEmpty()) {
+            return;
+        }
+        for (PeerConnection peer : gscNetDelegate.getActivePeer()) {
+            int depth = 0;
+            for (BlockId blockId : peer.getSyncBlockToFetch()) {
+                if (depth++ >= pipelineDepth) {
+                    break;
+                }
+                BlockWrapper block = blockToPrepare.remove(blockId);
+                if (block != null) {
+                    gscNetDelegate.prefetchTransactionSign(block);
+                }
+            }
+        }
     }
 
     private void processSyncBlock(BlockWrapper block) {
         boolean flag = true;
         BlockId blockId = block.getBlockId();
+        blockToPrepare.remove(blockId);
         try {
             gscNetDelegate.processBlock(block);
         } catch (Exception e) {
@@ -334,7 +334,7 @@ public class RuntimeImpl implements Runtime {
     }
 
     private boolean isCheckTransaction() {
-        return this.blockCap != null && !this.blockCap.getInstance().getBlockHeader()
+        return this.blockCap != null && !this.blockCap.getBlockHeader()
                 .getWitnessSignature().isEmpty();
     }
 
@@ -345,7 +345,7 @@ public class RuntimeImpl implements Runtime {
         if (InternalTransaction.ExecutorType.ET_NORMAL_TYPE == executorType) {
             // self witness generates block
             if (this.blockCap != null && blockCap.generatedByMyself &&
-                    this.blockCap.getInstance().getBlockHeader().getWitnessSignature().isEmpty()) {
+                    this.blockCap.getBlockHeader().getWitnessSignature().isEmpty()) {
                 cpuLimitRatio = 1.0;
             } else {
                 // self witness or other witness or fullnode verifies block
@@ -451,7 +451,7 @@ public class RuntimeImpl implements Runtime {
             long vmShouldEndInUs = vmStartInUs + thisTxCPULimitInUs;
             ProgramInvoke programInvoke = programInvokeFactory
                     .createProgramInvoke(InternalTransaction.TrxType.TRX_CONTRACT_CREATION_TYPE, executorType, trx,
-                            tokenValue, tokenId, blockCap.getInstance(), deposit, vmStartInUs,
+                            tokenValue, tokenId, blockCap.getBlockHeader(), deposit, vmStartInUs,
                             vmShouldEndInUs, cpuLimit);
             this.vm = new VM(config);
             this.program = new Program(ops, programInvoke, rootInternalTransaction, config,
@@ -569,7 +569,7 @@ public class RuntimeImpl implements Runtime {
             long vmShouldEndInUs = vmStartInUs + thisTxCPULimitInUs;
             ProgramInvoke programInvoke = programInvokeFactory
                     .createProgramInvoke(InternalTransaction.TrxType.TRX_CONTRACT_CALL_TYPE, executorType, trx,
-                            tokenValue, tokenId, blockCap.getInstance(), deposit, vmStartInUs,
+                            tokenValue, tokenId, blockCap.getBlockHeader(), deposit, vmStartInUs,
                             vmShouldEndInUs, cpuLimit);
             if (isStaticCall) {
                 programInvoke.setStaticCall();
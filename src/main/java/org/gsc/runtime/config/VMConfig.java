@@ -32,6 +32,9 @@ public class VMConfig {
     private boolean vmTraceCompressed = false;
     private boolean vmTrace = Args.getInstance().isVmTrace();
 
+    @Setter
+    private boolean decodedInterpreter = Args.getInstance().isVmDecodedInterpreter();
+
     //Odyssey3.2 hard fork -- ForkBlockVersionConsts.CPU_LIMIT
 //    @Setter
 //    private static boolean CPU_LIMIT_HARD_FORK = false;
@@ -65,6 +68,10 @@ public class VMConfig {
         return vmTrace;
     }
 
+    public boolean decodedInterpreter() {
+        return decodedInterpreter;
+    }
+
     public boolean vmTraceCompressed() {
         return vmTraceCompressed;
     }
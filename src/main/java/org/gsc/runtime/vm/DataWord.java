@@ -249,28 +249,27 @@ public class DataWord implements Comparable<DataWord> {
     public void negate() {
         if (this.isZero()) return;
 
-        bnot();
-        add(DataWord.ONE());
+        int[] x = digits();
+        WordMath.negate(x);
+        setDigits(x);
     }
 
     public void bnot() {
-        if (this.isZero()) {
-            this.data = ByteUtil.copyToArray(MAX_VALUE);
-            return;
+        if (this.data.length != WORD_SIZE) {
+            this.data = new byte[WORD_SIZE];
+        }
+        for (int i = 0; i < WORD_SIZE; ++i) {
+            this.data[i] = (byte) ~this.data[i];
         }
-        this.data = ByteUtil.copyToArray(MAX_VALUE.subtract(this.value()));
     }
 
-    // By   : Holger
-    // From : http://stackoverflow.com/a/24023466/459349
+    // Arithmetic is done in place on 32-bit digits, see WordMath. The operands are loaded before
+    // the result is stored, so the word may be its own argument.
+
     public void add(DataWord word) {
-        byte[] result = new byte[32];
-        for (int i = 31, overflow = 0; i >= 0; i--) {
-            int v = (this.data[i] & 0xff) + (word.data[i] & 0xff) + overflow;
-            result[i] = (byte) v;
-            overflow = v >>> 8;
-        }
-        this.data = result;
+        int[] x = digits();
+        WordMath.add(x, word.digits(), x);
+        setDigits(x);
     }
 
     // old add-method with BigInteger quick hack
@@ -279,15 +278,10 @@ public class DataWord implements Comparable<DataWord> {
         this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
     }
 
-    // TODO: mul can be done in more efficient way
-    // TODO:     with shift left shift right trick
-    // TODO      without BigInteger quick hack
     public void mul(DataWord word) {
-        BigInteger result = value().multiply(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        setDigits(WordMath.mul(digits(), word.digits(), WordMath.DIGITS));
     }
 
-    // TODO: improve with no BigInteger
     public void div(DataWord word) {
 
         if (word.isZero()) {
@@ -295,11 +289,9 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().divide(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        setDigits(WordMath.divide(digits(), word.digits()));
     }
 
-    // TODO: improve with no BigInteger
     public void sDiv(DataWord word) {
 
         if (word.isZero()) {
@@ -307,23 +299,62 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = sValue().divide(word.sValue());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        // truncates towards zero, like BigInteger.divide
+        boolean negative = this.isNegative();
+        boolean wordNegative = word.isNegative();
+        int[] x = digits();
+        int[] y = word.digits();
+        if (negative) {
+            WordMath.negate(x);
+        }
+        if (wordNegative) {
+            WordMath.negate(y);
+        }
+        int[] result = WordMath.divide(x, y);
+        if (negative != wordNegative) {
+            WordMath.negate(result);
+        }
+        setDigits(result);
     }
 
-    // TODO: improve with no BigInteger
     public void sub(DataWord word) {
-        BigInteger result = value().subtract(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        int[] x = digits();
+        WordMath.sub(x, word.digits(), x);
+        setDigits(x);
     }
 
-    // TODO: improve with no BigInteger
     public void exp(DataWord word) {
-        BigInteger result = value().modPow(word.value(), _2_256);
-        this.data = ByteUtil.copyToArray(result);
+        int[] exponent = word.digits();
+        int top = MAX_POW - 1;
+        while (top >= 0 && (exponent[top >>> 5] >>> (top & 31) & 1) == 0) {
+            top--;
+        }
+        if (top < 0) {
+            int[] one = new int[WordMath.DIGITS];
+            one[0] = 1;
+            setDigits(one);
+            return;
+        }
+
+        // square and multiply from the top bit, between two buffers
+        int[] base = digits();
+        int[] result = base.clone();
+        int[] scratch = new int[WordMath.DIGITS];
+        for (int i = top - 1; i >= 0; i--) {
+            WordMath.mul(result, result, scratch);
+            int[] tmp = result;
+            result = scratch;
+            scratch = tmp;
+            if ((exponent[i >>> 5] >>> (i & 31) & 1) != 0) {
+                WordMath.mul(result, base, scratch);
+                tmp = result;
+                result = scratch;
+                scratch = tmp;
+            }
+        }
+        setDigits(result);
     }
 
-    // TODO: improve with no BigInteger
     public void mod(DataWord word) {
 
         if (word.isZero()) {
@@ -331,21 +362,31 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().mod(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        setDigits(WordMath.remainder(digits(), word.digits()));
     }
 
     public void sMod(DataWord word) {
 
         if (word.isZero()) {
-            this.and(ZERO());
+            this.and(ZERO);
             return;
         }
 
-        BigInteger result = sValue().abs().mod(word.sValue().abs());
-        result = (sValue().signum() == -1) ? result.negate() : result;
-
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        // the result takes the sign of the dividend
+        boolean negative = this.isNegative();
+        int[] x = digits();
+        int[] y = word.digits();
+        if (negative) {
+            WordMath.negate(x);
+        }
+        if (word.isNegative()) {
+            WordMath.negate(y);
+        }
+        int[] result = WordMath.remainder(x, y);
+        if (negative) {
+            WordMath.negate(result);
+        }
+        setDigits(result);
     }
 
     public void addmod(DataWord word1, DataWord word2) {
@@ -354,8 +395,11 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().add(word1.value()).mod(word2.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        // one more digit for the carry of the sum
+        int[] sum = java.util.Arrays.copyOf(digits(), WordMath.DIGITS + 1);
+        int[] addend = java.util.Arrays.copyOf(word1.digits(), WordMath.DIGITS + 1);
+        WordMath.add(sum, addend, sum);
+        setDigits(WordMath.remainder(sum, word2.digits()));
     }
 
     public void mulmod(DataWord word1, DataWord word2) {
@@ -365,8 +409,19 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().multiply(word1.value()).mod(word2.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        int[] product = WordMath.mul(digits(), word1.digits(), 2 * WordMath.DIGITS);
+        setDigits(WordMath.remainder(product, word2.digits()));
+    }
+
+    private int[] digits() {
+        return WordMath.load(data);
+    }
+
+    private void setDigits(int[] x) {
+        if (this.data.length != WORD_SIZE) {
+            this.data = new byte[WORD_SIZE];
+        }
+        WordMath.store(x, this.data);
     }
 
     @JsonValue
@@ -428,10 +483,22 @@ public class DataWord implements Comparable<DataWord> {
         return (int) Math.signum(result);
     }
 
+    /**
+     * compares the words as signed two's complement numbers, like sValue().compareTo().
+     */
+    public int sCompareTo(DataWord o) {
+        boolean negative = this.isNegative();
+        if (negative != o.isNegative()) {
+            return negative ? -1 : 1;
+        }
+        return compareTo(o);
+    }
+
     public void signExtend(byte k) {
         if (0 > k || k > 31)
             throw new IndexOutOfBoundsException();
-        byte mask = this.sValue().testBit((k * 8) + 7) ? (byte) 0xff : 0;
+        // the sign bit of byte k, counted from the low end
+        byte mask = (this.data[31 - k] & 0x80) != 0 ? (byte) 0xff : 0;
         for (int i = 31; i > k; i--) {
             this.data[31 - i] = mask;
         }
@@ -462,12 +529,13 @@ public class DataWord implements Comparable<DataWord> {
      * @return this << arg
      */
     public DataWord shiftLeft(DataWord arg) {
-        if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+        if (arg.longValueSafe() >= MAX_POW) {
             return DataWord.ZERO();
         }
 
-        BigInteger result = value().shiftLeft(arg.intValueSafe());
-        return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+        DataWord result = new DataWord();
+        WordMath.store(WordMath.shiftLeft(digits(), arg.intValue()), result.data);
+        return result;
     }
 
     /**
@@ -477,12 +545,13 @@ public class DataWord implements Comparable<DataWord> {
      * @return this >> arg
      */
     public DataWord shiftRight(DataWord arg) {
-        if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+        if (arg.longValueSafe() >= MAX_POW) {
             return DataWord.ZERO();
         }
 
-        BigInteger result = value().shiftRight(arg.intValueSafe());
-        return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+        DataWord result = new DataWord();
+        WordMath.store(WordMath.shiftRight(digits(), arg.intValue(), false), result.data);
+        return result;
     }
 
     /**
@@ -492,7 +561,7 @@ public class DataWord implements Comparable<DataWord> {
      * @return this >> arg
      */
     public DataWord shiftRightSigned(DataWord arg) {
-        if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+        if (arg.longValueSafe() >= MAX_POW) {
             if (this.isNegative()) {
                 DataWord result = ONE();
                 result.negate();
@@ -502,8 +571,9 @@ public class DataWord implements Comparable<DataWord> {
             }
         }
 
-        BigInteger result = sValue().shiftRight(arg.intValueSafe());
-        return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+        DataWord result = new DataWord();
+        WordMath.store(WordMath.shiftRight(digits(), arg.intValue(), true), result.data);
+        return result;
     }
 
     public static long sizeInWords(long bytesSize) {
@@ -0,0 +1,225 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import org.gsc.runtime.config.VMConfig;
+import org.gsc.runtime.vm.program.Program;
+import org.gsc.runtime.vm.program.ProgramPrecompile;
+import org.gsc.runtime.vm.program.Stack;
+
+/**
+ * Handlers of the opcodes whose cpu cost is their static tier, run on the code decoded by
+ * {@link ProgramPrecompile}: the opcode and the push data of every pc are looked up instead of
+ * decoded again. Opcodes without a handler, e.g. memory, storage, calls and logs, are left to
+ * {@link VM#step}. A handler does exactly what the matching case of VM.step does after the cpu is
+ * spent.
+ */
+final class DecodedInterpreter {
+
+    interface Handler {
+
+        void execute(Program program, Stack stack, ProgramPrecompile code, int pc);
+    }
+
+    private interface BinaryOp {
+
+        void apply(DataWord word1, DataWord word2);
+    }
+
+    private interface Compare {
+
+        boolean test(DataWord word1, DataWord word2);
+    }
+
+    private interface Shift {
+
+        DataWord apply(DataWord value, DataWord shift);
+    }
+
+    private static final Handler[] BASE = new Handler[256];
+
+    private static final Handler[] CONSTANTINOPLE;
+
+    static {
+        binary(OpCode.ADD, DataWord::add);
+        binary(OpCode.MUL, DataWord::mul);
+        binary(OpCode.SUB, DataWord::sub);
+        binary(OpCode.DIV, DataWord::div);
+        binary(OpCode.SDIV, DataWord::sDiv);
+        binary(OpCode.MOD, DataWord::mod);
+        binary(OpCode.SMOD, DataWord::sMod);
+        binary(OpCode.AND, DataWord::and);
+        binary(OpCode.OR, DataWord::or);
+        binary(OpCode.XOR, DataWord::xor);
+        compare(OpCode.LT, (word1, word2) -> word1.compareTo(word2) < 0);
+        compare(OpCode.GT, (word1, word2) -> word1.compareTo(word2) > 0);
+        compare(OpCode.SLT, (word1, word2) -> word1.sCompareTo(word2) < 0);
+        compare(OpCode.SGT, (word1, word2) -> word1.sCompareTo(word2) > 0);
+        compare(OpCode.EQ, (word1, word2) -> word1.compareTo(word2) == 0);
+
+        on(OpCode.ADDMOD, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            word1.addmod(stack.pop(), stack.pop());
+            stack.push(word1);
+            program.setPC(pc + 1);
+        });
+        on(OpCode.MULMOD, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            word1.mulmod(stack.pop(), stack.pop());
+            stack.push(word1);
+            program.setPC(pc + 1);
+        });
+        on(OpCode.SIGNEXTEND, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            if (word1.longValueSafe() < 32) {
+                DataWord word2 = stack.pop();
+                word2.signExtend((byte) word1.intValue());
+                stack.push(word2);
+            }
+            program.setPC(pc + 1);
+        });
+        on(OpCode.ISZERO, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            stack.push(bool(word1, word1.isZero()));
+            program.setPC(pc + 1);
+        });
+        on(OpCode.NOT, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            word1.bnot();
+            stack.push(word1);
+            program.setPC(pc + 1);
+        });
+        on(OpCode.BYTE, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            DataWord word2 = stack.pop();
+            if (word1.longValueSafe() < 32) {
+                byte tmp = word2.getData()[word1.intValue()];
+                word2.and(DataWord.ZERO);
+                word2.getData()[31] = tmp;
+                stack.push(word2);
+            } else {
+                stack.push(new DataWord());
+            }
+            program.setPC(pc + 1);
+        });
+
+        on(OpCode.POP, (program, stack, code, pc) -> {
+            stack.pop();
+            program.setPC(pc + 1);
+        });
+        for (int n = 1; n <= 32; n++) {
+            int nPush = n;
+            on(OpCode.code((byte) (OpCode.PUSH1.val() + n - 1)), (program, stack, code, pc) -> {
+                stack.push(code.getImmediate(pc).clone());
+                program.setPC(pc + 1 + nPush);
+            });
+        }
+        for (int n = 1; n <= 16; n++) {
+            int nDup = n;
+            on(OpCode.code((byte) (OpCode.DUP1.val() + n - 1)), (program, stack, code, pc) -> {
+                stack.dup(nDup);
+                program.setPC(pc + 1);
+            });
+        }
+        for (int n = 2; n <= 17; n++) {
+            int nSwap = n;
+            on(OpCode.code((byte) (OpCode.SWAP1.val() + n - 2)), (program, stack, code, pc) -> {
+                stack.swap(stack.size() - 1, stack.size() - nSwap);
+                program.setPC(pc + 1);
+            });
+        }
+
+        on(OpCode.JUMP, (program, stack, code, pc) ->
+                program.setPC(program.verifyJumpDest(stack.pop())));
+        on(OpCode.JUMPI, (program, stack, code, pc) -> {
+            DataWord pos = stack.pop();
+            DataWord cond = stack.pop();
+            program.setPC(cond.isZero() ? pc + 1 : program.verifyJumpDest(pos));
+        });
+        on(OpCode.JUMPDEST, (program, stack, code, pc) -> program.setPC(pc + 1));
+        on(OpCode.PC, (program, stack, code, pc) -> {
+            stack.push(new DataWord(pc));
+            program.setPC(pc + 1);
+        });
+        on(OpCode.MSIZE, (program, stack, code, pc) -> {
+            stack.push(new DataWord(program.getMemSize()));
+            program.setPC(pc + 1);
+        });
+        on(OpCode.CALLVALUE, (program, stack, code, pc) -> {
+            stack.push(program.getCallValue());
+            program.setPC(pc + 1);
+        });
+        on(OpCode.CALLDATALOAD, (program, stack, code, pc) -> {
+            stack.push(program.getDataValue(stack.pop()));
+            program.setPC(pc + 1);
+        });
+        on(OpCode.CALLDATASIZE, (program, stack, code, pc) -> {
+            stack.push(program.getDataSize());
+            program.setPC(pc + 1);
+        });
+
+        // the opcodes of later forks are left out of the tables of earlier ones
+        CONSTANTINOPLE = BASE.clone();
+        shift(OpCode.SHL, DataWord::shiftLeft);
+        shift(OpCode.SHR, DataWord::shiftRight);
+        shift(OpCode.SAR, DataWord::shiftRightSigned);
+    }
+
+    private DecodedInterpreter() {
+    }
+
+    /**
+     * @return the handlers of the opcodes allowed now, indexed by opcode.
+     */
+    static Handler[] handlers() {
+        return VMConfig.allowGvmConstantinople() ? CONSTANTINOPLE : BASE;
+    }
+
+    private static void on(OpCode op, Handler handler) {
+        BASE[op.val() & 0xff] = handler;
+    }
+
+    private static void binary(OpCode op, BinaryOp binaryOp) {
+        on(op, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            binaryOp.apply(word1, stack.pop());
+            stack.push(word1);
+            program.setPC(pc + 1);
+        });
+    }
+
+    private static void compare(OpCode op, Compare compare) {
+        on(op, (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            stack.push(bool(word1, compare.test(word1, stack.pop())));
+            program.setPC(pc + 1);
+        });
+    }
+
+    private static void shift(OpCode op, Shift shift) {
+        CONSTANTINOPLE[op.val() & 0xff] = (program, stack, code, pc) -> {
+            DataWord word1 = stack.pop();
+            stack.push(shift.apply(stack.pop(), word1));
+            program.setPC(pc + 1);
+        };
+    }
+
+    private static DataWord bool(DataWord word, boolean value) {
+        word.and(DataWord.ZERO);
+        if (value) {
+            word.getData()[31] = 1;
+        }
+        return word;
+    }
+}
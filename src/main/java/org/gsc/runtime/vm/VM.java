@@ -23,7 +23,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.spongycastle.util.encoders.Hex;
 import org.springframework.util.StringUtils;
 import org.gsc.runtime.config.VMConfig;
+import org.gsc.runtime.vm.DecodedInterpreter.Handler;
 import org.gsc.runtime.vm.program.Program;
+import org.gsc.runtime.vm.program.ProgramPrecompile;
 import org.gsc.runtime.vm.program.Stack;
 import org.gsc.crypto.Hash;
 import org.gsc.runtime.utils.MUtil;
@@ -32,7 +34,6 @@ import org.gsc.utils.ByteUtil;
 @Slf4j(topic = "VM")
 public class VM {
 
-    private static final BigInteger _32_ = BigInteger.valueOf(32);
     private static final String CPU_LOG_FORMATE = "{} Op:[{}]  Cpu:[{}] Deep:[{}] Hint:[{}]";
 
     // 3MB
@@ -41,6 +42,12 @@ public class VM {
 
     private final VMConfig config;
 
+    /**
+     * the program the decoded handlers were chosen for, the forks are fixed when it starts.
+     */
+    private Program decodedProgram;
+    private Handler[] handlers;
+
     public VM() {
         config = VMConfig.getInstance();
     }
@@ -80,6 +87,21 @@ public class VM {
     }
 
     public void step(Program program) {
+        if (config.decodedInterpreter()) {
+            if (program != decodedProgram) {
+                decodedProgram = program;
+                handlers = DecodedInterpreter.handlers();
+            }
+            ProgramPrecompile code = program.getProgramPrecompile();
+            int pc = program.getPC();
+            OpCode op = code.getOpCode(pc);
+            Handler handler = op == null ? null : handlers[op.val() & 0xff];
+            if (handler != null) {
+                stepDecoded(program, op, handler, code, pc);
+                return;
+            }
+        }
+
         if (config.vmTrace()) {
             program.saveOpTrace();
         }
@@ -415,14 +437,13 @@ public class VM {
                 break;
                 case SIGNEXTEND: {
                     DataWord word1 = program.stackPop();
-                    BigInteger k = word1.value();
 
-                    if (k.compareTo(_32_) < 0) {
+                    if (word1.longValueSafe() < 32) {
                         DataWord word2 = program.stackPop();
                         if (logger.isDebugEnabled()) {
                             hint = word1 + "  " + word2.value();
                         }
-                        word2.signExtend(k.byteValue());
+                        word2.signExtend((byte) word1.intValue());
                         program.stackPush(word2);
                     }
                     program.step();
@@ -441,7 +462,6 @@ public class VM {
                 }
                 break;
                 case LT: {
-                    // TODO: can be improved by not using BigInteger
                     DataWord word1 = program.stackPop();
                     DataWord word2 = program.stackPop();
 
@@ -449,7 +469,7 @@ public class VM {
                         hint = word1.value() + " < " + word2.value();
                     }
 
-                    if (word1.value().compareTo(word2.value()) < 0) {
+                    if (word1.compareTo(word2) < 0) {
                         word1.and(DataWord.ZERO);
                         word1.getData()[31] = 1;
                     } else {
@@ -460,7 +480,6 @@ public class VM {
                 }
                 break;
                 case SLT: {
-                    // TODO: can be improved by not using BigInteger
                     DataWord word1 = program.stackPop();
                     DataWord word2 = program.stackPop();
 
@@ -468,7 +487,7 @@ public class VM {
                         hint = word1.sValue() + " < " + word2.sValue();
                     }
 
-                    if (word1.sValue().compareTo(word2.sValue()) < 0) {
+                    if (word1.sCompareTo(word2) < 0) {
                         word1.and(DataWord.ZERO);
                         word1.getData()[31] = 1;
                     } else {
@@ -479,7 +498,6 @@ public class VM {
                 }
                 break;
                 case SGT: {
-                    // TODO: can be improved by not using BigInteger
                     DataWord word1 = program.stackPop();
                     DataWord word2 = program.stackPop();
 
@@ -487,7 +505,7 @@ public class VM {
                         hint = word1.sValue() + " > " + word2.sValue();
                     }
 
-                    if (word1.sValue().compareTo(word2.sValue()) > 0) {
+                    if (word1.sCompareTo(word2) > 0) {
                         word1.and(DataWord.ZERO);
                         word1.getData()[31] = 1;
                     } else {
@@ -498,7 +516,6 @@ public class VM {
                 }
                 break;
                 case GT: {
-                    // TODO: can be improved by not using BigInteger
                     DataWord word1 = program.stackPop();
                     DataWord word2 = program.stackPop();
 
@@ -506,7 +523,7 @@ public class VM {
                         hint = word1.value() + " > " + word2.value();
                     }
 
-                    if (word1.value().compareTo(word2.value()) > 0) {
+                    if (word1.compareTo(word2) > 0) {
                         word1.and(DataWord.ZERO);
                         word1.getData()[31] = 1;
                     } else {
@@ -597,7 +614,7 @@ public class VM {
                     DataWord word1 = program.stackPop();
                     DataWord word2 = program.stackPop();
                     final DataWord result;
-                    if (word1.value().compareTo(_32_) < 0) {
+                    if (word1.longValueSafe() < 32) {
                         byte tmp = word2.getData()[word1.intValue()];
                         word2.and(DataWord.ZERO);
                         word2.getData()[31] = tmp;
@@ -1025,8 +1042,7 @@ public class VM {
                 case DUP16: {
 
                     int n = op.val() - OpCode.DUP1.val() + 1;
-                    DataWord word_1 = stack.get(stack.size() - n);
-                    program.stackPush(word_1.clone());
+                    stack.dup(n);
                     program.step();
 
                     break;
@@ -1415,18 +1431,51 @@ public class VM {
 
             program.setPreviouslyExecutedOp(op.val());
         } catch (RuntimeException e) {
-            logger.info("VM halted: [{}]", e.getMessage());
-            if (!(e instanceof Program.TransferException)) {
-                program.spendAllCpu();
-            }
-            program.resetFutureRefund();
-            program.stop();
+            halt(program, e);
             throw e;
         } finally {
             program.fullTrace();
         }
     }
 
+    /**
+     * runs an opcode of static cost through its decoded handler, the same steps as
+     * {@link #step} without looking the opcode up again.
+     */
+    private void stepDecoded(Program program, OpCode op, Handler handler, ProgramPrecompile code,
+            int pc) {
+        if (config.vmTrace()) {
+            program.saveOpTrace();
+        }
+
+        try {
+            program.setLastOp(op.val());
+            program.verifyStackSize(op.require());
+            program.verifyStackOverflow(op.require(), op.ret());
+
+            program.spendCpu(op.getTier().asInt(), op.name());
+            program.checkCPUTimeLimit(op.name());
+
+            handler.execute(program, program.getStack(), code, pc);
+
+            program.setPreviouslyExecutedOp(op.val());
+        } catch (RuntimeException e) {
+            halt(program, e);
+            throw e;
+        } finally {
+            program.fullTrace();
+        }
+    }
+
+    private void halt(Program program, RuntimeException e) {
+        logger.info("VM halted: [{}]", e.getMessage());
+        if (!(e instanceof Program.TransferException)) {
+            program.spendAllCpu();
+        }
+        program.resetFutureRefund();
+        program.stop();
+    }
+
     public void play(Program program) {
         try {
             if (program.byTestingSuite()) {
@@ -0,0 +1,311 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import java.util.Arrays;
+
+/**
+ * Unsigned arithmetic on 256-bit words held as eight 32-bit digits, least significant first.
+ * 32-bit digits keep every digit product and carry inside a long, so no BigInteger is needed.
+ * Results wider than the operands are truncated to the length of the output array.
+ */
+final class WordMath {
+
+    static final int DIGITS = DataWord.WORD_SIZE / 4;
+
+    private static final long MASK = 0xffffffffL;
+    private static final long BASE = 1L << 32;
+
+    private WordMath() {
+    }
+
+    /**
+     * the digits of a big endian word, a shorter word is padded with leading zeroes.
+     */
+    static int[] load(byte[] data) {
+        int[] x = new int[DIGITS];
+        if (data.length != DataWord.WORD_SIZE) {
+            byte[] padded = new byte[DataWord.WORD_SIZE];
+            System.arraycopy(data, 0, padded, DataWord.WORD_SIZE - data.length, data.length);
+            data = padded;
+        }
+        for (int i = 0; i < DIGITS; i++) {
+            int p = (DIGITS - 1 - i) * 4;
+            x[i] = (data[p] & 0xff) << 24 | (data[p + 1] & 0xff) << 16
+                    | (data[p + 2] & 0xff) << 8 | (data[p + 3] & 0xff);
+        }
+        return x;
+    }
+
+    /**
+     * writes the low eight digits big endian into the 32 bytes.
+     */
+    static void store(int[] x, byte[] data) {
+        for (int i = 0; i < DIGITS; i++) {
+            int p = (DIGITS - 1 - i) * 4;
+            int d = x[i];
+            data[p] = (byte) (d >>> 24);
+            data[p + 1] = (byte) (d >>> 16);
+            data[p + 2] = (byte) (d >>> 8);
+            data[p + 3] = (byte) d;
+        }
+    }
+
+    static boolean isZero(int[] x) {
+        for (int d : x) {
+            if (d != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * out = a + b over the length of out, a and b at least as long, out may be a or b.
+     *
+     * @return the carry out of the top digit.
+     */
+    static int add(int[] a, int[] b, int[] out) {
+        long carry = 0;
+        for (int i = 0; i < out.length; i++) {
+            long s = (a[i] & MASK) + (b[i] & MASK) + carry;
+            out[i] = (int) s;
+            carry = s >>> 32;
+        }
+        return (int) carry;
+    }
+
+    /**
+     * out = a - b modulo 2^(32 * out.length), out may be a or b.
+     */
+    static void sub(int[] a, int[] b, int[] out) {
+        long borrow = 0;
+        for (int i = 0; i < out.length; i++) {
+            long d = (a[i] & MASK) - (b[i] & MASK) - borrow;
+            out[i] = (int) d;
+            borrow = (d >> 32) & 1;
+        }
+    }
+
+    /**
+     * two's complement in place.
+     */
+    static void negate(int[] x) {
+        long carry = 1;
+        for (int i = 0; i < x.length; i++) {
+            long s = (~x[i] & MASK) + carry;
+            x[i] = (int) s;
+            carry = s >>> 32;
+        }
+    }
+
+    /**
+     * the product of two words, truncated to the given number of digits.
+     */
+    static int[] mul(int[] a, int[] b, int length) {
+        int[] w = new int[length];
+        mul(a, b, w);
+        return w;
+    }
+
+    /**
+     * out = a * b truncated to the length of out, out is cleared first and must not be a or b.
+     */
+    static void mul(int[] a, int[] b, int[] w) {
+        int length = w.length;
+        Arrays.fill(w, 0);
+        for (int i = 0; i < DIGITS && i < length; i++) {
+            long ai = a[i] & MASK;
+            if (ai == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int j = 0; j < DIGITS && i + j < length; j++) {
+                long t = ai * (b[j] & MASK) + (w[i + j] & MASK) + carry;
+                w[i + j] = (int) t;
+                carry = t >>> 32;
+            }
+            if (i + DIGITS < length) {
+                w[i + DIGITS] = (int) carry;
+            }
+        }
+    }
+
+    static int compare(int[] a, int[] b) {
+        for (int i = DIGITS - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Integer.compareUnsigned(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * u / v, v is a non zero word.
+     */
+    static int[] divide(int[] u, int[] v) {
+        int[] q = new int[u.length];
+        divide(u, v, q, null);
+        return q;
+    }
+
+    /**
+     * u % v as a word, v is a non zero word.
+     */
+    static int[] remainder(int[] u, int[] v) {
+        int[] r = new int[DIGITS];
+        divide(u, v, null, r);
+        return r;
+    }
+
+    private static int significant(int[] x) {
+        int n = x.length;
+        while (n > 0 && x[n - 1] == 0) {
+            n--;
+        }
+        return n;
+    }
+
+    /**
+     * Knuth's algorithm D (TAOCP 4.3.1) on 32-bit digits, q and r are optional.
+     */
+    private static void divide(int[] u, int[] v, int[] q, int[] r) {
+        int m = significant(u);
+        int n = significant(v);
+        if (m < n) {
+            if (r != null) {
+                System.arraycopy(u, 0, r, 0, m);
+            }
+            return;
+        }
+
+        if (n == 1) {
+            long divisor = v[0] & MASK;
+            long rem = 0;
+            for (int j = m - 1; j >= 0; j--) {
+                long num = (rem << 32) | (u[j] & MASK);
+                if (q != null) {
+                    q[j] = (int) Long.divideUnsigned(num, divisor);
+                }
+                rem = Long.remainderUnsigned(num, divisor);
+            }
+            if (r != null) {
+                r[0] = (int) rem;
+            }
+            return;
+        }
+
+        // normalize so that the top digit of the divisor has its high bit set
+        int s = Integer.numberOfLeadingZeros(v[n - 1]);
+        int[] vn = new int[n];
+        int[] un = new int[m + 1];
+        for (int i = n - 1; i > 0; i--) {
+            vn[i] = shiftIn(v[i], v[i - 1], s);
+        }
+        vn[0] = v[0] << s;
+        un[m] = s == 0 ? 0 : u[m - 1] >>> (32 - s);
+        for (int i = m - 1; i > 0; i--) {
+            un[i] = shiftIn(u[i], u[i - 1], s);
+        }
+        un[0] = u[0] << s;
+
+        long vTop = vn[n - 1] & MASK;
+        long vNext = vn[n - 2] & MASK;
+        for (int j = m - n; j >= 0; j--) {
+            long num = ((un[j + n] & MASK) << 32) | (un[j + n - 1] & MASK);
+            long qhat = Long.divideUnsigned(num, vTop);
+            long rhat = Long.remainderUnsigned(num, vTop);
+            while (qhat >= BASE || Long.compareUnsigned(qhat * vNext,
+                    (rhat << 32) | (un[j + n - 2] & MASK)) > 0) {
+                qhat--;
+                rhat += vTop;
+                if (rhat >= BASE) {
+                    break;
+                }
+            }
+
+            // multiply and subtract
+            long borrow = 0;
+            long t;
+            for (int i = 0; i < n; i++) {
+                long p = qhat * (vn[i] & MASK);
+                t = (un[i + j] & MASK) - borrow - (p & MASK);
+                un[i + j] = (int) t;
+                borrow = (p >>> 32) - (t >> 32);
+            }
+            t = (un[j + n] & MASK) - borrow;
+            un[j + n] = (int) t;
+
+            if (t < 0) {
+                // qhat was one too large, add the divisor back
+                qhat--;
+                long carry = 0;
+                for (int i = 0; i < n; i++) {
+                    t = (un[i + j] & MASK) + (vn[i] & MASK) + carry;
+                    un[i + j] = (int) t;
+                    carry = t >>> 32;
+                }
+                un[j + n] += (int) carry;
+            }
+            if (q != null) {
+                q[j] = (int) qhat;
+            }
+        }
+
+        if (r != null) {
+            for (int i = 0; i < n - 1; i++) {
+                r[i] = s == 0 ? un[i] : (un[i] >>> s) | (un[i + 1] << (32 - s));
+            }
+            r[n - 1] = un[n - 1] >>> s;
+        }
+    }
+
+    private static int shiftIn(int high, int low, int s) {
+        return s == 0 ? high : (high << s) | (low >>> (32 - s));
+    }
+
+    /**
+     * x << shift, truncated to a word, shift below 256.
+     */
+    static int[] shiftLeft(int[] x, int shift) {
+        int[] out = new int[DIGITS];
+        int digits = shift >>> 5;
+        int bits = shift & 31;
+        for (int i = DIGITS - 1; i >= digits; i--) {
+            int d = x[i - digits] << bits;
+            if (bits != 0 && i - digits - 1 >= 0) {
+                d |= x[i - digits - 1] >>> (32 - bits);
+            }
+            out[i] = d;
+        }
+        return out;
+    }
+
+    /**
+     * x >> shift, filling with the sign of x if signed, shift below 256.
+     */
+    static int[] shiftRight(int[] x, int shift, boolean signed) {
+        int fill = signed && x[DIGITS - 1] < 0 ? -1 : 0;
+        int[] out = new int[DIGITS];
+        int digits = shift >>> 5;
+        int bits = shift & 31;
+        for (int i = 0; i < DIGITS; i++) {
+            int src = i + digits;
+            int low = src < DIGITS ? x[src] : fill;
+            int high = src + 1 < DIGITS ? x[src + 1] : fill;
+            out[i] = bits == 0 ? low : (low >>> bits) | (high << (32 - bits));
+        }
+        return out;
+    }
+}
@@ -14,10 +14,10 @@
 package org.gsc.runtime.vm.program;
 
 import static java.lang.Math.ceil;
-import static java.lang.Math.min;
 import static java.lang.String.format;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.gsc.runtime.vm.DataWord;
@@ -25,12 +25,18 @@ import org.gsc.runtime.vm.program.listener.ProgramListener;
 import org.gsc.runtime.vm.program.listener.ProgramListenerAware;
 import org.gsc.utils.ByteUtil;
 
+/**
+ * The memory of a program in one contiguous buffer, so any address is a single array offset.
+ * The buffer doubles when it runs out; {@link #internalSize} still counts the allocation in
+ * 1 KB chunks and {@link #size} in words as before, the cpu cost of expanding is unchanged.
+ */
 public class Memory implements ProgramListenerAware {
 
     private static final int CHUNK_SIZE = 1024;
     private static final int WORD_SIZE = 32;
 
-    private List<byte[]> chunks = new LinkedList<>();
+    private byte[] buffer = ByteUtil.EMPTY_BYTE_ARRAY;
+    private int allocated;
     private int softSize;
     private ProgramListener programListener;
 
@@ -45,27 +51,7 @@ public class Memory implements ProgramListenerAware {
         }
 
         extend(address, size);
-        byte[] data = new byte[size];
-
-        int chunkIndex = address / CHUNK_SIZE;
-        int chunkOffset = address % CHUNK_SIZE;
-
-        int toGrab = data.length;
-        int start = 0;
-
-        while (toGrab > 0) {
-            int copied = grabMax(chunkIndex, chunkOffset, toGrab, data, start);
-
-            // read next chunk from the start
-            ++chunkIndex;
-            chunkOffset = 0;
-
-            // mark remind
-            toGrab -= copied;
-            start += copied;
-        }
-
-        return data;
+        return Arrays.copyOfRange(buffer, address, address + size);
     }
 
     public void write(int address, byte[] data, int dataSize, boolean limited) {
@@ -78,9 +64,6 @@ public class Memory implements ProgramListenerAware {
             extend(address, dataSize);
         }
 
-        int chunkIndex = address / CHUNK_SIZE;
-        int chunkOffset = address % CHUNK_SIZE;
-
         int toCapture;
         if (limited) {
             toCapture = (address + dataSize > softSize) ? softSize - address : dataSize;
@@ -88,17 +71,8 @@ public class Memory implements ProgramListenerAware {
             toCapture = dataSize;
         }
 
-        int start = 0;
-        while (toCapture > 0) {
-            int captured = captureMax(chunkIndex, chunkOffset, toCapture, data, start);
-
-            // capture next chunk
-            ++chunkIndex;
-            chunkOffset = 0;
-
-            // mark remind
-            toCapture -= captured;
-            start += captured;
+        if (toCapture > 0) {
+            System.arraycopy(data, 0, buffer, address, toCapture);
         }
 
         if (programListener != null) {
@@ -106,6 +80,9 @@ public class Memory implements ProgramListenerAware {
         }
     }
 
+    public void writeWord(int address, DataWord value) {
+        write(address, value.getData(), WORD_SIZE, false);
+    }
 
     public void extendAndWrite(int address, int allocSize, byte[] data) {
         extend(address, allocSize);
@@ -118,9 +95,10 @@ public class Memory implements ProgramListenerAware {
         }
 
         final int newSize = Math.addExact(address, size);
-        int toAllocate = newSize - internalSize();
+        int toAllocate = newSize - allocated;
         if (toAllocate > 0) {
-            addChunks((int) ceil((double) toAllocate / CHUNK_SIZE));
+            allocate(Math.addExact(allocated,
+                    (int) ceil((double) toAllocate / CHUNK_SIZE) * CHUNK_SIZE));
         }
 
         toAllocate = newSize - softSize;
@@ -135,18 +113,15 @@ public class Memory implements ProgramListenerAware {
     }
 
     public DataWord readWord(int address) {
-        return new DataWord(read(address, 32));
+        extend(address, WORD_SIZE);
+        byte[] data = new byte[WORD_SIZE];
+        System.arraycopy(buffer, address, data, 0, WORD_SIZE);
+        return new DataWord(data);
     }
 
     // just access expecting all data valid
     public byte readByte(int address) {
-
-        int chunkIndex = address / CHUNK_SIZE;
-        int chunkOffset = address % CHUNK_SIZE;
-
-        byte[] chunk = chunks.get(chunkIndex);
-
-        return chunk[chunkOffset];
+        return buffer[address];
     }
 
     @Override
@@ -187,35 +162,26 @@ public class Memory implements ProgramListenerAware {
     }
 
     public int internalSize() {
-        return chunks.size() * CHUNK_SIZE;
+        return allocated;
     }
 
+    /**
+     * . the allocated memory cut into 1 KB chunks, used mostly for testing reasons
+     */
     public List<byte[]> getChunks() {
-        return new LinkedList<>(chunks);
-    }
-
-    private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
-
-        byte[] chunk = chunks.get(chunkIndex);
-        int toCapture = min(size, chunk.length - chunkOffset);
-
-        System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
-        return toCapture;
-    }
-
-    private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
-
-        byte[] chunk = chunks.get(chunkIndex);
-        int toGrab = min(size, chunk.length - chunkOffset);
-
-        System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
-
-        return toGrab;
+        List<byte[]> chunks = new ArrayList<>(allocated / CHUNK_SIZE);
+        for (int offset = 0; offset < allocated; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(buffer, offset, offset + CHUNK_SIZE));
+        }
+        return chunks;
     }
 
-    private void addChunks(int num) {
-        for (int i = 0; i < num; ++i) {
-            chunks.add(new byte[CHUNK_SIZE]);
+    private void allocate(int newSize) {
+        if (newSize > buffer.length) {
+            // grow geometrically so a program expanding its memory word by word copies O(n) bytes
+            int doubled = (int) Math.min(Integer.MAX_VALUE, buffer.length * 2L);
+            buffer = Arrays.copyOf(buffer, Math.max(newSize, doubled));
         }
+        allocated = newSize;
     }
 }
@@ -85,7 +85,7 @@ public class Program {
 
     private static final int MAX_DEPTH = 64;
     //Max size for stack checks
-    private static final int MAX_STACK_SIZE = 1024;
+    private static final int MAX_STACK_SIZE = Stack.MAX_SIZE;
     private static final String VALIDATE_FOR_SMART_CONTRACT_FAILURE =
             "validateForSmartContract failure:%s";
     private static final String INVALID_TOKEN_ID_MSG = "not valid token id";
@@ -141,7 +141,8 @@ public class Program {
 
         traceListener = new ProgramTraceListener(config.vmTrace());
         this.memory = setupProgramListener(new Memory());
-        this.stack = setupProgramListener(new Stack());
+        // stack ops are the hottest path of the vm, only report them when tracing
+        this.stack = config.vmTrace() ? setupProgramListener(new Stack()) : new Stack();
         this.contractState = setupProgramListener(new ContractState(programInvoke));
         this.trace = new ProgramTrace(config, programInvoke);
         this.nonce = internalTransaction.getNonce();
@@ -165,7 +166,7 @@ public class Program {
 
     public ProgramPrecompile getProgramPrecompile() {
         if (programPrecompile == null) {
-            programPrecompile = ProgramPrecompile.compile(ops);
+            programPrecompile = ProgramPrecompileCache.getInstance().get(ops);
         }
         return programPrecompile;
     }
@@ -333,7 +334,7 @@ public class Program {
     }
 
     public void memorySave(DataWord addrB, DataWord value) {
-        memory.write(addrB.intValue(), value.getData(), value.getData().length, false);
+        memory.writeWord(addrB.intValue(), value);
     }
 
     public void memorySave(int addr, byte[] value) {
@@ -13,8 +13,8 @@
 
 package org.gsc.runtime.vm.program;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import lombok.extern.slf4j.Slf4j;
 import org.gsc.runtime.config.VMConfig;
@@ -28,10 +28,41 @@ import org.gsc.runtime.vm.OpCode;
  */
 public class ProgramPrecompile {
 
-    private Set<Integer> jumpdest = new HashSet<>();
+    // a reference with compressed oops
+    private static final int REFERENCE_SIZE = 4;
+
+    // a DataWord, header and data field, with its 32 byte array and the array header
+    private static final int WORD_SIZE = 16 + 16 + 32;
+
+    /**
+     * the pc of every JUMPDEST instruction, a 0x5b byte inside push data is not one.
+     */
+    private final BitSet jumpdest = new BitSet();
+
+    /**
+     * the pc of every instruction, the bytes in between are push data.
+     */
+    private final BitSet instructions = new BitSet();
+
+    /**
+     * the decoded instruction at every pc, null for push data and undefined opcodes.
+     */
+    private final OpCode[] opCodes;
+
+    /**
+     * the data of every PUSH instruction as a word, at the pc of the instruction.
+     */
+    private final DataWord[] immediates;
+
+    private int pushCount;
+
+    private ProgramPrecompile(int length) {
+        opCodes = new OpCode[length];
+        immediates = new DataWord[length];
+    }
 
     public static ProgramPrecompile compile(byte[] ops) {
-        ProgramPrecompile ret = new ProgramPrecompile();
+        ProgramPrecompile ret = new ProgramPrecompile(ops.length);
         for (int i = 0; i < ops.length; ++i) {
 
             OpCode op = OpCode.code(ops[i]);
@@ -39,13 +70,18 @@ public class ProgramPrecompile {
                 continue;
             }
 
+            ret.instructions.set(i);
+            ret.opCodes[i] = op;
             if (op.equals(OpCode.JUMPDEST)) {
-                logger.debug("JUMPDEST:" + i);
-                ret.jumpdest.add(i);
+                ret.jumpdest.set(i);
             }
 
             if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
-                i += op.asInt() - OpCode.PUSH1.asInt() + 1;
+                int nPush = op.asInt() - OpCode.PUSH1.asInt() + 1;
+                // push data cut off by the end of the code is padded with zeroes, as Program.sweep
+                ret.immediates[i] = new DataWord(Arrays.copyOfRange(ops, i + 1, i + 1 + nPush));
+                ret.pushCount++;
+                i += nPush;
             }
         }
         return ret;
@@ -85,6 +121,36 @@ public class ProgramPrecompile {
     }
 
     public boolean hasJumpDest(int pc) {
-        return jumpdest.contains(pc);
+        return pc >= 0 && jumpdest.get(pc);
+    }
+
+    public boolean isInstruction(int pc) {
+        return pc >= 0 && instructions.get(pc);
+    }
+
+    /**
+     * @return the instruction at pc, null if pc is push data, an undefined opcode or out of the
+     * code.
+     */
+    public OpCode getOpCode(int pc) {
+        return pc >= 0 && pc < opCodes.length ? opCodes[pc] : null;
+    }
+
+    /**
+     * @return the data pushed by the PUSH instruction at pc, shared by every program running the
+     * code, so push a clone of it.
+     */
+    public DataWord getImmediate(int pc) {
+        return immediates[pc];
+    }
+
+    /**
+     * @return the approximate heap bytes taken by the analysed code, its weight in {@link
+     * ProgramPrecompileCache}: the opcode and immediate arrays, the words pushed and the two bit
+     * sets.
+     */
+    public int size() {
+        return opCodes.length * 2 * REFERENCE_SIZE + pushCount * WORD_SIZE
+                + 2 * (opCodes.length / Byte.SIZE + 1);
     }
 }
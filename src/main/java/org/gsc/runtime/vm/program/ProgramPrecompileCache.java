@@ -0,0 +1,73 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm.program;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import org.gsc.config.args.Args;
+import org.gsc.db.common.WrappedByteArray;
+
+/**
+ * Analysed bytecode shared by every program running the same code, across calls, transactions
+ * and threads, so a popular contract is scanned for its jump destinations once.
+ * The key is the code itself, compared by content: a contract whose code changes looks up
+ * different bytes, so an entry can never be stale and the code store needs no invalidation.
+ * The cache is bounded by the approximate heap bytes of the analysed code, see
+ * {@link ProgramPrecompile#size}.
+ */
+public class ProgramPrecompileCache {
+
+    private static final ProgramPrecompileCache INSTANCE =
+            new ProgramPrecompileCache(Args.getInstance().getCodeCacheSize());
+
+    private final boolean enabled;
+
+    private final Cache<WrappedByteArray, ProgramPrecompile> cache;
+
+    public ProgramPrecompileCache(long maximumBytes) {
+        enabled = maximumBytes > 0;
+        cache = CacheBuilder.newBuilder().maximumWeight(Math.max(maximumBytes, 0))
+                .weigher((WrappedByteArray code, ProgramPrecompile precompile) -> precompile.size())
+                .recordStats().build();
+    }
+
+    public static ProgramPrecompileCache getInstance() {
+        return INSTANCE;
+    }
+
+    public ProgramPrecompile get(byte[] ops) {
+        if (!enabled || ops.length == 0) {
+            return ProgramPrecompile.compile(ops);
+        }
+        ProgramPrecompile precompile = cache.getIfPresent(WrappedByteArray.of(ops));
+        if (precompile == null) {
+            precompile = ProgramPrecompile.compile(ops);
+            // the caller may still own ops, the key must not change under the cache
+            cache.put(WrappedByteArray.copyOf(ops), precompile);
+        }
+        return precompile;
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public String getStatistics() {
+        CacheStats stats = getStats();
+        return String.format("hit rate: %.4f (%d/%d), contracts: %d",
+                stats.hitRate(), stats.hitCount(), stats.requestCount(), cache.size());
+    }
+}
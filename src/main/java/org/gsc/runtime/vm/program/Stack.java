@@ -19,31 +19,69 @@ import org.gsc.runtime.vm.DataWord;
 import org.gsc.runtime.vm.program.listener.ProgramListener;
 import org.gsc.runtime.vm.program.listener.ProgramListenerAware;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * Operand stack of a program, a fixed array of {@link #MAX_SIZE} words. A program executes on one
+ * thread, so the stack is not synchronized; the listener is only set when the vm is traced.
+ */
+public class Stack implements ProgramListenerAware {
+
+    public static final int MAX_SIZE = 1024;
 
-    private static final long serialVersionUID = 1;
+    private final DataWord[] data = new DataWord[MAX_SIZE];
 
-    private transient ProgramListener programListener;
+    private int size = 0;
+
+    private ProgramListener programListener;
 
     @Override
     public void setProgramListener(ProgramListener listener) {
         this.programListener = listener;
     }
 
-    @Override
-    public synchronized DataWord pop() {
+    public DataWord pop() {
+        if (size == 0) {
+            throw Program.Exception.tooSmallStack(1, 0);
+        }
         if (programListener != null) {
             programListener.onStackPop();
         }
-        return super.pop();
+        DataWord item = data[--size];
+        data[size] = null;
+        return item;
     }
 
-    @Override
     public DataWord push(DataWord item) {
         if (programListener != null) {
             programListener.onStackPush(item);
         }
-        return super.push(item);
+        // the array store checks the capacity, the vm checks the stack limit before every op
+        data[size] = item;
+        size++;
+        return item;
+    }
+
+    public DataWord peek() {
+        if (size == 0) {
+            throw Program.Exception.tooSmallStack(1, 0);
+        }
+        return data[size - 1];
+    }
+
+    /**
+     * the word at the index, counted from the bottom of the stack.
+     */
+    public DataWord get(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return data[index];
+    }
+
+    /**
+     * pushes a copy of the n-th word from the top, 1 is the top.
+     */
+    public DataWord dup(int n) {
+        return push(get(size - n).clone());
     }
 
     public void swap(int from, int to) {
@@ -51,13 +89,22 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
             if (programListener != null) {
                 programListener.onStackSwap(from, to);
             }
-            DataWord tmp = get(from);
-            set(from, set(to, tmp));
+            DataWord tmp = data[from];
+            data[from] = data[to];
+            data[to] = tmp;
         }
     }
 
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
     private boolean isAccessible(int from) {
-        return from >= 0 && from < size();
+        return from >= 0 && from < size;
     }
 
     @Override
@@ -71,16 +118,36 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
         if (o.getClass() != this.getClass()) {
             return false;
         }
-        if (!super.equals(o)) {
+        Stack dataWords = (Stack) o;
+        if (size != dataWords.size) {
             return false;
         }
-        Stack dataWords = (Stack) o;
+        for (int i = 0; i < size; i++) {
+            if (!Objects.equals(data[i], dataWords.data[i])) {
+                return false;
+            }
+        }
         return Objects.equals(programListener, dataWords.programListener);
     }
 
-
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), programListener);
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + data[i].hashCode();
+        }
+        return Objects.hash(result, programListener);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(data[i]);
+        }
+        return builder.append("]").toString();
     }
 }
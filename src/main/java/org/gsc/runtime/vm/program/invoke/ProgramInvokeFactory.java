@@ -20,7 +20,7 @@ import org.gsc.runtime.vm.program.InternalTransaction.ExecutorType;
 import org.gsc.runtime.vm.program.Program;
 import org.gsc.db.dbsource.Deposit;
 import org.gsc.core.exception.ContractValidateException;
-import org.gsc.protos.Protocol.Block;
+import org.gsc.protos.Protocol.BlockHeader;
 import org.gsc.protos.Protocol.Transaction;
 
 /**
@@ -30,7 +30,7 @@ import org.gsc.protos.Protocol.Transaction;
 public interface ProgramInvokeFactory {
 
     ProgramInvoke createProgramInvoke(InternalTransaction.TrxType trxType, ExecutorType executorType,
-                                      Transaction tx, long tokenValue, long tokenId, Block block, Deposit deposit, long vmStartInUs,
+                                      Transaction tx, long tokenValue, long tokenId, BlockHeader header, Deposit deposit, long vmStartInUs,
                                       long vmShouldEndInUs,
                                       long cpuLimit) throws ContractValidateException;
 
@@ -31,7 +31,7 @@ import org.gsc.core.wrapper.ContractWrapper;
 import org.gsc.core.exception.ContractValidateException;
 import org.gsc.protos.Contract;
 import org.gsc.protos.Contract.CreateSmartContract;
-import org.gsc.protos.Protocol.Block;
+import org.gsc.protos.Protocol.BlockHeader;
 import org.gsc.protos.Protocol.Transaction;
 
 /**
@@ -45,7 +45,7 @@ public class ProgramInvokeFactoryImpl implements ProgramInvokeFactory {
     // Invocation by the wire tx
     @Override
     public ProgramInvoke createProgramInvoke(InternalTransaction.TrxType trxType,
-                                             ExecutorType executorType, Transaction tx, long tokenValue, long tokenId, Block block,
+                                             ExecutorType executorType, Transaction tx, long tokenValue, long tokenId, BlockHeader header,
                                              Deposit deposit, long vmStartInUs,
                                              long vmShouldEndInUs, long cpuLimit) throws ContractValidateException {
         byte[] contractAddress;
@@ -68,12 +68,12 @@ public class ProgramInvokeFactoryImpl implements ProgramInvokeFactory {
             switch (executorType) {
                 case ET_NORMAL_TYPE:
                 case ET_PRE_TYPE:
-                    if (null != block) {
-                        lastHash = block.getBlockHeader().getRawDataOrBuilder().getParentHash().toByteArray();
-                        coinbase = block.getBlockHeader().getRawDataOrBuilder().getWitnessAddress()
+                    if (null != header) {
+                        lastHash = header.getRawDataOrBuilder().getParentHash().toByteArray();
+                        coinbase = header.getRawDataOrBuilder().getWitnessAddress()
                                 .toByteArray();
-                        timestamp = block.getBlockHeader().getRawDataOrBuilder().getTimestamp() / 1000;
-                        number = block.getBlockHeader().getRawDataOrBuilder().getNumber();
+                        timestamp = header.getRawDataOrBuilder().getTimestamp() / 1000;
+                        number = header.getRawDataOrBuilder().getNumber();
                     }
                     break;
                 default:
@@ -115,16 +115,16 @@ public class ProgramInvokeFactoryImpl implements ProgramInvokeFactory {
                     break;
                 case ET_PRE_TYPE:
                 case ET_NORMAL_TYPE:
-                    if (null != block) {
+                    if (null != header) {
                         /***    PREVHASH  op  ***/
-                        lastHash = block.getBlockHeader().getRawDataOrBuilder().getParentHash().toByteArray();
+                        lastHash = header.getRawDataOrBuilder().getParentHash().toByteArray();
                         /***   COINBASE  op ***/
-                        coinbase = block.getBlockHeader().getRawDataOrBuilder().getWitnessAddress()
+                        coinbase = header.getRawDataOrBuilder().getWitnessAddress()
                                 .toByteArray();
                         /*** TIMESTAMP  op  ***/
-                        timestamp = block.getBlockHeader().getRawDataOrBuilder().getTimestamp() / 1000;
+                        timestamp = header.getRawDataOrBuilder().getTimestamp() / 1000;
                         /*** NUMBER  op  ***/
-                        number = block.getBlockHeader().getRawDataOrBuilder().getNumber();
+                        number = header.getRawDataOrBuilder().getNumber();
                     }
                     break;
                 default:
@@ -21,8 +21,6 @@ import static org.gsc.core.wrapper.utils.RLP.EMPTY_ELEMENT_RLP;
 import static org.gsc.core.wrapper.utils.RLP.encodeElement;
 import static org.gsc.core.wrapper.utils.RLP.encodeList;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -30,7 +28,8 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.text.StrBuilder;
@@ -51,14 +50,27 @@ public class TrieImpl implements Trie<byte[]> {
 
     private final static Object NULL_NODE = new Object();
     private final static int MIN_BRANCHES_CONCURRENTLY = 3;
-    private static ExecutorService executor;
+    private final static int MAX_DEPTH_CONCURRENTLY = 2;
+    private static volatile ExecutorService executor;
 
     private static final Logger logger = LoggerFactory.getLogger(TrieImpl.class);
 
+    /**
+     * a fork join pool: an encoding task waiting for the subtrees it forked helps executing them,
+     * so nested levels can be encoded concurrently without starving the pool.
+     */
     public static ExecutorService getExecutor() {
         if (executor == null) {
-            executor = Executors.newFixedThreadPool(4,
-                    new ThreadFactoryBuilder().setNameFormat("trie-calc-thread-%d").build());
+            synchronized (TrieImpl.class) {
+                if (executor == null) {
+                    executor = new ForkJoinPool(4, pool -> {
+                        ForkJoinWorkerThread thread =
+                                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("trie-calc-thread-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                }
+            }
         }
         return executor;
     }
@@ -139,9 +151,9 @@ public class TrieImpl implements Trie<byte[]> {
                 NodeType type = getType();
                 byte[] ret;
                 if (type == NodeType.BranchNode) {
-                    if (depth == 1 && async) {
-                        // parallelize encode() on the first trie level only and if there are at least
-                        // MIN_BRANCHES_CONCURRENTLY branches are modified
+                    if (depth <= MAX_DEPTH_CONCURRENTLY && async) {
+                        // parallelize encode() on the first MAX_DEPTH_CONCURRENTLY trie levels only
+                        // and if there are at least MIN_BRANCHES_CONCURRENTLY branches are modified
                         final Object[] encoded = new Object[17];
                         int encodeCnt = 0;
                         for (int i = 0; i < 16; i++) {
@@ -384,4 +384,30 @@ public class ByteUtil {
         return 0;
     }
 
+    public static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; ++i) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the smallest key greater than every key starting with {@code prefix}, null if there is none.
+     */
+    public static byte[] prefixUpperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; --i) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] bound = Arrays.copyOf(prefix, i + 1);
+                ++bound[i];
+                return bound;
+            }
+        }
+        return null;
+    }
+
 }
\ No newline at end of file
@@ -83,4 +83,27 @@ public class StorageTest {
     Assert.assertEquals(100, options.maxOpenFiles());
   }
 
+  @Test
+  public void getProfileOptions() {
+    Assert.assertEquals(Storage.DEFAULT_PROFILE, storage.getProfileByDbName("account"));
+    Assert.assertEquals(Storage.DEFAULT_PROFILE, storage.getProfileByDbName("some_name_not_exists"));
+    Assert.assertEquals(Storage.POINT_LOOKUP_PROFILE, storage.getProfileByDbName("storage_row"));
+    Assert.assertEquals("test_profile", storage.getProfileByDbName("test_profile_name"));
+
+    Options options = storage.getOptionsByDbName("storage_row");
+    Assert.assertEquals(CompressionType.SNAPPY, options.compressionType());
+    Assert.assertEquals(4 * 1024, options.blockSize());
+    Assert.assertEquals(16 * 1024 * 1024, options.writeBufferSize());
+    Assert.assertEquals(32 * 1024 * 1024L, options.cacheSize());
+    Assert.assertEquals(500, options.maxOpenFiles());
+    Assert.assertEquals(10, storage.getBloomFilterBitsByDbName("storage_row"));
+
+    options = storage.getOptionsByDbName("test_profile_name");
+    Assert.assertEquals(8192, options.blockSize());
+    Assert.assertEquals(16 * 1024 * 1024, options.writeBufferSize());
+    Assert.assertEquals(32 * 1024 * 1024L, options.cacheSize());
+    Assert.assertEquals(6, options.maxOpenFiles());
+    Assert.assertEquals(12, storage.getBloomFilterBitsByDbName("test_profile_name"));
+  }
+
 }
@@ -97,6 +97,31 @@ public class BlockWrapperTest {
     logger.info("Transaction[O] Merkle Root : {}", blockWrapper0.getMerkleRoot().toString());
   }
 
+  @Test
+  public void testAssembling() {
+    BlockWrapper assembled = new BlockWrapper(2, Sha256Hash.ZERO_HASH, 1234, ByteString.EMPTY,
+        ByteString.copyFrom("1234567".getBytes()));
+    BlockWrapper rebuilt = new BlockWrapper(2, Sha256Hash.ZERO_HASH, 1234, ByteString.EMPTY,
+        ByteString.copyFrom("1234567".getBytes()));
+    assembled.startAssembling();
+    for (long i = 1; i <= 10; i++) {
+      TransactionWrapper trx = new TransactionWrapper(TransferContract.newBuilder()
+          .setAmount(i)
+          .setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+          .build(), ContractType.TransferContract);
+      assembled.addTransaction(trx);
+      rebuilt.addTransaction(trx);
+      Assert.assertEquals(rebuilt.getInstance().getSerializedSize(),
+          assembled.getSerializedSize());
+    }
+    Assert.assertEquals(rebuilt.getInstance(), assembled.getInstance());
+    assembled.setMerkleRoot();
+    rebuilt.setMerkleRoot();
+    Assert.assertEquals(rebuilt.getInstance(), assembled.getInstance());
+    Assert.assertEquals(rebuilt.getInstance().getSerializedSize(),
+        assembled.getSerializedSize());
+  }
+
   @Test
   public void testGetData() {
     blockWrapper0.getData();
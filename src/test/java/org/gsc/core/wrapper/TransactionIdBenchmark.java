@@ -0,0 +1,93 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.core.wrapper;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gsc.protos.Contract.TransferContract;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+import org.gsc.utils.Sha256Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Transaction id hashing of one block, per transaction: applying a block reads each id
+ * READS times (duplicate check, signature check, transaction, history and cache stores).
+ * uncached hashes the raw data on every read as TransactionWrapper did before, cached goes
+ * through getTransactionId on a fresh wrapper, which hashes once and reuses the result.
+ * Run with gradle jmh -Pbenchmark=TransactionIdBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdBenchmark {
+
+  private static final int TRANSACTIONS = 1000;
+  private static final int READS = 5;
+
+  private List<Transaction> transactions = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      TransferContract contract = TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(Sha256Hash.hash(new byte[]{(byte) i})))
+          .setToAddress(ByteString.copyFrom(Sha256Hash.hash(new byte[]{(byte) ~i})))
+          .setAmount(i + 1)
+          .build();
+      TransactionWrapper trx = new TransactionWrapper(contract, ContractType.TransferContract);
+      trx.setReference(i, Sha256Hash.hash(new byte[]{(byte) (i >> 8)}));
+      trx.setExpiration(System.currentTimeMillis() + 60_000L);
+      transactions.add(trx.getInstance());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSACTIONS)
+  public void uncached(Blackhole blackhole) {
+    for (Transaction transaction : transactions) {
+      TransactionWrapper trx = new TransactionWrapper(transaction);
+      for (int i = 0; i < READS; i++) {
+        blackhole.consume(Sha256Hash.of(trx.getInstance().getRawData().toByteArray()));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSACTIONS)
+  public void cached(Blackhole blackhole) {
+    for (Transaction transaction : transactions) {
+      TransactionWrapper trx = new TransactionWrapper(transaction);
+      for (int i = 0; i < READS; i++) {
+        blackhole.consume(trx.getTransactionId());
+      }
+    }
+  }
+}
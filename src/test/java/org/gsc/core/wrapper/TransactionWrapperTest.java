@@ -17,19 +17,25 @@ import com.google.protobuf.ByteString;
 import java.io.File;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.gsc.application.Application;
 import org.gsc.application.ApplicationFactory;
 import org.gsc.application.GSCApplicationContext;
+import org.gsc.utils.ByteArray;
 import org.gsc.utils.FileUtil;
+import org.gsc.utils.Sha256Hash;
 import org.gsc.utils.StringUtil;
 import org.gsc.core.Constant;
 import org.gsc.core.Wallet;
 import org.gsc.config.DefaultConfig;
 import org.gsc.config.args.Args;
 import org.gsc.db.Manager;
+import org.gsc.protos.Contract.TransferContract;
 import org.gsc.protos.Protocol.AccountType;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
 
 @Slf4j
 public class TransactionWrapperTest {
@@ -100,6 +106,32 @@ public class TransactionWrapperTest {
     dbManager.getAccountStore().put(ownerWrapper.createDbKey(), ownerWrapper);
   }
 
+  @Test
+  public void transactionIdCache() {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(StringUtil.hexString2ByteString(OWNER_ADDRESS))
+        .setToAddress(StringUtil.hexString2ByteString(TO_ADDRESS))
+        .setAmount(100)
+        .build();
+    TransactionWrapper trx = new TransactionWrapper(contract, ContractType.TransferContract);
+    Sha256Hash id = trx.getTransactionId();
+    Assert.assertSame(id, trx.getTransactionId());
+    Assert.assertEquals(Sha256Hash.of(trx.getInstance().getRawData().toByteArray()), id);
+
+    trx.sign(ByteArray.fromHexString(OWNER_KEY));
+    Assert.assertEquals(id, trx.getTransactionId());
+
+    trx.setExpiration(trx.getExpiration() + 1000);
+    Assert.assertNotEquals(id, trx.getTransactionId());
+    Assert.assertEquals(Sha256Hash.of(trx.getInstance().getRawData().toByteArray()),
+        trx.getTransactionId());
+
+    id = trx.getTransactionId();
+    trx.setReference(1, new byte[32]);
+    Assert.assertNotEquals(id, trx.getTransactionId());
+    Assert.assertEquals(Sha256Hash.of(trx.getInstance().getRawData().toByteArray()),
+        trx.getTransactionId());
+  }
 
   @AfterClass
   public static void removeDb() {
@@ -0,0 +1,137 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.core.wrapper.utils;
+
+import com.google.protobuf.ByteString;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.gsc.core.exception.PermissionException;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.crypto.ECKey;
+import org.gsc.protos.Protocol.Key;
+import org.gsc.protos.Protocol.Permission;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.utils.Sha256Hash;
+
+public class SignatureCacheTest {
+
+  @Test
+  public void testAddress() throws Exception {
+    SignatureCache cache = new SignatureCache(10);
+    ECKey key = new ECKey();
+    byte[] hash = Sha256Hash.of("signature cache".getBytes()).getBytes();
+    ByteString sig = ByteString.copyFrom(key.sign(hash).toByteArray());
+    AtomicInteger recovered = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      byte[] address = cache.getAddress(hash, sig, () -> {
+        recovered.incrementAndGet();
+        return ECKey.signatureToAddress(hash, key.sign(hash).toBase64());
+      });
+      Assert.assertArrayEquals(key.getAddress(), address);
+    }
+    Assert.assertEquals(1, recovered.get());
+    Assert.assertEquals(2, cache.getAddressStats().hitCount());
+    Assert.assertEquals(1, cache.getAddressStats().missCount());
+  }
+
+  @Test
+  public void testWeight() throws Exception {
+    SignatureCache cache = new SignatureCache(10);
+    byte[] hash = Sha256Hash.of("signature cache".getBytes()).getBytes();
+    List<ByteString> sigs = Collections.singletonList(ByteString.copyFrom(new byte[65]));
+    Permission permission = Permission.newBuilder().setThreshold(1)
+        .addKeys(Key.newBuilder().setWeight(1)).build();
+    AtomicInteger checked = new AtomicInteger();
+
+    Assert.assertEquals(1, cache.getWeight(hash, sigs, permission, () -> {
+      checked.incrementAndGet();
+      return 1;
+    }));
+    Assert.assertEquals(1, cache.getWeight(hash, sigs, permission, () -> {
+      checked.incrementAndGet();
+      return 1;
+    }));
+    Assert.assertEquals(1, checked.get());
+
+    // a changed permission is checked again
+    Permission updated = permission.toBuilder().setThreshold(2).build();
+    Assert.assertEquals(2, cache.getWeight(hash, sigs, updated, () -> {
+      checked.incrementAndGet();
+      return 2;
+    }));
+    Assert.assertEquals(2, checked.get());
+
+    // failures are not cached
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.getWeight(hash, sigs, permission.toBuilder().setId(2).build(), () -> {
+          checked.incrementAndGet();
+          throw new PermissionException("Permission denied");
+        });
+        Assert.fail();
+      } catch (PermissionException e) {
+        Assert.assertEquals("Permission denied", e.getMessage());
+      }
+    }
+    Assert.assertEquals(4, checked.get());
+    Assert.assertEquals(1, cache.getWeightStats().hitCount());
+  }
+
+  @Test
+  public void testRecoverAddresses() throws Exception {
+    SignatureCache cache = new SignatureCache(10);
+    List<ECKey> keys = new ArrayList<>();
+    List<TransactionWrapper> transactions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ECKey key = new ECKey();
+      TransactionWrapper transaction = new TransactionWrapper(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder().setTimestamp(i)).build());
+      transaction.sign(key.getPrivKeyBytes());
+      keys.add(key);
+      transactions.add(transaction);
+    }
+    cache.recoverAddresses(transactions);
+
+    for (int i = 0; i < 3; i++) {
+      TransactionWrapper transaction = transactions.get(i);
+      byte[] address = cache.getAddress(transaction.getRawHash().getBytes(),
+          transaction.getInstance().getSignature(0), () -> {
+            throw new SignatureException("recovered again");
+          });
+      Assert.assertArrayEquals(keys.get(i).getAddress(), address);
+    }
+    Assert.assertEquals(3, cache.getAddressStats().hitCount());
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    SignatureCache cache = new SignatureCache(0);
+    byte[] hash = new byte[32];
+    ByteString sig = ByteString.copyFrom(new byte[65]);
+    AtomicInteger recovered = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      cache.getAddress(hash, sig, () -> {
+        recovered.incrementAndGet();
+        return new byte[23];
+      });
+    }
+    Assert.assertEquals(2, recovered.get());
+  }
+}
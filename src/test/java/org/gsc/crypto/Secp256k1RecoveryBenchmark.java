@@ -0,0 +1,87 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.crypto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gsc.crypto.ECKey.ECDSASignature;
+import org.gsc.utils.Sha256Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Public key recovery of the signatures of one block, per signature:
+ * ecKey is the generic spongycastle path of ECKey.recoverPubBytesFromSignature, single and
+ * batch are the recovery engine one signature at a time and all signatures at once.
+ * Run with gradle jmh -Pbenchmark=Secp256k1RecoveryBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Secp256k1RecoveryBenchmark {
+
+  private static final int SIGNATURES = 1000;
+
+  private List<ECDSASignature> sigs = new ArrayList<>();
+  private List<byte[]> hashes = new ArrayList<>();
+  private Secp256k1Recovery engine = new Secp256k1Recovery();
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < SIGNATURES; i++) {
+      ECKey key = new ECKey();
+      byte[] hash = Sha256Hash.of(key.getPubKey()).getBytes();
+      sigs.add(key.sign(hash));
+      hashes.add(hash);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public void ecKey(Blackhole blackhole) {
+    for (int i = 0; i < SIGNATURES; i++) {
+      ECDSASignature sig = sigs.get(i);
+      blackhole.consume(ECKey.recoverPubBytesFromSignature(sig.v - 27, sig, hashes.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public void single(Blackhole blackhole) {
+    for (int i = 0; i < SIGNATURES; i++) {
+      ECDSASignature sig = sigs.get(i);
+      blackhole.consume(engine.recover(sig.v - 27, sig, hashes.get(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public void batch(Blackhole blackhole) {
+    blackhole.consume(engine.recoverAll(sigs, hashes));
+  }
+}
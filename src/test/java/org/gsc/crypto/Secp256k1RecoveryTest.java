@@ -0,0 +1,108 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.crypto;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.gsc.crypto.ECKey.ECDSASignature;
+import org.gsc.utils.Sha256Hash;
+import org.spongycastle.util.encoders.Hex;
+
+public class Secp256k1RecoveryTest {
+
+  private static String recover(int recId, ECDSASignature sig, byte[] hash, boolean engine) {
+    try {
+      byte[] key = engine ? Secp256k1Recovery.recoverPubBytes(recId, sig, hash)
+          : ECKey.recoverPubBytesFromSignature(recId, sig, hash);
+      return key == null ? null : Hex.toHexString(key);
+    } catch (RuntimeException e) {
+      return e.getClass().getName();
+    }
+  }
+
+  private static ECDSASignature signature(BigInteger r, BigInteger s, int v) {
+    ECDSASignature sig = new ECDSASignature(r, s);
+    sig.v = (byte) v;
+    return sig;
+  }
+
+  @Test
+  public void testSameAsECKey() {
+    Random random = new Random(7);
+    BigInteger n = ECKey.CURVE.getN();
+    List<ECDSASignature> sigs = new ArrayList<>();
+    List<byte[]> hashes = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      ECKey key = new ECKey();
+      byte[] hash = Sha256Hash.of(key.getPubKey()).getBytes();
+      ECDSASignature signed = key.sign(hash);
+      BigInteger r = signed.r;
+      BigInteger s = signed.s;
+      if (i % 5 == 1) {
+        // mostly not on the curve
+        r = new BigInteger(256, random);
+      } else if (i % 5 == 2) {
+        r = n.add(BigInteger.valueOf(random.nextInt(1000)));
+      } else if (i % 5 == 3) {
+        s = BigInteger.ZERO;
+      }
+      for (int recId = 0; recId < 4; recId++) {
+        ECDSASignature sig = signature(r, s, recId + 27);
+        String result = recover(recId, sig, hash, false);
+        Assert.assertEquals(result, recover(recId, sig, hash, true));
+        sigs.add(sig);
+        hashes.add(hash);
+        expected.add(result == null || result.startsWith("java") ? null : result);
+      }
+      if (i % 5 == 0) {
+        Assert.assertEquals(Hex.toHexString(key.getPubKey()),
+            recover(signed.v - 27, signed, hash, true));
+      }
+    }
+
+    byte[][] keys = Secp256k1Recovery.recoverPubBytes(sigs, hashes);
+    Assert.assertEquals(sigs.size(), keys.length);
+    for (int i = 0; i < keys.length; i++) {
+      Assert.assertEquals(expected.get(i), keys[i] == null ? null : Hex.toHexString(keys[i]));
+    }
+  }
+
+  @Test
+  public void testInfinity() {
+    // R = G and s = e give s * R - e * G = 0
+    BigInteger x = ECKey.CURVE.getG().normalize().getAffineXCoord().toBigInteger();
+    byte[] hash = Sha256Hash.of("infinity".getBytes()).getBytes();
+    BigInteger e = new BigInteger(1, hash).mod(ECKey.CURVE.getN());
+    ECDSASignature sig = signature(x, e, 27);
+    String expected = recover(0, sig, hash, false);
+    Assert.assertEquals("00", expected);
+    Assert.assertEquals(expected, recover(0, sig, hash, true));
+    Assert.assertArrayEquals(new byte[1], Secp256k1Recovery.recoverPubBytes(
+        Collections.singletonList(sig), Collections.singletonList(hash))[0]);
+  }
+
+  @Test
+  public void testSignatureToAddress() throws Exception {
+    ECKey key = new ECKey();
+    byte[] hash = Sha256Hash.of("address".getBytes()).getBytes();
+    Assert.assertArrayEquals(key.getAddress(),
+        ECKey.signatureToAddress(hash, key.sign(hash).toBase64()));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.gsc.application.GSCApplicationContext;
+import org.gsc.config.DefaultConfig;
+import org.gsc.config.args.Args;
+import org.gsc.core.Constant;
+import org.gsc.core.wrapper.AssetIssueWrapper;
+import org.gsc.db.db2.core.ISession;
+import org.gsc.protos.Contract.AssetIssueContract;
+import org.gsc.utils.ByteArray;
+import org.gsc.utils.FileUtil;
+
+public class AssetIssueStoreTest {
+
+  private static final ByteString OWNER_ONE =
+      ByteString.copyFrom(ByteArray.fromHexString("121212a9cf"));
+  private static final ByteString OWNER_TWO =
+      ByteString.copyFrom(ByteArray.fromHexString("232323a9cf"));
+  private static String dbPath = "db_AssetIssueStore_test";
+  private static GSCApplicationContext context;
+  private static AssetIssueV2Store assetIssueV2Store;
+  private static RevokingDatabase revokingDatabase;
+
+  static {
+    Args.setParam(new String[]{"--db-directory", dbPath}, Constant.TEST_NET_CONF);
+    context = new GSCApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    assetIssueV2Store = context.getBean(AssetIssueV2Store.class);
+    revokingDatabase = context.getBean(RevokingDatabase.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static AssetIssueWrapper assetIssue(String id, String name, ByteString owner) {
+    return new AssetIssueWrapper(AssetIssueContract.newBuilder()
+        .setId(id)
+        .setName(ByteString.copyFromUtf8(name))
+        .setOwnerAddress(owner)
+        .build());
+  }
+
+  private static void put(AssetIssueWrapper assetIssue) {
+    assetIssueV2Store.put(ByteArray.fromString(assetIssue.getId()), assetIssue);
+  }
+
+  @Test
+  public void testIndex() {
+    put(assetIssue("1000001", "b", OWNER_ONE));
+    put(assetIssue("1000002", "a", OWNER_TWO));
+    put(assetIssue("1000003", "b", OWNER_TWO));
+    put(assetIssue("1000004", "ab", OWNER_ONE));
+
+    List<AssetIssueWrapper> list = assetIssueV2Store.getAssetIssuesByOwner(OWNER_ONE);
+    Assert.assertEquals(2, list.size());
+    list = assetIssueV2Store.getAssetIssuesByName(ByteString.copyFromUtf8("b"));
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals("1000001", list.get(0).getId());
+    Assert.assertEquals("1000003", list.get(1).getId());
+
+    list = assetIssueV2Store.getAssetIssuesPaginated(1, 2);
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals("1000004", list.get(0).getId());
+    Assert.assertEquals("1000001", list.get(1).getId());
+    Assert.assertNull(assetIssueV2Store.getAssetIssuesPaginated(100, 2));
+
+    // renamed and transferred asset leaves no stale entry
+    put(assetIssue("1000001", "c", OWNER_TWO));
+    Assert.assertEquals(1, assetIssueV2Store.getAssetIssuesByOwner(OWNER_ONE).size());
+    Assert.assertEquals(1,
+        assetIssueV2Store.getAssetIssuesByName(ByteString.copyFromUtf8("b")).size());
+
+    assetIssueV2Store.delete(ByteArray.fromString("1000004"));
+    Assert.assertTrue(assetIssueV2Store.getAssetIssuesByOwner(OWNER_ONE).isEmpty());
+  }
+
+  @Test
+  public void testRevoke() {
+    ByteString owner = ByteString.copyFrom(ByteArray.fromHexString("343434a9cf"));
+    put(assetIssue("2000001", "revoke", owner));
+    revokingDatabase.enable();
+    try (ISession session = revokingDatabase.buildSession()) {
+      put(assetIssue("2000002", "revoke", owner));
+      assetIssueV2Store.delete(ByteArray.fromString("2000001"));
+      List<AssetIssueWrapper> list = assetIssueV2Store.getAssetIssuesByOwner(owner);
+      Assert.assertEquals(1, list.size());
+      Assert.assertEquals("2000002", list.get(0).getId());
+    }
+    revokingDatabase.disable();
+
+    List<AssetIssueWrapper> list = assetIssueV2Store.getAssetIssuesByName(
+        ByteString.copyFromUtf8("revoke"));
+    Assert.assertEquals(1, list.size());
+    Assert.assertEquals("2000001", list.get(0).getId());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import java.io.File;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.gsc.application.Application;
+import org.gsc.application.ApplicationFactory;
+import org.gsc.application.GSCApplicationContext;
+import org.gsc.utils.FileUtil;
+import org.gsc.core.Constant;
+import org.gsc.config.DefaultConfig;
+import org.gsc.config.args.Args;
+import org.gsc.db.db2.core.ISession;
+
+@Slf4j
+public class DynamicPropertiesStoreTest {
+
+  private static final String dbPath = "db_dynamicPropertiesStore_test";
+  private static GSCApplicationContext context;
+  private static Application AppT;
+  private static Manager dbManager;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_NET_CONF);
+    context = new GSCApplicationContext(DefaultConfig.class);
+    AppT = ApplicationFactory.create(context);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    AppT.shutdownServices();
+    AppT.shutdown();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Test
+  public void cachedPropertyFollowsSession() {
+    DynamicPropertiesStore store = dbManager.getDynamicPropertiesStore();
+    store.saveMultiSignFee(100L);
+    store.saveTotalSignNum(3);
+    Assert.assertEquals(100L, store.getMultiSignFee());
+    Assert.assertEquals(3, store.getTotalSignNum());
+
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      store.saveMultiSignFee(200L);
+      store.saveTotalSignNum(4);
+      Assert.assertEquals(200L, store.getMultiSignFee());
+      Assert.assertEquals(4, store.getTotalSignNum());
+    }
+    Assert.assertEquals(100L, store.getMultiSignFee());
+    Assert.assertEquals(3, store.getTotalSignNum());
+
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      store.saveMultiSignFee(300L);
+      try (ISession tmpSession = dbManager.getRevokingStore().buildSession()) {
+        store.saveMultiSignFee(400L);
+        tmpSession.merge();
+      }
+      Assert.assertEquals(400L, store.getMultiSignFee());
+      session.commit();
+    }
+    Assert.assertEquals(400L, store.getMultiSignFee());
+  }
+}
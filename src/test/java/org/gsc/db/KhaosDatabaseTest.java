@@ -17,6 +17,8 @@ import com.google.protobuf.ByteString;
 import java.io.File;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.gsc.core.wrapper.BlockWrapper;
 import org.junit.AfterClass;
@@ -100,6 +102,40 @@ public class KhaosDatabaseTest {
     Assert.assertNull("removeBlk is error", khaosDatabase.getBlock(blockWrapper2.getBlockId()));
   }
 
+  @Test
+  public void testPrune() throws UnLinkedBlockException, BadNumberBlockException {
+    BlockWrapper parent = new BlockWrapper(Block.newBuilder().setBlockHeader(
+        BlockHeader.newBuilder().setRawData(raw.newBuilder().setParentHash(ByteString.copyFrom(
+            ByteArray
+                .fromHexString("0304f784e4e7bae517bcab94c3e0c9214fb4ac7ff9d7d5a937d1f40031f87b83")))
+            .setNumber(0)
+        )).build());
+    List<BlockWrapper> blocks = new ArrayList<>();
+    blocks.add(parent);
+    khaosDatabase.setMaxSize(3);
+    khaosDatabase.start(parent);
+    for (int i = 1; i < 10; i++) {
+      parent = new BlockWrapper(Block.newBuilder().setBlockHeader(
+          BlockHeader.newBuilder().setRawData(raw.newBuilder().setParentHash(ByteString.copyFrom(
+              parent.getBlockId().getBytes())).setNumber(i))).build());
+      blocks.add(parent);
+      Assert.assertEquals(parent, khaosDatabase.push(parent));
+    }
+    khaosDatabase.setMaxSize(1024);
+
+    for (int i = 0; i < 6; i++) {
+      Assert.assertFalse(khaosDatabase.containBlock(blocks.get(i).getBlockId()));
+      Assert.assertTrue(khaosDatabase.getMiniStore().getBlockByNum((long) i).isEmpty());
+    }
+    for (int i = 6; i < 10; i++) {
+      Assert.assertTrue(khaosDatabase.containBlock(blocks.get(i).getBlockId()));
+      Assert.assertEquals(blocks.get(i),
+          khaosDatabase.getMiniStore().getBlockByNum((long) i).get(0).getBlk());
+    }
+
+    khaosDatabase.removeBlk(blocks.get(9).getBlockId());
+    Assert.assertEquals(blocks.get(8), khaosDatabase.getHead());
+  }
 
   @Test
   public void checkWeakReference() throws UnLinkedBlockException, BadNumberBlockException {
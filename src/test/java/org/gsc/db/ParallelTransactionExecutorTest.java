@@ -0,0 +1,192 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+import org.gsc.application.GSCApplicationContext;
+import org.gsc.config.DefaultConfig;
+import org.gsc.config.args.Args;
+import org.gsc.core.Constant;
+import org.gsc.core.exception.ContractValidateException;
+import org.gsc.core.wrapper.AccountWrapper;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.crypto.ECKey;
+import org.gsc.db.db2.core.ISession;
+import org.gsc.protos.Contract.TransferContract;
+import org.gsc.protos.Protocol.AccountType;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+import org.gsc.protos.Protocol.TransactionInfo;
+import org.gsc.utils.FileUtil;
+
+/**
+ * Differential test: the same transactions executed serially and in parallel must leave the
+ * same rows and produce the same results.
+ */
+public class ParallelTransactionExecutorTest {
+
+  private static final long BALANCE = 100_000_000_000L;
+  private static final long FROZEN = 10_000_000_000L;
+
+  private static String dbPath = "db_ParallelTransactionExecutor_test";
+  private static GSCApplicationContext context;
+  private static Manager dbManager;
+  private static ParallelTransactionExecutor executor;
+  private static List<byte[]> addresses = new ArrayList<>();
+
+  static {
+    Args.setParam(new String[]{"--db-directory", dbPath}, Constant.TEST_NET_CONF);
+    context = new GSCApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() throws Exception {
+    dbManager = context.getBean(Manager.class);
+    executor = new ParallelTransactionExecutor(4);
+    dbManager.updateRecentBlock(dbManager.getBlockById(
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash()));
+
+    // 0 - 9 pay with frozen net, 10 - 19 with the shared free net, 20 - 22 do not exist
+    for (int i = 0; i < 23; i++) {
+      byte[] address = new ECKey().getAddress();
+      addresses.add(address);
+      if (i >= 20) {
+        continue;
+      }
+      AccountWrapper account = new AccountWrapper(ByteString.copyFromUtf8("account" + i),
+          ByteString.copyFrom(address), AccountType.Normal, BALANCE);
+      if (i < 10) {
+        account.setFrozenForNet(FROZEN, Long.MAX_VALUE);
+      }
+      dbManager.getAccountStore().put(address, account);
+    }
+    dbManager.getDynamicPropertiesStore().saveTotalNetWeight(10 * FROZEN / 1_000_000L);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    executor.shutdown();
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static TransactionWrapper transfer(int from, int to, long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(addresses.get(from)))
+        .setToAddress(ByteString.copyFrom(addresses.get(to)))
+        .setAmount(amount)
+        .build();
+    TransactionWrapper trx = new TransactionWrapper(contract, ContractType.TransferContract);
+    trx.setReference(dbManager.getHeadBlockNum(),
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash().getBytes());
+    trx.setExpiration(dbManager.getHeadBlockTimeStamp() + 60_000);
+    return trx;
+  }
+
+  private static List<TransactionWrapper> transactions() {
+    List<TransactionWrapper> transactions = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      transactions.add(transfer(i, 10 + i, 1_000_000 + i));
+    }
+    for (int i = 0; i < 10; i++) {
+      transactions.add(transfer(i, 10 + (i + 1) % 10, 2_000_000 + i));
+    }
+    for (int i = 10; i < 15; i++) {
+      transactions.add(transfer(i, i - 10, 3_000_000 + i));
+    }
+    transactions.add(transfer(0, 20, 4_000_000));
+    transactions.add(transfer(1, 21, 4_000_001));
+    transactions.add(transfer(20, 22, 1_000_000));
+    return transactions;
+  }
+
+  /**
+   * executes fresh copies of the transactions in a session that is revoked afterwards.
+   */
+  private static Map<String, String> execute(List<TransactionWrapper> transactions,
+      ParallelTransactionExecutor executor) throws Exception {
+    List<TransactionWrapper> copies = new ArrayList<>();
+    for (TransactionWrapper trx : transactions) {
+      TransactionWrapper copy = new TransactionWrapper(trx.getInstance());
+      copy.setVerified(true);
+      copies.add(copy);
+    }
+
+    Map<String, String> rows = new TreeMap<>();
+    try (ISession session = dbManager.getRevokingStore().buildSession()) {
+      List<TransactionInfo> results = dbManager.processTransactions(copies, null, executor);
+      for (int i = 0; i < results.size(); i++) {
+        rows.put("result " + i, Hex.toHexString(results.get(i).toByteArray()));
+        rows.put("receipt " + i,
+            Hex.toHexString(copies.get(i).getTrxTrace().getReceipt().getReceipt().toByteArray()));
+        rows.put("transaction " + i, String.valueOf(dbManager.getTransactionStore()
+            .has(copies.get(i).getTransactionId().getBytes())));
+      }
+      for (byte[] address : addresses) {
+        AccountWrapper account = dbManager.getAccountStore().get(address);
+        rows.put("account " + Hex.toHexString(address),
+            account == null ? "" : Hex.toHexString(account.getData()));
+      }
+      DynamicPropertiesStore properties = dbManager.getDynamicPropertiesStore();
+      rows.put("public net usage", String.valueOf(properties.getPublicNetUsage()));
+      rows.put("public net time", String.valueOf(properties.getPublicNetTime()));
+      rows.put("transaction cost", String.valueOf(properties.getTotalTransactionCost()));
+      rows.put("create account cost", String.valueOf(properties.getTotalCreateAccountCost()));
+    }
+    return rows;
+  }
+
+  @Test
+  public void testSameAsSerial() throws Exception {
+    List<TransactionWrapper> transactions = transactions();
+    Map<String, String> serial = execute(transactions, null);
+    long committed = executor.getCommittedCount();
+    Map<String, String> parallel = execute(transactions, executor);
+
+    Assert.assertEquals(serial, parallel);
+    Assert.assertTrue(executor.getStatistics(), executor.getCommittedCount() > committed);
+    // the session was revoked, so a second serial run sees the same state
+    Assert.assertEquals(serial, execute(transactions, null));
+  }
+
+  @Test
+  public void testSameFailure() throws Exception {
+    List<TransactionWrapper> transactions = transactions();
+    transactions.add(12, transfer(3, 4, BALANCE * 2));
+    String serial = null;
+    String parallel = null;
+    try {
+      execute(transactions, null);
+    } catch (ContractValidateException e) {
+      serial = e.getMessage();
+    }
+    try {
+      execute(transactions, executor);
+    } catch (ContractValidateException e) {
+      parallel = e.getMessage();
+    }
+    Assert.assertNotNull(serial);
+    Assert.assertEquals(serial, parallel);
+  }
+}
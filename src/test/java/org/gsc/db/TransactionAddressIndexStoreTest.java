@@ -0,0 +1,161 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.gsc.application.GSCApplicationContext;
+import org.gsc.config.DefaultConfig;
+import org.gsc.config.args.Args;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.db.TransactionAddressIndexStore.Direction;
+import org.gsc.db.db2.core.ISession;
+import org.gsc.protos.Contract.TransferContract;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.protos.Protocol.Transaction.Contract;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+import org.gsc.utils.ByteArray;
+import org.gsc.utils.FileUtil;
+
+public class TransactionAddressIndexStoreTest {
+
+  private static final byte[] OWNER = ByteArray.fromHexString("121212a9cf");
+  private static final byte[] TO = ByteArray.fromHexString("232323a9cf");
+  private static final byte[] OTHER = ByteArray.fromHexString("343434a9cf");
+  private static final byte[] PENDING = ByteArray.fromHexString("454545a9cf");
+  private static String dbPath = "db_TransactionAddressIndexStore_test";
+  private static GSCApplicationContext context;
+  private static TransactionAddressIndexStore store;
+  private static RevokingDatabase revokingDatabase;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, "config-test-index.conf");
+    Args.getInstance().setConfirmedNode(true);
+    context = new GSCApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    store = context.getBean(TransactionAddressIndexStore.class);
+    revokingDatabase = context.getBean(RevokingDatabase.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static TransactionWrapper transaction(long blockNum, int index) {
+    return transaction(OWNER, TO, blockNum, index);
+  }
+
+  private static TransactionWrapper transaction(byte[] owner, byte[] to, long blockNum,
+      int index) {
+    TransferContract transferContract = TransferContract.newBuilder()
+        .setAmount(blockNum * 10 + index)
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .setToAddress(ByteString.copyFrom(to))
+        .build();
+    TransactionWrapper transactionWrapper = new TransactionWrapper(Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .addContract(Contract.newBuilder()
+                .setType(ContractType.TransferContract)
+                .setParameter(Any.pack(transferContract))))
+        .build());
+    transactionWrapper.setBlockNum(blockNum);
+    transactionWrapper.setBlockIndex(index);
+    return transactionWrapper;
+  }
+
+  private static byte[] id(long blockNum, int index) {
+    return transaction(blockNum, index).getTransactionId().getBytes();
+  }
+
+  private static byte[] id(byte[] owner, long blockNum, int index) {
+    return transaction(owner, OTHER, blockNum, index).getTransactionId().getBytes();
+  }
+
+  @Test
+  public void testPagination() {
+    Assert.assertTrue(store.isEnabled());
+    for (long blockNum = 1; blockNum <= 3; blockNum++) {
+      for (int index = 0; index < 2; index++) {
+        store.put(transaction(blockNum, index));
+      }
+    }
+
+    List<byte[]> ids = store.getTransactionIds(OWNER, Direction.FROM, 0, 10, false);
+    Assert.assertEquals(6, ids.size());
+    Assert.assertArrayEquals(id(1, 0), ids.get(0));
+    Assert.assertArrayEquals(id(3, 1), ids.get(5));
+
+    ids = store.getTransactionIds(OWNER, Direction.FROM, 1, 2, false);
+    Assert.assertEquals(2, ids.size());
+    Assert.assertArrayEquals(id(1, 1), ids.get(0));
+    Assert.assertArrayEquals(id(2, 0), ids.get(1));
+
+    ids = store.getTransactionIds(TO, Direction.TO, 0, 2, true);
+    Assert.assertEquals(2, ids.size());
+    Assert.assertArrayEquals(id(3, 1), ids.get(0));
+    Assert.assertArrayEquals(id(3, 0), ids.get(1));
+
+    Assert.assertTrue(store.getTransactionIds(TO, Direction.FROM, 0, 10, false).isEmpty());
+    Assert.assertTrue(store.getTransactionIds(OWNER, Direction.TO, 0, 10, true).isEmpty());
+  }
+
+  @Test
+  public void testRevoke() {
+    store.put(transaction(OTHER, OTHER, 10, 0));
+    store.put(transaction(OTHER, OTHER, 12, 0));
+    revokingDatabase.enable();
+    try (ISession session = revokingDatabase.buildSession()) {
+      store.put(transaction(OTHER, OTHER, 11, 0));
+      store.delete(transaction(OTHER, OTHER, 10, 0));
+      List<byte[]> ids = store.getTransactionIds(OTHER, Direction.FROM, 0, 10, false);
+      Assert.assertEquals(2, ids.size());
+      Assert.assertArrayEquals(id(OTHER, 11, 0), ids.get(0));
+      Assert.assertArrayEquals(id(OTHER, 12, 0), ids.get(1));
+      ids = store.getTransactionIds(OTHER, Direction.FROM, 1, 1, true);
+      Assert.assertArrayEquals(id(OTHER, 11, 0), ids.get(0));
+    }
+    revokingDatabase.disable();
+
+    List<byte[]> ids = store.getTransactionIds(OTHER, Direction.FROM, 0, 10, false);
+    Assert.assertEquals(2, ids.size());
+    Assert.assertArrayEquals(id(OTHER, 10, 0), ids.get(0));
+    Assert.assertArrayEquals(id(OTHER, 12, 0), ids.get(1));
+  }
+
+  @Test
+  public void testPendingNotIndexed() {
+    // pending transactions have no block yet
+    store.put(transaction(PENDING, OTHER, -1, -1));
+    store.put(transaction(PENDING, TO, -1, -1));
+    Assert.assertTrue(store.getTransactionIds(PENDING, Direction.FROM, 0, 10, false).isEmpty());
+
+    store.put(transaction(PENDING, OTHER, 20, 0));
+    store.put(transaction(PENDING, TO, 20, 1));
+    List<byte[]> ids = store.getTransactionIds(PENDING, Direction.FROM, 0, 10, false);
+    Assert.assertEquals(2, ids.size());
+    Assert.assertArrayEquals(id(PENDING, 20, 0), ids.get(0));
+  }
+}
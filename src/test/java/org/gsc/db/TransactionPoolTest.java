@@ -0,0 +1,132 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.protos.Contract.TransferContract;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.protos.Protocol.Transaction.Contract;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+
+public class TransactionPoolTest {
+
+  private static TransactionWrapper transaction(int sender, long amount) {
+    TransferContract transferContract = TransferContract.newBuilder()
+        .setAmount(amount)
+        .setOwnerAddress(ByteString.copyFrom(new byte[]{(byte) sender}))
+        .setToAddress(ByteString.copyFrom(new byte[]{(byte) 0xff}))
+        .build();
+    return new TransactionWrapper(Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .addContract(Contract.newBuilder()
+                .setType(ContractType.TransferContract)
+                .setParameter(Any.pack(transferContract))))
+        .build());
+  }
+
+  @Test
+  public void testOrder() {
+    TransactionPool pool = new TransactionPool(10);
+    TransactionWrapper a1 = transaction(1, 1);
+    TransactionWrapper a2 = transaction(1, 2);
+    TransactionWrapper b1 = transaction(2, 1);
+    TransactionWrapper c1 = transaction(3, 1);
+    Assert.assertTrue(pool.add(a1, 1));
+    // pays more, but waits for the transaction of its sender before it
+    Assert.assertTrue(pool.add(a2, 10));
+    Assert.assertTrue(pool.add(b1, 5));
+    Assert.assertTrue(pool.add(c1, 1));
+    Assert.assertFalse(pool.add(b1, 5));
+
+    Assert.assertEquals(Arrays.asList(b1, a1, a2, c1), pool.snapshot());
+    Assert.assertEquals(4, pool.size());
+  }
+
+  @Test
+  public void testRemove() {
+    TransactionPool pool = new TransactionPool(10);
+    TransactionWrapper a1 = transaction(1, 1);
+    TransactionWrapper a2 = transaction(1, 2);
+    TransactionWrapper b1 = transaction(2, 1);
+    pool.add(a1, 0);
+    pool.add(a2, 0);
+    pool.add(b1, 0);
+
+    Assert.assertTrue(pool.remove(a1.getTransactionId()));
+    Assert.assertFalse(pool.remove(a1.getTransactionId()));
+    Assert.assertFalse(pool.contains(a1.getTransactionId()));
+    Assert.assertEquals(Arrays.asList(a2, b1), pool.snapshot());
+
+    List<TransactionWrapper> drained = pool.drain();
+    Assert.assertEquals(Arrays.asList(a2, b1), drained);
+    Assert.assertTrue(pool.isEmpty());
+    Assert.assertTrue(pool.snapshot().isEmpty());
+  }
+
+  @Test
+  public void testFull() {
+    TransactionPool pool = new TransactionPool(3);
+    TransactionWrapper a1 = transaction(1, 1);
+    TransactionWrapper a2 = transaction(1, 2);
+    TransactionWrapper b1 = transaction(2, 1);
+    pool.add(a1, 1);
+    pool.add(a2, 1);
+    pool.add(b1, 3);
+    Assert.assertTrue(pool.isFull());
+
+    // even a better paying transaction waits, nothing pooled is dropped
+    Assert.assertFalse(pool.add(transaction(3, 1), 10));
+    Assert.assertEquals(Arrays.asList(b1, a1, a2), pool.snapshot());
+
+    pool.remove(a1);
+    Assert.assertFalse(pool.isFull());
+    TransactionWrapper c1 = transaction(3, 2);
+    Assert.assertTrue(pool.add(c1, 2));
+    Assert.assertEquals(Arrays.asList(b1, c1, a2), pool.snapshot());
+  }
+
+  @Test
+  public void testDrainInArrivalOrder() {
+    TransactionPool pool = new TransactionPool(10);
+    // a1 funds b, b1 spends it and pays more
+    TransactionWrapper a1 = transaction(1, 1);
+    TransactionWrapper b1 = transaction(2, 1);
+    TransactionWrapper a2 = transaction(1, 2);
+    pool.add(a1, 1);
+    pool.add(b1, 10);
+    pool.add(a2, 1);
+
+    Assert.assertEquals(Arrays.asList(b1, a1, a2), pool.snapshot());
+    Assert.assertEquals(Arrays.asList(a1, b1, a2), pool.drain());
+    Assert.assertTrue(pool.isEmpty());
+  }
+
+  @Test
+  public void testSnapshotWhileAdding() {
+    TransactionPool pool = new TransactionPool(100);
+    for (int i = 0; i < 10; i++) {
+      pool.add(transaction(i, 1), i);
+    }
+    List<TransactionWrapper> snapshot = pool.snapshot();
+    pool.add(transaction(20, 1), 100);
+    Assert.assertEquals(10, snapshot.size());
+    Assert.assertEquals(11, pool.snapshot().size());
+  }
+}
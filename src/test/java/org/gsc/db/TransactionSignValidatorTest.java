@@ -0,0 +1,109 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.gsc.application.GSCApplicationContext;
+import org.gsc.config.DefaultConfig;
+import org.gsc.config.args.Args;
+import org.gsc.core.Constant;
+import org.gsc.core.exception.ValidateSignatureException;
+import org.gsc.core.wrapper.TransactionWrapper;
+import org.gsc.crypto.ECKey;
+import org.gsc.protos.Contract.TransferContract;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.protos.Protocol.Transaction.Contract;
+import org.gsc.protos.Protocol.Transaction.Contract.ContractType;
+import org.gsc.utils.FileUtil;
+
+public class TransactionSignValidatorTest {
+
+  private static String dbPath = "db_TransactionSignValidator_test";
+  private static GSCApplicationContext context;
+  private static TransactionSignValidator validator;
+
+  static {
+    Args.setParam(new String[]{"--db-directory", dbPath}, Constant.TEST_NET_CONF);
+    context = new GSCApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    validator = new TransactionSignValidator(context.getBean(Manager.class), 4);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    validator.shutdown();
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static List<TransactionWrapper> transactions(int count, long amount) {
+    List<TransactionWrapper> transactions = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ECKey key = new ECKey();
+      TransferContract transferContract = TransferContract.newBuilder()
+          .setAmount(amount + i)
+          .setOwnerAddress(ByteString.copyFrom(key.getAddress()))
+          .setToAddress(ByteString.copyFrom(new ECKey().getAddress()))
+          .build();
+      TransactionWrapper transaction = new TransactionWrapper(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder()
+              .addContract(Contract.newBuilder()
+                  .setType(ContractType.TransferContract)
+                  .setParameter(Any.pack(transferContract))))
+          .build());
+      transaction.sign(key.getPrivKeyBytes());
+      transactions.add(transaction);
+    }
+    return transactions;
+  }
+
+  @Test
+  public void testValidate() throws Exception {
+    List<TransactionWrapper> transactions = transactions(100, 1);
+    validator.validate(transactions);
+    for (TransactionWrapper transaction : transactions) {
+      Assert.assertTrue(transaction.isVerified());
+    }
+  }
+
+  @Test
+  public void testInvalidSignature() throws Exception {
+    List<TransactionWrapper> transactions = transactions(100, 1000);
+    // signed by another key than the owner
+    TransactionWrapper forged = transactions(1, 1000).get(0);
+    TransactionWrapper invalid = new TransactionWrapper(forged.getInstance().toBuilder()
+        .clearSignature()
+        .addSignature(transactions.get(0).getInstance().getSignature(0))
+        .build());
+    transactions.set(50, invalid);
+    try {
+      validator.validate(transactions);
+      Assert.fail();
+    } catch (ValidateSignatureException e) {
+      Assert.assertFalse(invalid.isVerified());
+    }
+  }
+}
@@ -192,6 +192,59 @@ public class TransactionStoreTest {
         trxStore.get(trx.getTransactionId().getBytes()).getInstance(), trx.getInstance());
   }
 
+  @Test
+  public void GetTransactionByPositionTest() throws BadItemException {
+    final BlockStore blockStore = dbManager.getBlockStore();
+    final TransactionStore trxStore = dbManager.getTransactionStore();
+    String key = "f31db24bfbd1a2ef19beddca0a0fa37632eded9ac666a05d3bd925f01dde1f62";
+
+    BlockWrapper blockWrapper =
+        new BlockWrapper(
+            2,
+            Sha256Hash.wrap(dbManager.getGenesisBlockId().getByteString()),
+            2, ByteString.EMPTY,
+            ByteString.copyFrom(
+                ECKey.fromPrivate(
+                    ByteArray.fromHexString(key)).getAddress()));
+
+    TransactionWrapper[] trxs = new TransactionWrapper[3];
+    for (int i = 0; i < trxs.length; i++) {
+      TransferContract tc =
+          TransferContract.newBuilder()
+              .setAmount(20 + i)
+              .setOwnerAddress(ByteString.copyFromUtf8("aaa"))
+              .setToAddress(ByteString.copyFromUtf8("bbb"))
+              .build();
+      trxs[i] = new TransactionWrapper(tc, ContractType.TransferContract);
+      blockWrapper.addTransaction(trxs[i]);
+    }
+    blockStore.put(blockWrapper.getBlockId().getBytes(), blockWrapper);
+
+    // save in database with block number and index in block
+    trxs[2].setBlockNum(blockWrapper.getNum());
+    trxs[2].setBlockIndex(2);
+    trxStore.put(trxs[2].getTransactionId().getBytes(), trxs[2]);
+    Assert.assertEquals(2, trxStore.getBlockIndex(trxs[2].getTransactionId().getBytes()));
+    Assert.assertEquals(blockWrapper.getNum(),
+        trxStore.getBlockNumber(trxs[2].getTransactionId().getBytes()));
+    Assert.assertEquals("Get transaction is error",
+        trxStore.get(trxs[2].getTransactionId().getBytes()).getInstance(),
+        trxs[2].getInstance());
+
+    // legacy entry with block number only, then rewritten with position
+    trxs[1].setBlockNum(blockWrapper.getNum());
+    trxStore.put(trxs[1].getTransactionId().getBytes(), trxs[1]);
+    Assert.assertEquals(-1, trxStore.getBlockIndex(trxs[1].getTransactionId().getBytes()));
+    Assert.assertTrue(trxStore.updatePosition(trxs[1].getTransactionId().getBytes(),
+        blockWrapper.getNum(), 1));
+    Assert.assertFalse(trxStore.updatePosition(trxs[1].getTransactionId().getBytes(),
+        blockWrapper.getNum(), 1));
+    Assert.assertEquals(1, trxStore.getBlockIndex(trxs[1].getTransactionId().getBytes()));
+    Assert.assertEquals("Get transaction is error",
+        trxStore.get(trxs[1].getTransactionId().getBytes()).getInstance(),
+        trxs[1].getInstance());
+  }
+
   /**
    * put and get CreateAccountTransaction.
    */
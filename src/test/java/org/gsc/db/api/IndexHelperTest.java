@@ -169,9 +169,6 @@ public class IndexHelperTest {
     int sizeOfWitness = getIndexSizeOfWitness();
     Assert.assertEquals("witness index num", 1, sizeOfWitness);
 
-    int sizeOfTransaction = getIndexSizeOfTransaction();
-    Assert.assertEquals("transaction index num", 1, sizeOfTransaction);
-
     int sizeOfAssetIssue = getIndexSizeOfAssetIssue();
     Assert.assertEquals("assetIssue index num", 1, sizeOfAssetIssue);
   }
@@ -199,33 +196,6 @@ public class IndexHelperTest {
     return witnessImmutableList.size();
   }
 
-  @Test
-  public void addAndRemoveTransaction() {
-    TransactionWrapper transactionWrapper =
-        new TransactionWrapper(
-            Transaction.newBuilder()
-                .setRawData(
-                    Transaction.raw
-                        .newBuilder()
-                        .setData(ByteString.copyFrom("i am trans".getBytes()))
-                        .build())
-                .build());
-    dbManager.getTransactionStore()
-        .put(transactionWrapper.getTransactionId().getBytes(), transactionWrapper);
-    indexHelper.add(transactionWrapper.getInstance());
-    int size = getIndexSizeOfTransaction();
-    Assert.assertEquals("account index add", 1, size);
-    indexHelper.remove(transactionWrapper.getInstance());
-    size = getIndexSizeOfTransaction();
-    Assert.assertEquals("account index remove", 0, size);
-  }
-
-  private int getIndexSizeOfTransaction() {
-    Index.Iface<Transaction> transactionIndex = indexHelper.getTransactionIndex();
-    ImmutableList<Transaction> accountImmutableList = ImmutableList.copyOf(transactionIndex);
-    return accountImmutableList.size();
-  }
-
   @Ignore
   @Test
   public void addAndRemoveAssetIssue() {
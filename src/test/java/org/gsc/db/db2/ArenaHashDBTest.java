@@ -0,0 +1,140 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db.db2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Test;
+import org.gsc.db.common.WrappedByteArray;
+import org.gsc.db.db2.common.ArenaHashDB;
+import org.gsc.db.db2.common.HashDB;
+import org.gsc.db.db2.common.Key;
+import org.gsc.db.db2.common.Value;
+
+public class ArenaHashDBTest {
+
+  private static void assertSame(HashDB expected, ArenaHashDB actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    Map<WrappedByteArray, Value> rows = new HashMap<>();
+    for (Map.Entry<Key, Value> e : actual) {
+      rows.put(WrappedByteArray.of(e.getKey().getBytes()), e.getValue());
+    }
+    Assert.assertEquals(expected.size(), rows.size());
+    for (Map.Entry<Key, Value> e : expected) {
+      Value value = rows.get(WrappedByteArray.of(e.getKey().getBytes()));
+      Assert.assertNotNull(value);
+      Assert.assertEquals(e.getValue().getOperator(), value.getOperator());
+      Assert.assertArrayEquals(e.getValue().getBytes(), value.getBytes());
+    }
+  }
+
+  @Test
+  public void testSameAsHashDB() {
+    Random random = new Random(7);
+    HashDB expected = new HashDB();
+    ArenaHashDB actual = new ArenaHashDB();
+    for (int i = 0; i < 200_000; i++) {
+      byte[] bytes = new byte[1 + random.nextInt(3)];
+      random.nextBytes(bytes);
+      Key key = Key.of(bytes);
+      int op = random.nextInt(10);
+      if (op < 5) {
+        byte[] data = new byte[random.nextInt(64)];
+        random.nextBytes(data);
+        Value value = Value.of(Value.Operator.PUT, data);
+        expected.put(key, value);
+        actual.put(key, value);
+      } else if (op < 7) {
+        Value value = Value.of(Value.Operator.DELETE, null);
+        expected.put(key, value);
+        actual.put(key, value);
+      } else if (op < 8) {
+        expected.remove(key);
+        actual.remove(key);
+      } else {
+        Value e = expected.get(key);
+        Value a = actual.get(key);
+        if (e == null) {
+          Assert.assertNull(a);
+        } else {
+          Assert.assertEquals(e.getOperator(), a.getOperator());
+          Assert.assertArrayEquals(e.getBytes(), a.getBytes());
+        }
+      }
+    }
+    assertSame(expected, actual);
+  }
+
+  @Test
+  public void testValueIsCopied() {
+    ArenaHashDB db = new ArenaHashDB();
+    byte[] key = {1, 2, 3};
+    byte[] data = {4, 5, 6};
+    db.put(Key.of(key), Value.of(Value.Operator.PUT, data));
+    key[0] = 0;
+    data[0] = 0;
+    Assert.assertNull(db.get(Key.of(key)));
+    Assert.assertArrayEquals(new byte[]{4, 5, 6},
+        db.get(Key.of(new byte[]{1, 2, 3})).getBytes());
+  }
+
+  @Test(timeout = 60000)
+  public void testReadWhileWriting() throws InterruptedException {
+    ArenaHashDB db = new ArenaHashDB();
+    int stable = 1_000;
+    for (int i = 0; i < stable; i++) {
+      db.put(Key.of(stableKey(i)), Value.of(Value.Operator.PUT, stableKey(i)));
+    }
+
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      Random random = new Random(1);
+      try {
+        while (!done.get()) {
+          byte[] key = stableKey(random.nextInt(stable));
+          Value value = db.get(Key.of(key));
+          Assert.assertNotNull(value);
+          Assert.assertArrayEquals(key, value.getBytes());
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    reader.start();
+
+    // overwrites and removes force resizes and compactions of the arena under the reader
+    Random random = new Random(2);
+    for (int i = 0; i < 300_000; i++) {
+      byte[] key = {(byte) 0xff, (byte) random.nextInt(), (byte) random.nextInt()};
+      if (random.nextInt(4) == 0) {
+        db.remove(Key.of(key));
+      } else {
+        db.put(Key.of(key), Value.of(Value.Operator.PUT, new byte[random.nextInt(256)]));
+      }
+    }
+    done.set(true);
+    reader.join();
+
+    Assert.assertNull(failure.get());
+  }
+
+  private static byte[] stableKey(int i) {
+    return new byte[]{1, (byte) (i >>> 8), (byte) i};
+  }
+}
@@ -31,7 +31,9 @@ import org.gsc.db.db2.RevokingDbWithCacheNewValueTest.TestRevokingGSCStore;
 import org.gsc.db.db2.RevokingDbWithCacheNewValueTest.TestSnapshotManager;
 import org.gsc.db.db2.SnapshotRootTest.ProtoWrapperTest;
 import org.gsc.db.db2.core.ISession;
+import org.gsc.db.db2.core.RevokingDBWithCachingNewValue;
 import org.gsc.db.db2.core.SnapshotManager;
+import org.gsc.db.db2.core.SnapshotRoot;
 import org.gsc.core.exception.BadItemException;
 import org.gsc.core.exception.ItemNotFoundException;
 
@@ -78,6 +80,10 @@ public class SnapshotManagerTest {
     revokingDatabase.flush();
     Assert.assertEquals(new SnapshotRootTest.ProtoWrapperTest("refresh10".getBytes()),
         gscDatabase.get(protoWrapper.getData()));
+    SnapshotManager.FlushStats stats = revokingDatabase.getFlushStats()
+        .get("testSnapshotManager-test");
+    Assert.assertNotNull(stats);
+    Assert.assertTrue(stats.getTotalBytes() > 0);
   }
 
   @Test
@@ -101,6 +107,55 @@ public class SnapshotManagerTest {
 
   }
 
+  @Test
+  public synchronized void testKeyFilter() {
+    Args.getInstance().setSnapshotKeyFilter(true);
+    SnapshotManager manager = new TestSnapshotManager();
+    manager.enable();
+    manager.setCheckTmpStore(context.getBean(CheckTmpStore.class));
+    manager.setUnChecked(false);
+    manager.setMaxFlushCount(0);
+    manager.setMaxSize(3);
+    TestRevokingGSCStore store = new TestRevokingGSCStore("testSnapshotManager-filter");
+    manager.add(store.getRevokingDB());
+    Args.getInstance().setSnapshotKeyFilter(false);
+
+    byte[] key = "filter".getBytes();
+    try (ISession session = manager.buildSession()) {
+      store.put(key, new ProtoWrapperTest("filter1".getBytes()));
+      session.commit();
+    }
+    try (ISession session = manager.buildSession()) {
+      store.put(key, new ProtoWrapperTest("filter2".getBytes()));
+    }
+    Assert.assertEquals(new ProtoWrapperTest("filter1".getBytes()), store.get(key));
+
+    try (ISession session = manager.buildSession()) {
+      store.put(key, new ProtoWrapperTest("filter3".getBytes()));
+      try (ISession tmpSession = manager.buildSession()) {
+        store.put("other".getBytes(), new ProtoWrapperTest("other".getBytes()));
+        tmpSession.merge();
+      }
+      session.commit();
+    }
+    Assert.assertEquals(new ProtoWrapperTest("filter3".getBytes()), store.get(key));
+    Assert.assertNull(store.get("missing".getBytes()));
+
+    for (int i = 0; i < 5; i++) {
+      try (ISession session = manager.buildSession()) {
+        session.commit();
+      }
+    }
+    manager.flush();
+    SnapshotRoot root = (SnapshotRoot) ((RevokingDBWithCachingNewValue) store.getRevokingDB())
+        .getHead().getRoot();
+    Assert.assertFalse(root.mightBeInSnapshots(key));
+    Assert.assertEquals(new ProtoWrapperTest("filter3".getBytes()), store.get(key));
+    Assert.assertEquals(new ProtoWrapperTest("other".getBytes()), store.get("other".getBytes()));
+
+    store.close();
+  }
+
   @After
   public void removeDb() {
     Args.clearParam();
@@ -0,0 +1,98 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.db.db2;
+
+import com.google.common.primitives.Longs;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.gsc.db.db2.common.TxCacheDB;
+import org.gsc.utils.Sha256Hash;
+
+public class TxCacheDBTest {
+
+  private static byte[] txId(long blockNum, int index) {
+    return Sha256Hash.hash(Longs.toByteArray(blockNum * 1000 + index));
+  }
+
+  @Test
+  public void testPutAndEvict() {
+    TxCacheDB db = new TxCacheDB();
+    for (long blockNum = 1; blockNum <= 70_010; blockNum++) {
+      for (int i = 0; i < 2; i++) {
+        db.put(txId(blockNum, i), Longs.toByteArray(blockNum));
+      }
+    }
+
+    Assert.assertEquals(140_000, db.size());
+    Assert.assertNull(db.get(txId(10, 0)));
+    Assert.assertArrayEquals(Longs.toByteArray(11), db.get(txId(11, 1)));
+    Assert.assertArrayEquals(Longs.toByteArray(70_010), db.get(txId(70_010, 0)));
+
+    // a block older than the window is not kept
+    db.put(txId(5, 5), Longs.toByteArray(5));
+    Assert.assertNull(db.get(txId(5, 5)));
+
+    db.remove(txId(11, 1));
+    Assert.assertNull(db.get(txId(11, 1)));
+    Assert.assertEquals(139_999, db.size());
+
+    int count = 0;
+    Iterator<Map.Entry<byte[], byte[]>> iterator = db.iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<byte[], byte[]> entry = iterator.next();
+      Assert.assertTrue(Arrays.equals(entry.getValue(), db.get(entry.getKey())));
+      count++;
+    }
+    Assert.assertEquals(139_999, count);
+  }
+
+  @Test
+  public void testPutAgainWithNewerBlock() {
+    TxCacheDB db = new TxCacheDB();
+    db.put(txId(1, 0), Longs.toByteArray(1));
+    db.put(txId(1, 0), Longs.toByteArray(2));
+    db.put(txId(70_001, 0), Longs.toByteArray(70_001));
+    // block 1 is evicted, the id now belongs to block 2
+    Assert.assertArrayEquals(Longs.toByteArray(2), db.get(txId(1, 0)));
+    db.put(txId(70_002, 0), Longs.toByteArray(70_002));
+    Assert.assertNull(db.get(txId(1, 0)));
+  }
+
+  @Test
+  public void testPendingTransaction() {
+    TxCacheDB db = new TxCacheDB();
+    // pending transactions are put before they are in a block, with block number -1
+    db.put(txId(0, 0), Longs.toByteArray(-1));
+    Assert.assertArrayEquals(Longs.toByteArray(-1), db.get(txId(0, 0)));
+
+    db.put(txId(1, 0), Longs.toByteArray(1));
+    db.put(txId(1, 1), Longs.toByteArray(-1));
+    db.put(txId(1, 2), Longs.toByteArray(-1));
+    // packed into block 2 later
+    db.put(txId(1, 2), Longs.toByteArray(2));
+    Assert.assertEquals(4, db.size());
+
+    // pending ids leave the window with the block that was latest when they were put
+    db.put(txId(70_000, 0), Longs.toByteArray(70_000));
+    Assert.assertNull(db.get(txId(0, 0)));
+    Assert.assertArrayEquals(Longs.toByteArray(-1), db.get(txId(1, 1)));
+    db.put(txId(70_001, 0), Longs.toByteArray(70_001));
+    Assert.assertNull(db.get(txId(1, 0)));
+    Assert.assertNull(db.get(txId(1, 1)));
+    Assert.assertArrayEquals(Longs.toByteArray(2), db.get(txId(1, 2)));
+  }
+}
@@ -21,10 +21,13 @@ import static org.junit.Assert.assertNull;
 
 import com.google.common.collect.Sets;
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -34,6 +37,7 @@ import org.gsc.utils.ByteArray;
 import org.gsc.utils.FileUtil;
 import org.gsc.core.Constant;
 import org.gsc.config.args.Args;
+import org.iq80.leveldb.DBException;
 
 @Slf4j
 public class LevelDbDataSourceImplTest {
@@ -164,6 +168,81 @@ public class LevelDbDataSourceImplTest {
     dataSource.closeDB();
   }
 
+  @Test(timeout = 10000)
+  public void testReadDuringReOpen() throws InterruptedException {
+    dataSourceTest.initDB();
+    dataSourceTest.putData(key1, value1);
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicInteger failures = new AtomicInteger();
+    Thread reader = new Thread(() -> {
+      while (running.get()) {
+        try {
+          if (!Arrays.equals(value1, dataSourceTest.getData(key1))) {
+            failures.incrementAndGet();
+          }
+        } catch (RuntimeException e) {
+          failures.incrementAndGet();
+        }
+      }
+    });
+    reader.start();
+    for (int i = 0; i < 20; i++) {
+      dataSourceTest.reOpen();
+    }
+    running.set(false);
+    reader.join();
+
+    assertEquals(0, failures.get());
+    dataSourceTest.closeDB();
+  }
+
+  @Test(timeout = 10000)
+  public void testValuesPrevDuringClose() throws InterruptedException {
+    dataSourceTest.initDB();
+    dataSourceTest.putData(key1, value1);
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicInteger reads = new AtomicInteger();
+    Thread reader = new Thread(() -> {
+      while (running.get()) {
+        try {
+          dataSourceTest.getValuesPrev(key1, 2);
+          reads.incrementAndGet();
+        } catch (RuntimeException e) {
+          // closed between two reopens
+        }
+      }
+    });
+    reader.start();
+    while (reads.get() == 0) {
+      Thread.sleep(1);
+    }
+    // a read pinning the handle twice would never let a close finish
+    for (int i = 0; i < 20; i++) {
+      dataSourceTest.reOpen();
+    }
+    dataSourceTest.closeDB();
+    running.set(false);
+    reader.join();
+
+    assertFalse(dataSourceTest.isAlive());
+  }
+
+  @Test
+  public void testClosed() {
+    dataSourceTest.initDB();
+    dataSourceTest.putData(key1, value1);
+    dataSourceTest.closeDB();
+
+    // a closed db reads as missing, iterating it fails cleanly
+    assertNull(dataSourceTest.getData(key1));
+    try {
+      dataSourceTest.iterator();
+      Assert.fail();
+    } catch (DBException e) {
+      assertEquals("Closed", e.getMessage());
+    }
+  }
+
   @Test(timeout = 1000)
   public void testLockReleased() {
     dataSourceTest.initDB();
@@ -20,6 +20,8 @@ import static org.junit.Assert.assertNull;
 
 import com.google.common.collect.Sets;
 import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,10 +31,12 @@ import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.gsc.db.dbsource.DbHandle;
 import org.gsc.utils.ByteArray;
 import org.gsc.utils.FileUtil;
 import org.gsc.utils.PropUtil;
 import org.gsc.config.args.Args;
+import org.rocksdb.RocksDB;
 
 @Slf4j
 public class RocksDbDataSourceImplTest {
@@ -174,6 +178,38 @@ public class RocksDbDataSourceImplTest {
     assertFalse("Database is still alive after closing.", dataSourceTest.isAlive());
   }
 
+  @Test(timeout = 10000)
+  @SuppressWarnings("unchecked")
+  public void testBatchPinnedDuringClose() throws Exception {
+    RocksDbDataSourceImpl dataSource = new RocksDbDataSourceImpl(
+        Args.getInstance().getOutputDirectory(), "test_batchDuringClose");
+    dataSource.initDB();
+    Field field = RocksDbDataSourceImpl.class.getDeclaredField("handle");
+    field.setAccessible(true);
+    DbHandle<RocksDB> handle = (DbHandle<RocksDB>) field.get(dataSource);
+    Method write = RocksDbDataSourceImpl.class
+        .getDeclaredMethod("updateByBatchInner", RocksDB.class, Map.class);
+    write.setAccessible(true);
+
+    // a flush pinned the handle before the close began
+    Assert.assertTrue(handle.pin());
+    Thread closer = new Thread(dataSource::closeDB);
+    closer.start();
+    while (dataSource.isAlive()) {
+      Thread.sleep(1);
+    }
+    Map<byte[], byte[]> rows = new HashMap<>();
+    rows.put(key1, value1);
+    write.invoke(dataSource, handle.getDb(), rows);
+    handle.unpin();
+    closer.join();
+
+    // the close waited for the batch instead of dropping it
+    dataSource.initDB();
+    Assert.assertArrayEquals(value1, dataSource.getData(key1));
+    dataSource.closeDB();
+  }
+
 
   private void putSomeKeyValue(RocksDbDataSourceImpl dataSource) {
     value1 = "10000".getBytes();
@@ -0,0 +1,159 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.gsc.utils.ByteUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * DataWord arithmetic per operation: the plain methods run DataWord on 32-bit digits, the
+ * bigInteger methods the BigInteger path DataWord took before, converting the operands and
+ * masking the result back into a word. Both copy their operand first, as the VM pops it.
+ * Run with gradle jmh -Pbenchmark=DataWordArithmeticBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataWordArithmeticBenchmark {
+
+  private byte[] a = Hex.decode("0131544101315441013154410131544101315441013154410131544101315441");
+  private byte[] b = Hex.decode("00000000000000000000000000000000000000000000000000000000deadbeef");
+  private byte[] m = Hex.decode("0000000000000000000000000000000000000000000000000000100000000007");
+
+  private static DataWord word(byte[] data) {
+    return new DataWord(data.clone());
+  }
+
+  private static BigInteger value(byte[] data) {
+    return new BigInteger(1, data);
+  }
+
+  private static BigInteger sValue(byte[] data) {
+    return new BigInteger(data);
+  }
+
+  private static byte[] bytes(BigInteger value) {
+    return ByteUtil.copyToArray(value.and(DataWord.MAX_VALUE));
+  }
+
+  @Benchmark
+  public DataWord add() {
+    DataWord w = word(a);
+    w.add(word(b));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] addBigInteger() {
+    return bytes(value(a).add(value(b)));
+  }
+
+  @Benchmark
+  public DataWord mul() {
+    DataWord w = word(a);
+    w.mul(word(b));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] mulBigInteger() {
+    return bytes(value(a).multiply(value(b)));
+  }
+
+  @Benchmark
+  public DataWord div() {
+    DataWord w = word(a);
+    w.div(word(b));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] divBigInteger() {
+    return bytes(value(a).divide(value(b)));
+  }
+
+  @Benchmark
+  public DataWord sDiv() {
+    DataWord w = word(a);
+    w.sDiv(word(b));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] sDivBigInteger() {
+    return bytes(sValue(a).divide(sValue(b)));
+  }
+
+  @Benchmark
+  public DataWord mod() {
+    DataWord w = word(a);
+    w.mod(word(m));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] modBigInteger() {
+    return bytes(value(a).mod(value(m)));
+  }
+
+  @Benchmark
+  public DataWord addmod() {
+    DataWord w = word(a);
+    w.addmod(word(b), word(m));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] addmodBigInteger() {
+    return bytes(value(a).add(value(b)).mod(value(m)));
+  }
+
+  @Benchmark
+  public DataWord mulmod() {
+    DataWord w = word(a);
+    w.mulmod(word(b), word(m));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] mulmodBigInteger() {
+    return bytes(value(a).multiply(value(b)).mod(value(m)));
+  }
+
+  @Benchmark
+  public DataWord exp() {
+    DataWord w = word(a);
+    w.exp(word(a));
+    return w;
+  }
+
+  @Benchmark
+  public byte[] expBigInteger() {
+    return ByteUtil.copyToArray(value(a).modPow(value(a), DataWord._2_256));
+  }
+}
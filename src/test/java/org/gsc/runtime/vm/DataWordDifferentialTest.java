@@ -0,0 +1,217 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import org.gsc.utils.ByteUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * Checks the digit arithmetic of DataWord against the BigInteger implementation it replaced, on
+ * random words biased towards the edge values.
+ */
+public class DataWordDifferentialTest {
+
+  private static final BigInteger MAX = DataWord.MAX_VALUE;
+  private static final int ROUNDS = 20000;
+
+  private final Random random = new Random(20190521L);
+
+  private byte[] randomWord() {
+    byte[] word = new byte[32];
+    switch (random.nextInt(8)) {
+      case 0:
+        break;
+      case 1:
+        word[31] = 1;
+        break;
+      case 2:
+        Arrays.fill(word, (byte) 0xff);
+        break;
+      case 3:
+        word[0] = (byte) 0x80;
+        break;
+      case 4:
+        word[random.nextInt(32)] = (byte) (1 << random.nextInt(8));
+        break;
+      case 5: {
+        // a few low bytes, divisors of one digit
+        int length = 1 + random.nextInt(8);
+        byte[] low = new byte[length];
+        random.nextBytes(low);
+        System.arraycopy(low, 0, word, 32 - length, length);
+        break;
+      }
+      case 6: {
+        // leading zero bytes, divisors of some digits
+        int length = 1 + random.nextInt(32);
+        byte[] low = new byte[length];
+        random.nextBytes(low);
+        System.arraycopy(low, 0, word, 32 - length, length);
+        break;
+      }
+      default:
+        random.nextBytes(word);
+    }
+    return word;
+  }
+
+  private static byte[] bytes(BigInteger value) {
+    return ByteUtil.copyToArray(value.and(MAX));
+  }
+
+  private static BigInteger value(byte[] word) {
+    return new BigInteger(1, word);
+  }
+
+  private static BigInteger sValue(byte[] word) {
+    return new BigInteger(word);
+  }
+
+  private static DataWord word(byte[] data) {
+    return new DataWord(data.clone());
+  }
+
+  private static void check(String op, byte[] expected, DataWord actual, byte[]... args) {
+    StringBuilder message = new StringBuilder(op);
+    for (byte[] arg : args) {
+      message.append(' ').append(Hex.toHexString(arg));
+    }
+    Assert.assertArrayEquals(message.toString(), expected, actual.getData());
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (int i = 0; i < ROUNDS; i++) {
+      byte[] a = randomWord();
+      byte[] b = randomWord();
+      boolean bZero = value(b).signum() == 0;
+
+      DataWord w = word(a);
+      w.add(word(b));
+      check("add", bytes(value(a).add(value(b))), w, a, b);
+
+      w = word(a);
+      w.sub(word(b));
+      check("sub", bytes(value(a).subtract(value(b))), w, a, b);
+
+      w = word(a);
+      w.mul(word(b));
+      check("mul", bytes(value(a).multiply(value(b))), w, a, b);
+
+      w = word(a);
+      w.div(word(b));
+      check("div", bZero ? new byte[32] : bytes(value(a).divide(value(b))), w, a, b);
+
+      w = word(a);
+      w.mod(word(b));
+      check("mod", bZero ? new byte[32] : bytes(value(a).mod(value(b))), w, a, b);
+
+      w = word(a);
+      w.sDiv(word(b));
+      check("sdiv", bZero ? new byte[32] : bytes(sValue(a).divide(sValue(b))), w, a, b);
+
+      w = word(a);
+      w.sMod(word(b));
+      BigInteger sMod = bZero ? BigInteger.ZERO : sValue(a).abs().mod(sValue(b).abs());
+      check("smod", bytes(sValue(a).signum() == -1 ? sMod.negate() : sMod), w, a, b);
+
+      w = word(a);
+      w.exp(word(b));
+      check("exp", bytes(value(a).modPow(value(b), DataWord._2_256)), w, a, b);
+
+      w = word(a);
+      w.negate();
+      check("negate", bytes(value(a).negate()), w, a);
+
+      w = word(a);
+      w.bnot();
+      check("not", bytes(MAX.subtract(value(a))), w, a);
+
+      Assert.assertEquals(Integer.signum(sValue(a).compareTo(sValue(b))),
+          Integer.signum(word(a).sCompareTo(word(b))));
+      Assert.assertEquals(Integer.signum(value(a).compareTo(value(b))),
+          Integer.signum(word(a).compareTo(word(b))));
+    }
+  }
+
+  @Test
+  public void testModularArithmetic() {
+    for (int i = 0; i < ROUNDS; i++) {
+      byte[] a = randomWord();
+      byte[] b = randomWord();
+      byte[] m = randomWord();
+      boolean mZero = value(m).signum() == 0;
+
+      DataWord w = word(a);
+      w.addmod(word(b), word(m));
+      check("addmod", mZero ? new byte[32] : bytes(value(a).add(value(b)).mod(value(m))),
+          w, a, b, m);
+
+      w = word(a);
+      w.mulmod(word(b), word(m));
+      check("mulmod", mZero ? new byte[32] : bytes(value(a).multiply(value(b)).mod(value(m))),
+          w, a, b, m);
+    }
+  }
+
+  @Test
+  public void testShiftAndSignExtend() {
+    for (int i = 0; i < ROUNDS; i++) {
+      byte[] a = randomWord();
+      int shift = random.nextInt(300);
+      DataWord arg = new DataWord(shift);
+
+      check("shl", shift >= 256 ? new byte[32] : bytes(value(a).shiftLeft(shift)),
+          word(a).shiftLeft(arg), a);
+      check("shr", shift >= 256 ? new byte[32] : bytes(value(a).shiftRight(shift)),
+          word(a).shiftRight(arg), a);
+      check("sar", bytes(sValue(a).shiftRight(Math.min(shift, 256))),
+          word(a).shiftRightSigned(arg), a);
+
+      byte k = (byte) random.nextInt(32);
+      DataWord w = word(a);
+      w.signExtend(k);
+      BigInteger low = value(a).and(BigInteger.ONE.shiftLeft(k * 8 + 8).subtract(BigInteger.ONE));
+      BigInteger extended = sValue(a).testBit(k * 8 + 7)
+          ? low.or(MAX.shiftLeft(k * 8 + 8)) : low;
+      check("signextend " + k, bytes(extended), w, a);
+    }
+    byte[] a = randomWord();
+    check("shl huge", new byte[32], word(a).shiftLeft(new DataWord(bytes(MAX))), a);
+  }
+
+  @Test
+  public void testAliasing() {
+    for (int i = 0; i < ROUNDS; i++) {
+      byte[] a = randomWord();
+      DataWord w = word(a);
+      w.add(w);
+      check("add self", bytes(value(a).shiftLeft(1)), w, a);
+
+      w = word(a);
+      w.mul(w);
+      check("mul self", bytes(value(a).multiply(value(a))), w, a);
+
+      w = word(a);
+      w.mulmod(w, w);
+      // a * a % a
+      check("mulmod self", new byte[32], w, a);
+    }
+  }
+}
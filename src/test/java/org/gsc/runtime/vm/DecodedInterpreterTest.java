@@ -0,0 +1,118 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gsc.config.args.Args;
+import org.gsc.core.Constant;
+import org.gsc.protos.Protocol.Transaction;
+import org.gsc.runtime.config.VMConfig;
+import org.gsc.runtime.vm.program.InternalTransaction;
+import org.gsc.runtime.vm.program.InternalTransaction.TrxType;
+import org.gsc.runtime.vm.program.Program;
+import org.gsc.runtime.vm.program.invoke.ProgramInvokeMockImpl;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * Runs programs with and without the decoded interpreter and expects the same stack, cpu and
+ * failure from both.
+ */
+public class DecodedInterpreterTest {
+
+  @BeforeClass
+  public static void init() {
+    Args.clearParam();
+    Args.setParam(new String[]{"--support-constant", "--debug"}, Constant.TEST_NET_CONF);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    VMConfig.getInstance().setDecodedInterpreter(false);
+    VMConfig.initAllowGvmConstantinople(0);
+    Args.clearParam();
+  }
+
+  private static List<Object> run(String code, boolean decoded) {
+    VMConfig.getInstance().setDecodedInterpreter(decoded);
+    InternalTransaction interTrx = new InternalTransaction(Transaction.getDefaultInstance(),
+        TrxType.TRX_UNKNOWN_TYPE);
+    Program program = new Program(Hex.decode(code), new ProgramInvokeMockImpl(), interTrx);
+    VM vm = new VM();
+
+    List<Object> state = new ArrayList<>();
+    try {
+      while (!program.isStopped()) {
+        vm.step(program);
+      }
+    } catch (RuntimeException e) {
+      state.add(e.getClass().getName() + ": " + e.getMessage());
+    }
+    for (int i = 0; i < program.getStack().size(); i++) {
+      state.add(program.getStack().get(i));
+    }
+    state.add(program.getResult().getCpuUsed());
+    state.add(program.getPC());
+    return state;
+  }
+
+  private static void check(String code) {
+    List<Object> expected = run(code, false);
+    Assert.assertEquals(code, expected, run(code, true));
+  }
+
+  @Test
+  public void testLoop() {
+    // sum 1..10: PUSH1 0 PUSH1 10 JUMPDEST DUP1 SWAP2 ADD SWAP1 PUSH1 1 SWAP1 SUB DUP1 PUSH1 4
+    // JUMPI POP
+    check("6000600a5b80910190600190038060045750");
+  }
+
+  @Test
+  public void testArithmetic() {
+    // PUSH32 -1 PUSH1 3 MUL PUSH1 7 SDIV PUSH1 5 SMOD NOT PUSH1 2 PUSH1 9 PUSH1 4 ADDMOD
+    // PUSH1 0 SIGNEXTEND PUSH1 0x1f BYTE DUP2 DUP2 LT DUP3 DUP3 SGT EQ ISZERO PC MSIZE CALLVALUE
+    check("7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"
+        + "6003026007056005071960026009600408600001601f1a8181108282131415585934");
+  }
+
+  @Test
+  public void testFailures() {
+    // JUMP to a 0x5b inside push data
+    check("600456605b00");
+    // ADD on an empty stack
+    check("01");
+    // an endless loop runs out of cpu
+    check("5b600056");
+    // a push cut off by the end of the code
+    check("61ff");
+  }
+
+  @Test
+  public void testForks() {
+    // PUSH1 1 PUSH1 8 SHL
+    String code = "600160081b";
+    VMConfig.initAllowGvmConstantinople(0);
+    check(code);
+    Assert.assertTrue(run(code, true).get(0).toString().contains("IllegalOperationException"));
+
+    VMConfig.initAllowGvmConstantinople(1);
+    check(code);
+    Assert.assertEquals(new DataWord(256), run(code, true).get(0));
+  }
+}
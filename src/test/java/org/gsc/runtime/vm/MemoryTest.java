@@ -557,5 +557,23 @@ public class MemoryTest {
     assertTrue(zero == 10);
   }
 
+  @Test
+  public void memoryWord_acrossChunks() {
 
-}
\ No newline at end of file
+    Memory memoryBuffer = new Memory();
+    DataWord value = new DataWord(
+        "0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20");
+
+    // the word straddles the first and the second chunk, the buffer grows several times
+    memoryBuffer.writeWord(1010, value);
+    memoryBuffer.writeWord(5000, value);
+
+    assertTrue(memoryBuffer.size() == 5056);
+    assertTrue(memoryBuffer.internalSize() == 5 * CHUNK_SIZE);
+    Assert.assertEquals(value, memoryBuffer.readWord(1010));
+    Assert.assertEquals(value, memoryBuffer.readWord(5000));
+    Assert.assertEquals(new DataWord(0x0102), memoryBuffer.readWord(980));
+    assertArrayEquals(Arrays.copyOfRange(value.getData(), 14, 32),
+        Arrays.copyOfRange(memoryBuffer.getChunks().get(1), 0, 18));
+  }
+}
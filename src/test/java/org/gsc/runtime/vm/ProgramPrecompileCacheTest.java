@@ -0,0 +1,85 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import org.gsc.runtime.vm.program.ProgramPrecompile;
+import org.gsc.runtime.vm.program.ProgramPrecompileCache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+public class ProgramPrecompileCacheTest {
+
+  // PUSH1 0x5b JUMPDEST PUSH2 0x5b5b JUMPDEST STOP
+  private static final String CODE = "605b5b615b5b5b00";
+
+  @Test
+  public void testCompile() {
+    ProgramPrecompile precompile = ProgramPrecompile.compile(Hex.decode(CODE));
+
+    Assert.assertFalse(precompile.hasJumpDest(1));
+    Assert.assertTrue(precompile.hasJumpDest(2));
+    Assert.assertFalse(precompile.hasJumpDest(4));
+    Assert.assertFalse(precompile.hasJumpDest(5));
+    Assert.assertTrue(precompile.hasJumpDest(6));
+    Assert.assertFalse(precompile.hasJumpDest(-1));
+    Assert.assertFalse(precompile.hasJumpDest(100));
+
+    Assert.assertTrue(precompile.isInstruction(3));
+    Assert.assertFalse(precompile.isInstruction(4));
+    Assert.assertEquals(OpCode.PUSH2, precompile.getOpCode(3));
+    Assert.assertNull(precompile.getOpCode(5));
+    Assert.assertEquals(OpCode.STOP, precompile.getOpCode(7));
+    Assert.assertNull(precompile.getOpCode(8));
+  }
+
+  @Test
+  public void testSize() {
+    // 8 opcode and immediate references, 2 pushed words and the two bit sets
+    Assert.assertEquals(8 * 2 * 4 + 2 * 64 + 2 * 2,
+        ProgramPrecompile.compile(Hex.decode(CODE)).size());
+    // as long, without push data
+    Assert.assertEquals(8 * 2 * 4 + 2 * 2,
+        ProgramPrecompile.compile(Hex.decode("5b5b5b5b5b5b5b00")).size());
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    ProgramPrecompileCache cache = new ProgramPrecompileCache(1024);
+    byte[] code = Hex.decode(CODE);
+
+    ProgramPrecompile first = cache.get(code);
+    // the same code in another array, e.g. loaded again by an internal call
+    Assert.assertSame(first, cache.get(Hex.decode(CODE)));
+
+    // the cached key is a copy, changing the caller's array does not corrupt it
+    code[2] = 0;
+    ProgramPrecompile changed = cache.get(code);
+    Assert.assertNotSame(first, changed);
+    Assert.assertFalse(changed.hasJumpDest(2));
+    Assert.assertSame(first, cache.get(Hex.decode(CODE)));
+
+    Assert.assertEquals(2, cache.getStats().hitCount());
+    Assert.assertEquals(2, cache.getStats().missCount());
+  }
+
+  @Test
+  public void testDisabled() {
+    ProgramPrecompileCache cache = new ProgramPrecompileCache(0);
+    byte[] code = Hex.decode(CODE);
+
+    Assert.assertNotSame(cache.get(code), cache.get(code));
+    Assert.assertEquals(0, cache.getStats().requestCount());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * GSC (Global Social Chain), a blockchain fit for mass adoption and
+ * a sustainable token economy model, is the decentralized global social
+ * chain with highly secure, low latency, and near-zero fee transactional system.
+ *
+ * gsc-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * License GSC-Core is under the GNU General Public License v3. See LICENSE.
+ */
+
+package org.gsc.runtime.vm;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gsc.runtime.vm.program.Program.StackTooSmallException;
+import org.gsc.runtime.vm.program.Stack;
+import org.gsc.runtime.vm.program.listener.ProgramListenerAdaptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackTest {
+
+  @Test
+  public void testPushPop() {
+    Stack stack = new Stack();
+    for (int i = 0; i < Stack.MAX_SIZE; i++) {
+      stack.push(new DataWord(i));
+    }
+    Assert.assertEquals(Stack.MAX_SIZE, stack.size());
+    Assert.assertEquals(new DataWord(Stack.MAX_SIZE - 1), stack.peek());
+    Assert.assertEquals(new DataWord(3), stack.get(3));
+    for (int i = Stack.MAX_SIZE - 1; i >= 0; i--) {
+      Assert.assertEquals(new DataWord(i), stack.pop());
+    }
+    Assert.assertTrue(stack.isEmpty());
+  }
+
+  @Test(expected = StackTooSmallException.class)
+  public void testPopEmpty() {
+    new Stack().pop();
+  }
+
+  @Test
+  public void testDupSwap() {
+    Stack stack = new Stack();
+    stack.push(new DataWord(1));
+    stack.push(new DataWord(2));
+    stack.push(new DataWord(3));
+
+    // DUP3 copies the bottom word, the copy does not share the bytes
+    DataWord dup = stack.dup(3);
+    Assert.assertEquals(new DataWord(1), dup);
+    Assert.assertNotSame(stack.get(0), dup);
+
+    // SWAP2
+    stack.swap(stack.size() - 1, stack.size() - 3);
+    Assert.assertEquals(new DataWord(2), stack.get(1));
+    Assert.assertEquals(new DataWord(1), stack.get(2));
+    Assert.assertEquals(new DataWord(3), stack.get(3));
+    Assert.assertEquals(4, stack.size());
+  }
+
+  @Test
+  public void testListener() {
+    List<String> actions = new ArrayList<>();
+    Stack stack = new Stack();
+    stack.setProgramListener(new ProgramListenerAdaptor() {
+      @Override
+      public void onStackPop() {
+        actions.add("pop");
+      }
+
+      @Override
+      public void onStackPush(DataWord value) {
+        actions.add("push " + value.intValue());
+      }
+
+      @Override
+      public void onStackSwap(int from, int to) {
+        actions.add("swap " + from + " " + to);
+      }
+    });
+    stack.push(new DataWord(1));
+    stack.dup(1);
+    stack.swap(0, 1);
+    stack.pop();
+    Assert.assertEquals("[push 1, push 1, swap 0 1, pop]", actions.toString());
+  }
+}
@@ -18,10 +18,14 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Assert;
 import org.junit.Test;
 import org.spongycastle.util.Arrays;
+import org.gsc.core.wrapper.BytesWrapper;
 import org.gsc.core.wrapper.utils.RLP;
+import org.gsc.db.db2.common.ConcurrentHashDB;
+import org.gsc.db.db2.common.WriteBufferDB;
 import org.gsc.trie.TrieImpl;
 import org.gsc.trie.TrieImpl.Node;
 import org.spongycastle.util.encoders.Hex;
@@ -137,6 +141,65 @@ public class TrieTest {
     Assert.assertTrue(java.util.Arrays.equals(rootHash1, rootHash2));
   }
 
+  @Test
+  public void testWriteBuffer() {
+    ConcurrentHashDB backing = new ConcurrentHashDB();
+    WriteBufferDB buffer = new WriteBufferDB(backing);
+    TrieImpl trie = new TrieImpl(buffer, null);
+    TrieImpl serial = new TrieImpl();
+    serial.setAsync(false);
+    int n = 2000;
+    for (int i = 0; i < n; i++) {
+      trie.put(RLP.encodeInt(i), String.valueOf(i).getBytes());
+      serial.put(RLP.encodeInt(i), String.valueOf(i).getBytes());
+    }
+    byte[] rootHash = trie.getRootHash();
+    Assert.assertArrayEquals(serial.getRootHash(), rootHash);
+    Assert.assertTrue(backing.isEmpty());
+
+    buffer.flush();
+    TrieImpl flushed = new TrieImpl(backing, rootHash);
+    for (int i = 0; i < n; i++) {
+      Assert.assertArrayEquals(String.valueOf(i).getBytes(), flushed.get(RLP.encodeInt(i)));
+    }
+
+    for (int i = 0; i < n; i += 2) {
+      trie.put(RLP.encodeInt(i), String.valueOf(-i).getBytes());
+      serial.put(RLP.encodeInt(i), String.valueOf(-i).getBytes());
+    }
+    trie.delete(RLP.encodeInt(1));
+    serial.delete(RLP.encodeInt(1));
+    rootHash = trie.getRootHash();
+    Assert.assertArrayEquals(serial.getRootHash(), rootHash);
+    buffer.flush();
+    flushed = new TrieImpl(backing, rootHash);
+    Assert.assertArrayEquals(String.valueOf(-2).getBytes(), flushed.get(RLP.encodeInt(2)));
+    Assert.assertArrayEquals(String.valueOf(3).getBytes(), flushed.get(RLP.encodeInt(3)));
+    Assert.assertTrue(ArrayUtils.isEmpty(flushed.get(RLP.encodeInt(1))));
+  }
+
+  @Test
+  public void testWriteBufferIterator() {
+    ConcurrentHashDB backing = new ConcurrentHashDB();
+    backing.put(new byte[]{1}, new BytesWrapper(new byte[]{1}));
+    backing.put(new byte[]{2}, new BytesWrapper(new byte[]{2}));
+    backing.put(new byte[]{3}, new BytesWrapper(new byte[]{3}));
+    WriteBufferDB buffer = new WriteBufferDB(backing);
+    buffer.put(new byte[]{2}, new BytesWrapper(new byte[]{20}));
+    buffer.remove(new byte[]{3});
+    buffer.put(new byte[]{4}, new BytesWrapper(new byte[]{4}));
+
+    Map<String, String> rows = new LinkedHashMap<>();
+    for (Map.Entry<byte[], BytesWrapper> entry : buffer) {
+      rows.put(Hex.toHexString(entry.getKey()), Hex.toHexString(entry.getValue().getData()));
+    }
+    Map<String, String> expected = new LinkedHashMap<>();
+    expected.put("01", "01");
+    expected.put("02", "14");
+    expected.put("04", "04");
+    Assert.assertEquals(expected, rows);
+  }
+
   private void assertTrue(byte[] key1, byte[] key2, TrieImpl trieCopy) {
     Assert.assertTrue(trieCopy.verifyProof(trieCopy.getRootHash(), key2, trieCopy.prove(key1)));
   }